@@ -0,0 +1,46 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+
+
+/**
+ * Measures the parse latency of a KafkaTopic list response when a factory and parser are set up for each list,
+ * against the tuned factory and parser that the connector creates once and shares.  Run with -prof gc to compare
+ * the memory allocated per list.
+ */
+@State(Scope.Benchmark)
+public class JsonFactoryReuseBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int topicCount;
+
+    private String topicList;
+    private KafkaTopicListParser sharedParser;
+
+    @Setup
+    public void setUp() {
+        topicList = KafkaTopicListGenerator.generateList(topicCount, 42);
+        sharedParser = new KafkaTopicListParser(KafkaTopicListParser.createJsonFactory(), KafkaTopicListGenerator.DESCRIPTION_ANNOTATION);
+    }
+
+    @Benchmark
+    public Object factoryPerList(Blackhole blackhole) throws IOException {
+        KafkaTopicListParser parser = new KafkaTopicListParser(new JsonFactory(), KafkaTopicListGenerator.DESCRIPTION_ANNOTATION);
+        return parser.parse(topicList, blackhole::consume);
+    }
+
+    @Benchmark
+    public Object sharedFactory(Blackhole blackhole) throws IOException {
+        return sharedParser.parse(topicList, blackhole::consume);
+    }
+}
@@ -0,0 +1,172 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.odpi.openmetadata.accessservices.datamanager.metadataelements.TopicElement;
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ElementHeader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+
+/**
+ * KafkaTopicListGenerator builds synthetic inputs for the benchmarks.  The KafkaTopic list has the shape of the
+ * list returned by the Kubernetes API server (see SampleGetResponse.json), including the managedFields entries
+ * that make up most of each item, and is the same for the same size and seed.
+ */
+final class KafkaTopicListGenerator {
+    static final String DESCRIPTION_ANNOTATION = "egeria.odpi.org/description";
+
+    private KafkaTopicListGenerator() {
+    }
+
+    /**
+     * Return the name of a generated topic.
+     *
+     * @param index position of the topic in the list
+     * @return topic name
+     */
+    static String topicName(int index) {
+        return "team-" + (index % 97) + ".service-" + (index % 13) + ".events-" + index;
+    }
+
+    /**
+     * Generate a KafkaTopic list response.  One topic in fifty is an internal topic, which the connector ignores,
+     * and one in three has a description annotation.
+     *
+     * @param topicCount number of KafkaTopic items
+     * @param seed       seed for the random choices
+     * @return list response
+     */
+    static String generateList(int topicCount, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder(topicCount * 3200);
+        json.append("{\"apiVersion\":\"kafka.strimzi.io/v1beta2\",\"items\":[");
+        for (int i = 0; i < topicCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendTopic(json, i, random);
+        }
+        json.append("],\"kind\":\"KafkaTopicList\",\"metadata\":{\"continue\":\"\",\"resourceVersion\":\"")
+            .append(1000000 + topicCount)
+            .append("\"}}");
+        return json.toString();
+    }
+
+    private static void appendTopic(StringBuilder json, int index, Random random) {
+        String name = topicName(index);
+        boolean internal = index % 50 == 49;
+        String topicName = internal ? "__strimzi-internal-" + index : name;
+        int partitions = 1 + random.nextInt(48);
+        int replicas = 1 + random.nextInt(3);
+        String timestamp = "2023-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10) + "T1" + random.nextInt(10) + ":0" + random.nextInt(10) + ":48Z";
+
+        json.append("{\"apiVersion\":\"kafka.strimzi.io/v1beta2\",\"kind\":\"KafkaTopic\",\"metadata\":{");
+        if (index % 3 == 0) {
+            json.append("\"annotations\":{\"").append(DESCRIPTION_ANNOTATION).append("\":\"Events published by service ")
+                .append(index % 13).append(" of team ").append(index % 97).append("\"},");
+        }
+        json.append("\"creationTimestamp\":\"").append(timestamp).append("\",\"generation\":").append(1 + random.nextInt(5))
+            .append(",\"labels\":{\"strimzi.io/cluster\":\"kafka\",\"app.kubernetes.io/part-of\":\"team-").append(index % 97).append("\"},");
+        appendManagedFields(json, timestamp);
+        json.append(",\"name\":\"").append(name)
+            .append("\",\"namespace\":\"kafka\",\"resourceVersion\":\"").append(100000 + index)
+            .append("\",\"uid\":\"").append(new UUID(random.nextLong(), random.nextLong())).append("\"},");
+        json.append("\"spec\":{\"config\":{\"cleanup.policy\":\"delete\",\"compression.type\":\"lz4\",\"retention.ms\":")
+            .append(3600000L * (1 + random.nextInt(168)))
+            .append(",\"segment.bytes\":1073741824},\"partitions\":").append(partitions)
+            .append(",\"replicas\":").append(replicas)
+            .append(",\"topicName\":\"").append(topicName).append("\"},");
+        json.append("\"status\":{\"conditions\":[{\"lastTransitionTime\":\"").append(timestamp)
+            .append("\",\"status\":\"True\",\"type\":\"Ready\"}],\"observedGeneration\":1,\"topicName\":\"").append(topicName).append("\"}}");
+    }
+
+    /**
+     * Add the managedFields entries written by the topic operator and by kubectl.  They are nested field sets with
+     * empty objects as leaves and are of no interest to the connector.
+     */
+    private static void appendManagedFields(StringBuilder json, String timestamp) {
+        json.append("\"managedFields\":[");
+        String[] managers = { "okhttp", "kubectl-client-side-apply", "strimzi-topic-operator" };
+        for (int m = 0; m < managers.length; m++) {
+            if (m > 0) {
+                json.append(',');
+            }
+            json.append("{\"apiVersion\":\"kafka.strimzi.io/v1beta2\",\"fieldsType\":\"FieldsV1\",\"fieldsV1\":{")
+                .append("\"f:metadata\":{\"f:annotations\":{\".\":{},\"f:kubectl.kubernetes.io/last-applied-configuration\":{}},")
+                .append("\"f:labels\":{\".\":{},\"f:app.kubernetes.io/part-of\":{},\"f:strimzi.io/cluster\":{}}},")
+                .append("\"f:spec\":{\".\":{},\"f:config\":{\".\":{},\"f:cleanup.policy\":{},\"f:compression.type\":{},")
+                .append("\"f:retention.ms\":{},\"f:segment.bytes\":{}},\"f:partitions\":{},\"f:replicas\":{},\"f:topicName\":{}},")
+                .append("\"f:status\":{\".\":{},\"f:conditions\":{},\"f:observedGeneration\":{},\"f:topicName\":{}}},")
+                .append("\"manager\":\"").append(managers[m]).append("\",\"operation\":\"Update\",\"time\":\"").append(timestamp).append("\"}");
+        }
+        json.append(']');
+    }
+
+    /**
+     * Generate the catalogued topics for a set of Strimzi topics.  Most are identical to their Strimzi topic; the
+     * rest are changed, missing (so they must be added) or extra (so they must be removed).
+     *
+     * @param strimziTopics topics converted from a generated list
+     * @param changePercent percentage of topics in each of the changed, missing and extra groups
+     * @param seed          seed for the random choices
+     * @return catalogued topic elements
+     */
+    static List<TopicElement> generateCataloguedTopics(Map<String, TopicProperties> strimziTopics, int changePercent, long seed) {
+        Random random = new Random(seed);
+        List<TopicElement> cataloguedTopics = new ArrayList<>(strimziTopics.size());
+        int guid = 0;
+        for (TopicProperties strimziTopic : strimziTopics.values()) {
+            int choice = random.nextInt(100);
+            if (choice < changePercent) {
+                // missing from the catalog
+                continue;
+            }
+            TopicProperties properties = copy(strimziTopic);
+            if (choice < 2 * changePercent) {
+                Map<String, Object> extendedProperties = new HashMap<>(properties.getExtendedProperties());
+                extendedProperties.put(StrimziMonitorIntegrationConnector.PARTITIONS, 1000);
+                properties.setExtendedProperties(extendedProperties);
+                properties.setAdditionalProperties(Collections.singletonMap(TopicFingerprint.FINGERPRINT_PROPERTY,
+                                                                            TopicFingerprint.compute(properties)));
+            }
+            cataloguedTopics.add(element("guid-" + guid++, properties));
+        }
+        int extraTopics = strimziTopics.size() * changePercent / 100;
+        for (int i = 0; i < extraTopics; i++) {
+            TopicProperties properties = new TopicProperties();
+            properties.setQualifiedName(topicName(strimziTopics.size() + i));
+            properties.setDescription("Removed topic " + i);
+            cataloguedTopics.add(element("guid-" + guid++, properties));
+        }
+        return cataloguedTopics;
+    }
+
+    private static TopicProperties copy(TopicProperties topicProperties) {
+        TopicProperties copy = new TopicProperties();
+        copy.setQualifiedName(topicProperties.getQualifiedName());
+        copy.setDisplayName(topicProperties.getDisplayName());
+        copy.setDescription(topicProperties.getDescription());
+        copy.setTypeName(topicProperties.getTypeName());
+        copy.setExtendedProperties(topicProperties.getExtendedProperties());
+        copy.setAdditionalProperties(topicProperties.getAdditionalProperties());
+        return copy;
+    }
+
+    private static TopicElement element(String guid, TopicProperties properties) {
+        ElementHeader elementHeader = new ElementHeader();
+        elementHeader.setGUID(guid);
+        TopicElement topicElement = new TopicElement();
+        topicElement.setElementHeader(elementHeader);
+        topicElement.setProperties(properties);
+        return topicElement;
+    }
+}
@@ -0,0 +1,202 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.odpi.openmetadata.accessservices.datamanager.metadataelements.TopicElement;
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Measures working out the catalog changes from the catalogued topic index and the topics in Strimzi.  In each of
+ * the changed, missing and extra groups there is one percent of the topics.
+ * <p>
+ * preChangeDiff is the comparison the connector made before the open-addressed index: the update map, delete map
+ * and add set that reconcileCluster allocated, filled by a copy of its determineMutations.  openAddressedDiff
+ * reuses a TopicDiff and TopicMutations as the connector does, with the topics already added.  The ListAndDiff
+ * benchmarks also collect the parsed topics as each list does: into a new map before the change, and into the
+ * reused TopicDiff after it.  The CatalogRead benchmarks index a page of catalogued topic elements as each catalog
+ * read does: into a new map of CataloguedTopic before the reusable CatalogIndex, and into a refilled CatalogIndex
+ * after it.  Run with -prof gc to compare the allocation per diff.
+ */
+@State(Scope.Benchmark)
+public class MutationDiffBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int topicCount;
+
+    private final StrimziMonitorIntegrationConnector connector = new StrimziMonitorIntegrationConnector();
+    private final TopicDiff topicDiff = new TopicDiff(connector::updateRequired);
+    private final TopicMutations mutations = new TopicMutations();
+    private Map<String, TopicProperties> strimziTopics;
+    private Map<String, CataloguedTopic> cataloguedTopicIndex;
+    private final CatalogIndex catalogIndex = new CatalogIndex();
+    private List<TopicElement> cataloguedTopics;
+    // the topics as the list parser hands them to the TopicDiff
+    private String[] topicNames;
+    private TopicProperties[] topicProperties;
+    private String[] fingerprints;
+
+    @Setup
+    public void setUp() throws ConnectorCheckedException {
+        strimziTopics = connector.convertStringToTopicMap(KafkaTopicListGenerator.generateList(topicCount, 42));
+        cataloguedTopics = KafkaTopicListGenerator.generateCataloguedTopics(strimziTopics, 1, 7);
+        cataloguedTopicIndex = new ConcurrentHashMap<>();
+        for (TopicElement topicElement : cataloguedTopics) {
+            cataloguedTopicIndex.put(topicElement.getProperties().getQualifiedName(), new CataloguedTopic(topicElement));
+        }
+        fillCatalogIndex();
+        topicNames = new String[strimziTopics.size()];
+        topicProperties = new TopicProperties[strimziTopics.size()];
+        fingerprints = new String[strimziTopics.size()];
+        int index = 0;
+        for (Map.Entry<String, TopicProperties> strimziTopic : strimziTopics.entrySet()) {
+            topicNames[index] = strimziTopic.getKey();
+            topicProperties[index] = strimziTopic.getValue();
+            fingerprints[index] = TopicFingerprint.get(strimziTopic.getValue());
+            index++;
+        }
+        addListedTopics();
+    }
+
+    private void fillCatalogIndex() {
+        catalogIndex.clear();
+        for (TopicElement topicElement : cataloguedTopics) {
+            // as addToCataloguedTopicIndex does
+            TopicProperties properties = topicElement.getProperties();
+            Map<String, String> additionalProperties = properties.getAdditionalProperties();
+            catalogIndex.put(properties.getQualifiedName(),
+                             topicElement.getElementHeader().getGUID(),
+                             properties.getDescription(),
+                             properties.getExtendedProperties(),
+                             additionalProperties == null ? null : additionalProperties.get(TopicFingerprint.FINGERPRINT_PROPERTY),
+                             additionalProperties == null ? null : additionalProperties.get(StrimziCluster.CLUSTER_PROPERTY));
+        }
+    }
+
+    private void addListedTopics() {
+        topicDiff.clear();
+        for (int index = 0; index < topicNames.length; index++) {
+            topicDiff.add(topicNames[index], topicProperties[index], fingerprints[index]);
+        }
+    }
+
+    @Benchmark
+    public void preChangeDiff(Blackhole blackhole) {
+        // allocated by reconcileCluster for each diff
+        Map<String, String> updateTopics = new HashMap<>();
+        Map<String, String> deleteTopics = new HashMap<>();
+        Set<String> addTopics = new HashSet<>();
+        determineMutations(cataloguedTopicIndex, strimziTopics, updateTopics, deleteTopics, addTopics);
+        blackhole.consume(updateTopics);
+        blackhole.consume(deleteTopics);
+        blackhole.consume(addTopics);
+    }
+
+    @Benchmark
+    public void preChangeListAndDiff(Blackhole blackhole) {
+        Map<String, TopicProperties> topicMap = new HashMap<>();
+        for (int index = 0; index < topicNames.length; index++) {
+            topicMap.put(topicNames[index], topicProperties[index]);
+        }
+        Map<String, String> updateTopics = new HashMap<>();
+        Map<String, String> deleteTopics = new HashMap<>();
+        Set<String> addTopics = new HashSet<>();
+        determineMutations(cataloguedTopicIndex, topicMap, updateTopics, deleteTopics, addTopics);
+        blackhole.consume(updateTopics);
+        blackhole.consume(deleteTopics);
+        blackhole.consume(addTopics);
+    }
+
+    @Benchmark
+    public void openAddressedDiff(Blackhole blackhole) {
+        mutations.clear();
+        topicDiff.diff(catalogIndex, null, mutations);
+        blackhole.consume(mutations.size());
+    }
+
+    @Benchmark
+    public void openAddressedListAndDiff(Blackhole blackhole) {
+        addListedTopics();
+        mutations.clear();
+        topicDiff.diff(catalogIndex, null, mutations);
+        blackhole.consume(mutations.size());
+    }
+
+    @Benchmark
+    public void preChangeCatalogRead(Blackhole blackhole) {
+        // allocated by getCataloguedTopicIndex for each catalog read
+        Map<String, CataloguedTopic> index = new ConcurrentHashMap<>();
+        for (TopicElement topicElement : cataloguedTopics) {
+            index.put(topicElement.getProperties().getQualifiedName(), new CataloguedTopic(topicElement));
+        }
+        blackhole.consume(index);
+    }
+
+    @Benchmark
+    public void catalogIndexRead(Blackhole blackhole) {
+        fillCatalogIndex();
+        blackhole.consume(catalogIndex.size());
+    }
+
+    /**
+     * Work out the topics to update, delete and add by comparing the catalogued topics with the topics in Strimzi.
+     * Copied from the connector as it was before the open-addressed index; only the call to updateRequired is
+     * qualified, which is unchanged since.
+     *
+     * @param cataloguedTopicIndex     catalogued topics keyed by qualified name
+     * @param strimziTopicElements     topics in Strimzi keyed by name
+     * @param updateTopicNameToGuidMap receives the guids of the topics to update keyed by name
+     * @param deleteTopicNameToGuidMap receives the guids of the topics to delete keyed by name
+     * @param addTopicNamesSet         receives the names of the topics to add
+     */
+    private void determineMutations(Map<String, CataloguedTopic> cataloguedTopicIndex,
+                                    Map<String, TopicProperties> strimziTopicElements,
+                                    Map<String, String> updateTopicNameToGuidMap,
+                                    Map<String, String> deleteTopicNameToGuidMap,
+                                    Set<String> addTopicNamesSet) {
+        /*
+         * Loop through catalogued topics to decide whether to update or delete by populating the maps.
+         * The delete and update maps need the Egeria guid to be able to action the mutation.
+         */
+        for (Map.Entry<String, CataloguedTopic> cataloguedEntry : cataloguedTopicIndex.entrySet()) {
+            String cataloguedTopicName = cataloguedEntry.getKey();
+            CataloguedTopic cataloguedTopic = cataloguedEntry.getValue();
+            TopicProperties strimziTopicProperties = strimziTopicElements == null ? null : strimziTopicElements.get(cataloguedTopicName);
+
+            if (strimziTopicProperties == null) {
+                /*
+                 * The topic no longer exists so delete it from the catalog.
+                 */
+                deleteTopicNameToGuidMap.put(cataloguedTopicName, cataloguedTopic.getGUID());
+            } else if (connector.updateRequired(strimziTopicProperties, cataloguedTopic)) {
+                // we have 2 topics of the same name in Strimzi and Egeria
+                updateTopicNameToGuidMap.put(cataloguedTopicName, cataloguedTopic.getGUID());
+            }
+        }
+        /*
+         * loop through Strimzi topics to determine what we need to add. The add is made without a guid, as the guid
+         * does not exist yet.
+         */
+        if (strimziTopicElements != null) {
+            for (String strimziTopicName : strimziTopicElements.keySet()) {
+                if (!cataloguedTopicIndex.containsKey(strimziTopicName)) {
+                    addTopicNamesSet.add(strimziTopicName);
+                }
+            }
+        }
+    }
+}
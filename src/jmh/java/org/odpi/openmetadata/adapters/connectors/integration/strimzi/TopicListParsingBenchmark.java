@@ -0,0 +1,48 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Measures the conversion of a KafkaTopic list response into topic properties, with and without the config and
+ * status attributes that can be catalogued.  Run with -prof gc to see the memory allocated per list.
+ */
+@State(Scope.Benchmark)
+public class TopicListParsingBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int topicCount;
+
+    @Param({"false", "true"})
+    public boolean syncAttributes;
+
+    private String topicList;
+    private StrimziMonitorIntegrationConnector connector;
+
+    @Setup
+    public void setUp() {
+        topicList = KafkaTopicListGenerator.generateList(topicCount, 42);
+        connector = new StrimziMonitorIntegrationConnector();
+        connector.setDescriptionAnnotationField(KafkaTopicListGenerator.DESCRIPTION_ANNOTATION);
+        if (syncAttributes) {
+            connector.setAttributeModel(new TopicAttributeModel(List.of("cleanup.policy", "compression.type", "retention.ms", "segment.bytes"),
+                                                                List.of("conditions.Ready", "observedGeneration")));
+        }
+    }
+
+    @Benchmark
+    public Map<String, TopicProperties> convertStringToTopicMap() throws ConnectorCheckedException {
+        return connector.convertStringToTopicMap(topicList);
+    }
+}
@@ -0,0 +1,117 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.entity.DiscardingEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpMethod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Measures fetching and parsing a KafkaTopic list from a local server, with and without gzip compression and over
+ * HTTP/1.1 and HTTP/2.  The server holds the list already compressed, so the measurement covers the transfer and
+ * the inflating and parsing in the connector but not the compression on the server.
+ */
+@State(Scope.Benchmark)
+public class TopicListTransferBenchmark {
+    @Param({"1000", "10000"})
+    public int topicCount;
+
+    @Param({"true", "false"})
+    public boolean compressResponses;
+
+    @Param({StrimziMonitorIntegrationProvider.HTTP_VERSION_1_1, StrimziMonitorIntegrationProvider.HTTP_VERSION_2})
+    public String httpVersion;
+
+    private HttpAsyncServer server;
+    private StrimziRestClient restClient;
+    private KafkaTopicListParser parser;
+    private URI listURI;
+
+    @Setup
+    public void setUp() throws Exception {
+        byte[] topicList = KafkaTopicListGenerator.generateList(topicCount, 42).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(topicList);
+        }
+        byte[] compressedTopicList = compressed.toByteArray();
+        // a clear text HTTP/2 connection is only made when both ends are forced, as there is no TLS handshake to negotiate it
+        boolean http2 = StrimziMonitorIntegrationProvider.HTTP_VERSION_2.equals(httpVersion);
+
+        server = H2ServerBootstrap.bootstrap()
+                                  .setVersionPolicy(http2 ? HttpVersionPolicy.FORCE_HTTP_2 : HttpVersionPolicy.FORCE_HTTP_1)
+                                  .register("*", new AsyncServerRequestHandler<Message<HttpRequest, Void>>() {
+            @Override
+            public AsyncRequestConsumer<Message<HttpRequest, Void>> prepare(HttpRequest request, EntityDetails entityDetails, HttpContext context) {
+                return new BasicRequestConsumer<>(new DiscardingEntityConsumer<>());
+            }
+
+            @Override
+            public void handle(Message<HttpRequest, Void> message, ResponseTrigger responseTrigger, HttpContext context) throws HttpException, IOException {
+                Header acceptEncoding = message.getHead().getFirstHeader("Accept-Encoding");
+                boolean gzip = acceptEncoding != null && acceptEncoding.getValue().contains("gzip");
+                BasicHttpResponse response = new BasicHttpResponse(200);
+                if (gzip) {
+                    response.addHeader("Content-Encoding", "gzip");
+                }
+                responseTrigger.submitResponse(new BasicResponseProducer(response,
+                                                                         new BasicAsyncEntityProducer(gzip ? compressedTopicList : topicList,
+                                                                                                      ContentType.APPLICATION_JSON)),
+                                               context);
+            }
+        }).create();
+        server.start();
+        InetSocketAddress address = (InetSocketAddress) server.listen(new InetSocketAddress("localhost", 0)).get().getAddress();
+        listURI = URI.create("http://localhost:" + address.getPort() + "/apis/kafka.strimzi.io/v1beta2/namespaces/kafka/kafkatopics");
+
+        restClient = new StrimziRestClient(4, 30, 5000, 60000, 10, 60, compressResponses, http2 ? HttpVersionPolicy.FORCE_HTTP_2 : null);
+        parser = new KafkaTopicListParser(new JsonFactory(), KafkaTopicListGenerator.DESCRIPTION_ANNOTATION);
+    }
+
+    @TearDown
+    public void tearDown() {
+        restClient.close();
+        server.close(CloseMode.IMMEDIATE);
+    }
+
+    @Benchmark
+    public KafkaTopicListMetadata fetchAndParseList(Blackhole blackhole) {
+        return restClient.getRestTemplate().execute(listURI,
+                                                    HttpMethod.GET,
+                                                    null,
+                                                    response -> parser.parse(response.getBody(), blackhole::consume));
+    }
+}
@@ -0,0 +1,93 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Measures filtering topic names against a growing number of patterns.  The score is names per second.  With
+ * prefix, glob and exact patterns the cost of a name should not change with the number of patterns.  Regular
+ * expressions are combined into one expression that tries each alternative in turn, so its cost grows with the
+ * number of patterns; it is measured for comparison.
+ */
+@State(Scope.Benchmark)
+public class TopicNameFilterBenchmark {
+    private static final int NAME_COUNT = 10000;
+
+    @Param({"1", "10", "100", "1000"})
+    public int patternCount;
+
+    @Param({"prefix", "glob", "exact", "regex"})
+    public String patternKind;
+
+    private TopicNameFilter filter;
+    private String[] topicNames;
+
+    @Setup
+    public void setUp() {
+        topicNames = new String[NAME_COUNT];
+        for (int i = 0; i < NAME_COUNT; i++) {
+            topicNames[i] = KafkaTopicListGenerator.topicName(i);
+        }
+        /*
+         * Every filter accepts the same names: the patterns that match them come last, after patternCount - 1
+         * patterns that share the start of the names but never match.
+         */
+        List<String> includes = new ArrayList<>(patternCount + NAME_COUNT);
+        for (int i = 1; i < patternCount; i++) {
+            switch (patternKind) {
+                case "prefix":
+                    includes.add("team-" + i + ".service-" + (i % 13) + ".other-*");
+                    break;
+                case "glob":
+                    includes.add("team-" + i + ".service-?.other-*");
+                    break;
+                case "exact":
+                    includes.add("team-" + i + ".service-" + (i % 13) + ".other-" + i);
+                    break;
+                default:
+                    includes.add(TopicNameFilter.REGEX_PATTERN_PREFIX + "team-" + i + "\\.service-[0-9]+\\.other-.*");
+                    break;
+            }
+        }
+        switch (patternKind) {
+            case "prefix":
+                includes.add("team-*");
+                break;
+            case "glob":
+                includes.add("team-*.events-*");
+                break;
+            case "exact":
+                includes.addAll(Arrays.asList(topicNames));
+                break;
+            default:
+                includes.add(TopicNameFilter.REGEX_PATTERN_PREFIX + "team-[0-9]+\\.service-[0-9]+\\.events-.*");
+                break;
+        }
+        filter = TopicNameFilter.compile(includes, Collections.singletonList(KafkaTopicListGenerator.topicName(99)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NAME_COUNT)
+    public int accepts() {
+        int accepted = 0;
+        for (String topicName : topicNames) {
+            if (filter.accepts(topicName)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
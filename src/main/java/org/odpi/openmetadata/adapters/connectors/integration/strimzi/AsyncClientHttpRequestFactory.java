@@ -0,0 +1,351 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.classic.ContentInputStream;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+
+
+/**
+ * AsyncClientHttpRequestFactory lets the rest template issue its requests over the asynchronous HTTP client, which
+ * can speak HTTP/2 and so multiplex the list and watch requests to an API server over one connection.
+ * <p>
+ * The response body is handed to the caller as an input stream as soon as the response headers arrive.  The
+ * client fills a small buffer and stops reading from the connection while it is full, so a large list is parsed as
+ * it arrives rather than being held in memory.  When compression is on, gzip encoded bodies are inflated as they
+ * are read.  Closing a response before the server has sent all of its body cancels the request.
+ */
+class AsyncClientHttpRequestFactory implements ClientHttpRequestFactory {
+    /*
+     * Bytes of response body buffered between the client and the reader.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /*
+     * How long closing a response waits for the end of the body before cancelling the request.  A reader usually
+     * stops at the end of the JSON document just before the end of the stream arrives, and cancelling the request
+     * then would close a connection that could be reused.
+     */
+    private static final long CLOSE_WAIT_MILLIS = 100;
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final boolean compressResponses;
+
+    /**
+     * Constructor.
+     *
+     * @param httpClient        started asynchronous client
+     * @param compressResponses ask for gzip encoded responses and inflate them
+     */
+    AsyncClientHttpRequestFactory(CloseableHttpAsyncClient httpClient, boolean compressResponses) {
+        this.httpClient = httpClient;
+        this.compressResponses = compressResponses;
+    }
+
+    /**
+     * Create a request.
+     *
+     * @param uri        URI of the request
+     * @param httpMethod method of the request
+     * @return request
+     */
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new AsyncClientHttpRequest(uri, httpMethod, null);
+    }
+
+    /**
+     * Create a request that waits longer for data than the client's default response timeout, such as a watch.
+     *
+     * @param uri             URI of the request
+     * @param httpMethod      method of the request
+     * @param responseTimeout how long to wait for data
+     * @return request
+     */
+    ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, Timeout responseTimeout) {
+        return new AsyncClientHttpRequest(uri, httpMethod, responseTimeout);
+    }
+
+    /**
+     * A request that is sent when it is executed.
+     */
+    private class AsyncClientHttpRequest extends AbstractClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod httpMethod;
+        private final Timeout responseTimeout;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        AsyncClientHttpRequest(URI uri, HttpMethod httpMethod, Timeout responseTimeout) {
+            this.uri = uri;
+            this.httpMethod = httpMethod;
+            this.responseTimeout = responseTimeout;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return httpMethod;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            BasicHttpRequest request = new BasicHttpRequest(httpMethod.name(), uri);
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                // the client sets the length of the body itself
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                    for (String value : header.getValue()) {
+                        request.addHeader(header.getKey(), value);
+                    }
+                }
+            }
+            if (compressResponses && !headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+            HttpClientContext context = HttpClientContext.create();
+            if (responseTimeout != null) {
+                context.setRequestConfig(RequestConfig.custom().setResponseTimeout(responseTimeout).build());
+            }
+            StreamingResponseConsumer responseConsumer = new StreamingResponseConsumer();
+            Future<Void> exchange = httpClient.execute(new BasicRequestProducer(request,
+                                                                                body.size() == 0 ? null : new BasicAsyncEntityProducer(body.toByteArray())),
+                                                       responseConsumer,
+                                                       null,
+                                                       context,
+                                                       responseConsumer);
+            try {
+                return new AsyncClientHttpResponse(responseConsumer.response.get(), responseConsumer, exchange);
+            } catch (InterruptedException error) {
+                exchange.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Request to " + uri + " was interrupted");
+            } catch (ExecutionException error) {
+                exchange.cancel(true);
+                throw error.getCause() instanceof IOException ? (IOException) error.getCause() : new IOException(error.getCause());
+            }
+        }
+    }
+
+    /**
+     * StreamingResponseConsumer passes the response on when its headers arrive and then feeds the body into a
+     * buffer that the reader drains.  The exchange is only complete when the whole body has been received.
+     */
+    private static class StreamingResponseConsumer implements AsyncResponseConsumer<Void>, FutureCallback<Void> {
+        private final CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+        private final SharedInputBuffer buffer = new SharedInputBuffer(BUFFER_SIZE);
+        private volatile FutureCallback<Void> resultCallback = null;
+        private volatile Exception failure = null;
+
+        @Override
+        public void consumeResponse(HttpResponse httpResponse,
+                                    EntityDetails entityDetails,
+                                    HttpContext context,
+                                    FutureCallback<Void> resultCallback) {
+            this.resultCallback = resultCallback;
+            if (entityDetails == null) {
+                buffer.markEndStream();
+                resultCallback.completed(null);
+            }
+            response.complete(httpResponse);
+        }
+
+        @Override
+        public void informationResponse(HttpResponse httpResponse, HttpContext context) {
+        }
+
+        @Override
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            buffer.updateCapacity(capacityChannel);
+        }
+
+        @Override
+        public void consume(ByteBuffer data) {
+            buffer.fill(data);
+        }
+
+        @Override
+        public void streamEnd(List<? extends Header> trailers) {
+            buffer.markEndStream();
+            FutureCallback<Void> callback = resultCallback;
+            if (callback != null) {
+                callback.completed(null);
+            }
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            failure = cause;
+            response.completeExceptionally(cause);
+            buffer.abort();
+        }
+
+        @Override
+        public void completed(Void result) {
+        }
+
+        @Override
+        public void cancelled() {
+            failed(new CancellationException("Request cancelled"));
+        }
+
+        @Override
+        public void releaseResources() {
+        }
+
+        /**
+         * Return the body as it arrives.  A body that ends because the exchange failed raises the failure rather
+         * than appearing to be complete.
+         *
+         * @return body stream
+         */
+        InputStream getBody() {
+            return new FilterInputStream(new ContentInputStream(buffer)) {
+                @Override
+                public int read() throws IOException {
+                    int next = super.read();
+                    checkFailure(next);
+                    return next;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    int count = super.read(bytes, offset, length);
+                    checkFailure(count);
+                    return count;
+                }
+
+                private void checkFailure(int result) throws IOException {
+                    Exception cause = failure;
+                    if (result < 0 && cause != null) {
+                        throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                    }
+                }
+
+                @Override
+                public void close() {
+                    // the response decides what closing means
+                }
+            };
+        }
+    }
+
+    /**
+     * The response to a request, whose body is read as it arrives.
+     */
+    private class AsyncClientHttpResponse implements ClientHttpResponse {
+        private final HttpResponse httpResponse;
+        private final StreamingResponseConsumer responseConsumer;
+        private final Future<Void> exchange;
+        private final HttpHeaders headers = new HttpHeaders();
+        private final boolean gzipEncoded;
+        private InputStream body = null;
+
+        AsyncClientHttpResponse(HttpResponse httpResponse, StreamingResponseConsumer responseConsumer, Future<Void> exchange) {
+            this.httpResponse = httpResponse;
+            this.responseConsumer = responseConsumer;
+            this.exchange = exchange;
+            Header contentEncoding = httpResponse.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+            gzipEncoded = compressResponses && contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding.getValue().trim());
+            for (Header header : httpResponse.getHeaders()) {
+                // once inflated the body no longer has the encoding or length the server sent
+                if (!gzipEncoded || !(HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(header.getName()) ||
+                                      HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getName()))) {
+                    headers.add(header.getName(), header.getValue());
+                }
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(httpResponse.getCode());
+        }
+
+        @Override
+        @Deprecated
+        public int getRawStatusCode() {
+            return httpResponse.getCode();
+        }
+
+        @Override
+        public String getStatusText() {
+            return httpResponse.getReasonPhrase() == null ? "" : httpResponse.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public synchronized InputStream getBody() throws IOException {
+            if (body == null) {
+                body = gzipEncoded ? new GZIPInputStream(responseConsumer.getBody(), 8192) : responseConsumer.getBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                exchange.get(CLOSE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                cancel();
+            } catch (ExecutionException | CancellationException | TimeoutException error) {
+                cancel();
+            }
+        }
+
+        private void cancel() {
+            exchange.cancel(true);
+            responseConsumer.failed(new CancellationException("Response closed"));
+        }
+    }
+}
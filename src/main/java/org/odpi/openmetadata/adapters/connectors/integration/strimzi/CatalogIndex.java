@@ -0,0 +1,294 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.util.Arrays;
+import java.util.Map;
+
+
+/**
+ * CatalogIndex holds the catalogued topics of the connector keyed by qualified name.  Like TopicDiff it is an
+ * open-addressed table keyed by the hash of the topic name, with the guid, fingerprint, cluster and compared
+ * properties of each topic held in arrays alongside, so filling it from the catalog or a snapshot allocates no
+ * entry objects and reading it for a diff allocates nothing per topic.
+ * <p>
+ * The connector keeps one index, cleared and filled again each time the catalog is read, so once it has reached
+ * the size of the catalog it only grows with the catalog.  A removed topic keeps its entry so that it can be put
+ * back in place; the entries of removed topics are dropped when the index would otherwise grow.  The methods are
+ * synchronized because the writes of a reconcile update the index from several threads.
+ */
+final class CatalogIndex {
+    private static final int EMPTY = -1;
+
+    /**
+     * Receives the topics of the index.
+     */
+    interface TopicVisitor {
+        /**
+         * Visit a catalogued topic.
+         *
+         * @param entry       entry of the topic, for getTopic
+         * @param topicName   qualified name of the topic
+         * @param guid        unique identifier of the topic in the open metadata repositories
+         * @param fingerprint catalogued fingerprint, or null
+         * @param cluster     name of the cluster the topic was catalogued from, or null
+         */
+        void visit(int entry, String topicName, String guid, String fingerprint, String cluster);
+    }
+
+    // entry of each slot of the open-addressed table, or EMPTY; the length is a power of two
+    private int[] slots = new int[0];
+    // the entries, in the order they were added
+    private int[] hashes = new int[0];
+    private String[] topicNames = new String[0];
+    private String[] guids = new String[0];
+    private String[] fingerprints = new String[0];
+    private String[] clusters = new String[0];
+    private String[] descriptions = new String[0];
+    private Object[] extendedProperties = new Object[0];
+    private boolean[] present = new boolean[0];
+    private int entryCount = 0;
+    private int size = 0;
+
+    /**
+     * Remove the topics, keeping the space they took.
+     */
+    synchronized void clear() {
+        Arrays.fill(topicNames, 0, entryCount, null);
+        Arrays.fill(guids, 0, entryCount, null);
+        Arrays.fill(fingerprints, 0, entryCount, null);
+        Arrays.fill(clusters, 0, entryCount, null);
+        Arrays.fill(descriptions, 0, entryCount, null);
+        Arrays.fill(extendedProperties, 0, entryCount, null);
+        Arrays.fill(present, 0, entryCount, false);
+        Arrays.fill(slots, EMPTY);
+        entryCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Add a catalogued topic, replacing any topic of the same name.
+     *
+     * @param topicName          qualified name of the topic
+     * @param guid               unique identifier of the topic in the open metadata repositories
+     * @param description        catalogued description
+     * @param extendedProperties catalogued properties of the KafkaTopic subtype
+     * @param fingerprint        catalogued fingerprint of the synchronized attributes, or null
+     * @param cluster            name of the cluster the topic was catalogued from, or null
+     */
+    synchronized void put(String topicName,
+                          String guid,
+                          String description,
+                          Map<String, Object> extendedProperties,
+                          String fingerprint,
+                          String cluster) {
+        int entry = find(topicName);
+        if (entry == EMPTY) {
+            if (entryCount == topicNames.length) {
+                grow(size + 1);
+            }
+            entry = entryCount++;
+            int hash = topicName.hashCode();
+            addSlot(hash, entry);
+            hashes[entry] = hash;
+            topicNames[entry] = topicName;
+        }
+        if (!present[entry]) {
+            present[entry] = true;
+            size++;
+        }
+        guids[entry] = guid;
+        descriptions[entry] = description;
+        this.extendedProperties[entry] = extendedProperties;
+        fingerprints[entry] = fingerprint;
+        clusters[entry] = cluster;
+    }
+
+    /**
+     * Add a catalogued topic, replacing any topic of the same name.
+     *
+     * @param topicName       qualified name of the topic
+     * @param cataloguedTopic catalogued topic
+     */
+    void put(String topicName, CataloguedTopic cataloguedTopic) {
+        put(topicName,
+            cataloguedTopic.getGUID(),
+            cataloguedTopic.getDescription(),
+            cataloguedTopic.getExtendedProperties(),
+            cataloguedTopic.getFingerprint(),
+            cataloguedTopic.getCluster());
+    }
+
+    /**
+     * Remove a catalogued topic.
+     *
+     * @param topicName qualified name of the topic
+     */
+    synchronized void remove(String topicName) {
+        int entry = find(topicName);
+        if (entry != EMPTY && present[entry]) {
+            present[entry] = false;
+            guids[entry] = null;
+            descriptions[entry] = null;
+            extendedProperties[entry] = null;
+            fingerprints[entry] = null;
+            clusters[entry] = null;
+            size--;
+        }
+    }
+
+    /**
+     * Return a catalogued topic.
+     *
+     * @param topicName qualified name of the topic
+     * @return catalogued topic, or null if it is not in the index
+     */
+    synchronized CataloguedTopic get(String topicName) {
+        int entry = find(topicName);
+        return entry == EMPTY || !present[entry] ? null : getTopic(entry);
+    }
+
+    /**
+     * Return the catalogued topic of an entry passed to a visitor.  Only the compare of a topic without a
+     * fingerprint needs the whole topic, so it is only built on request.
+     *
+     * @param entry entry of the topic
+     * @return catalogued topic
+     */
+    @SuppressWarnings("unchecked")
+    synchronized CataloguedTopic getTopic(int entry) {
+        return new CataloguedTopic(guids[entry],
+                                   descriptions[entry],
+                                   (Map<String, Object>) extendedProperties[entry],
+                                   fingerprints[entry],
+                                   clusters[entry]);
+    }
+
+    /**
+     * Return whether a topic is in the index.
+     *
+     * @param topicName qualified name of the topic
+     * @return true if it is catalogued
+     */
+    synchronized boolean contains(String topicName) {
+        int entry = find(topicName);
+        return entry != EMPTY && present[entry];
+    }
+
+    /**
+     * Return the number of catalogued topics.
+     *
+     * @return topics in the index
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Pass each catalogued topic to the visitor, in the order they were added.  The index is locked while the
+     * topics are visited.
+     *
+     * @param visitor receives the topics
+     */
+    synchronized void forEach(TopicVisitor visitor) {
+        for (int entry = 0; entry < entryCount; entry++) {
+            if (present[entry]) {
+                visitor.visit(entry, topicNames[entry], guids[entry], fingerprints[entry], clusters[entry]);
+            }
+        }
+    }
+
+    /**
+     * Look up a topic name.
+     *
+     * @return entry of the topic, which may have been removed, or EMPTY if it has not been added
+     */
+    private int find(String topicName) {
+        if (entryCount == 0) {
+            return EMPTY;
+        }
+        int hash = topicName.hashCode();
+        int slot = spread(hash) & (slots.length - 1);
+        int entry;
+        while ((entry = slots[slot]) != EMPTY) {
+            if (hashes[entry] == hash && topicNames[entry].equals(topicName)) {
+                return entry;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return EMPTY;
+    }
+
+    private void addSlot(int hash, int entry) {
+        int slot = spread(hash) & (slots.length - 1);
+        while (slots[slot] != EMPTY) {
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        slots[slot] = entry;
+    }
+
+    private static int spread(int hash) {
+        // names that differ only in their last characters have close hash codes, so spread them over the table
+        int spread = hash * 0x9E3779B9;
+        return spread ^ (spread >>> 16);
+    }
+
+    /**
+     * Make room for another entry.  When at least half of the entries are of removed topics they are dropped
+     * instead, so topics created and removed by watch events between catalog reads do not grow the index.
+     */
+    private void grow(int topicCount) {
+        if (entryCount > 0 && size <= entryCount / 2) {
+            compact();
+            return;
+        }
+        int capacity = Math.max(Math.max(topicCount, 16), topicNames.length * 2);
+        hashes = Arrays.copyOf(hashes, capacity);
+        topicNames = Arrays.copyOf(topicNames, capacity);
+        guids = Arrays.copyOf(guids, capacity);
+        fingerprints = Arrays.copyOf(fingerprints, capacity);
+        clusters = Arrays.copyOf(clusters, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        extendedProperties = Arrays.copyOf(extendedProperties, capacity);
+        present = Arrays.copyOf(present, capacity);
+        slots = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        rebuildSlots();
+    }
+
+    /**
+     * Move the entries of the catalogued topics to the front, keeping their order, and drop the rest.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int entry = 0; entry < entryCount; entry++) {
+            if (present[entry]) {
+                hashes[kept] = hashes[entry];
+                topicNames[kept] = topicNames[entry];
+                guids[kept] = guids[entry];
+                fingerprints[kept] = fingerprints[entry];
+                clusters[kept] = clusters[entry];
+                descriptions[kept] = descriptions[entry];
+                extendedProperties[kept] = extendedProperties[entry];
+                present[kept] = true;
+                kept++;
+            }
+        }
+        Arrays.fill(topicNames, kept, entryCount, null);
+        Arrays.fill(guids, kept, entryCount, null);
+        Arrays.fill(fingerprints, kept, entryCount, null);
+        Arrays.fill(clusters, kept, entryCount, null);
+        Arrays.fill(descriptions, kept, entryCount, null);
+        Arrays.fill(extendedProperties, kept, entryCount, null);
+        Arrays.fill(present, kept, entryCount, false);
+        entryCount = kept;
+        rebuildSlots();
+    }
+
+    private void rebuildSlots() {
+        Arrays.fill(slots, EMPTY);
+        for (int entry = 0; entry < entryCount; entry++) {
+            addSlot(hashes[entry], entry);
+        }
+    }
+}
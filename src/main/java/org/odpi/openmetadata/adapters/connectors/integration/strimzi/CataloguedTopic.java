@@ -0,0 +1,136 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.odpi.openmetadata.accessservices.datamanager.metadataelements.TopicElement;
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+
+import java.util.Map;
+
+
+/**
+ * CataloguedTopic is the part of a catalogued TopicElement that the connector needs to work out whether the
+ * topic must be updated or removed.  Holding this rather than the whole element keeps the catalogue index small.
+ */
+class CataloguedTopic {
+    private final String guid;
+    private final String description;
+    private final Map<String, Object> extendedProperties;
+    private final String fingerprint;
+    private final String cluster;
+
+    /**
+     * Constructor for a topic that is not recorded against a named cluster.
+     *
+     * @param guid               unique identifier of the topic in the open metadata repositories
+     * @param description        catalogued description
+     * @param extendedProperties catalogued properties of the KafkaTopic subtype
+     * @param fingerprint        catalogued fingerprint of the synchronized attributes, or null
+     */
+    CataloguedTopic(String guid, String description, Map<String, Object> extendedProperties, String fingerprint) {
+        this(guid, description, extendedProperties, fingerprint, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param guid               unique identifier of the topic in the open metadata repositories
+     * @param description        catalogued description
+     * @param extendedProperties catalogued properties of the KafkaTopic subtype
+     * @param fingerprint        catalogued fingerprint of the synchronized attributes, or null
+     * @param cluster            name of the cluster the topic was catalogued from, or null
+     */
+    CataloguedTopic(String guid, String description, Map<String, Object> extendedProperties, String fingerprint, String cluster) {
+        this.guid = guid;
+        this.description = description;
+        this.extendedProperties = extendedProperties;
+        this.fingerprint = fingerprint;
+        this.cluster = cluster;
+    }
+
+    /**
+     * Record the properties that have just been written to the catalog.
+     *
+     * @param guid            unique identifier of the topic in the open metadata repositories
+     * @param topicProperties properties written to the catalog
+     */
+    CataloguedTopic(String guid, TopicProperties topicProperties) {
+        this(guid,
+             topicProperties.getDescription(),
+             topicProperties.getExtendedProperties(),
+             TopicFingerprint.get(topicProperties),
+             getCluster(topicProperties));
+    }
+
+    /**
+     * Extract the relevant parts of a catalogued topic element.
+     *
+     * @param topicElement element retrieved from the open metadata repositories
+     */
+    CataloguedTopic(TopicElement topicElement) {
+        TopicProperties properties = topicElement.getProperties();
+        this.guid = topicElement.getElementHeader().getGUID();
+        this.description = properties.getDescription();
+        this.extendedProperties = properties.getExtendedProperties();
+        this.fingerprint = TopicFingerprint.get(properties);
+        this.cluster = getCluster(properties);
+    }
+
+    /**
+     * Return the name of the cluster recorded in the properties of a topic.
+     *
+     * @param topicProperties properties of the topic
+     * @return cluster name or null
+     */
+    static String getCluster(TopicProperties topicProperties) {
+        Map<String, String> additionalProperties = topicProperties.getAdditionalProperties();
+        return additionalProperties == null ? null : additionalProperties.get(StrimziCluster.CLUSTER_PROPERTY);
+    }
+
+    /**
+     * Return the unique identifier of the topic in the open metadata repositories.
+     *
+     * @return guid
+     */
+    String getGUID() {
+        return guid;
+    }
+
+    /**
+     * Return the catalogued description.
+     *
+     * @return description
+     */
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * Return the catalogued extended properties.
+     *
+     * @return map of property names to values, or null
+     */
+    Map<String, Object> getExtendedProperties() {
+        return extendedProperties;
+    }
+
+    /**
+     * Return the catalogued fingerprint.  Topics catalogued before fingerprints were introduced do not have one.
+     *
+     * @return fingerprint or null
+     */
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Return the name of the cluster the topic was catalogued from.  Topics from the endpoint of the connection,
+     * and topics catalogued before clusters were introduced, do not have one.
+     *
+     * @return cluster name or null
+     */
+    String getCluster() {
+        return cluster;
+    }
+}
@@ -0,0 +1,116 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.util.function.LongSupplier;
+
+
+/**
+ * CircuitBreaker stops the connector calling an API server that keeps failing.  After the configured number of
+ * consecutive failed reads the breaker opens and reads are skipped until the open period has passed.  The next
+ * read is then a trial: if it succeeds the breaker closes, and if it fails the breaker opens again.
+ * A failure threshold of 0 or less turns the breaker off.
+ */
+class CircuitBreaker {
+    /**
+     * The states of the breaker.
+     */
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clockMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtMillis = 0;
+    private long firstFailureMillis = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param failureThreshold number of consecutive failures that open the breaker
+     * @param openMillis       how long the breaker stays open before a trial read
+     * @param clockMillis      monotonic clock in milliseconds
+     */
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clockMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * Decide whether a read may be made.  An open breaker whose open period has passed allows one trial read.
+     *
+     * @return true if the read may be made
+     */
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN && clockMillis.getAsLong() - openedAtMillis >= openMillis) {
+            state = State.HALF_OPEN;
+        }
+        return state != State.OPEN;
+    }
+
+    /**
+     * Record a successful read.
+     *
+     * @return true if this closed a breaker that was open
+     */
+    synchronized boolean recordSuccess() {
+        boolean closed = state != State.CLOSED;
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        return closed;
+    }
+
+    /**
+     * Record a read that failed because the API server was unavailable.
+     *
+     * @return true if this opened the breaker
+     */
+    synchronized boolean recordFailure() {
+        long now = clockMillis.getAsLong();
+        if (consecutiveFailures == 0) {
+            firstFailureMillis = now;
+        }
+        consecutiveFailures++;
+        if (failureThreshold > 0 && (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold))) {
+            state = State.OPEN;
+            openedAtMillis = now;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return the state of the breaker.
+     *
+     * @return state
+     */
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Return the number of failed reads since the last successful one.
+     *
+     * @return consecutive failures
+     */
+    synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Return how long the reads have been failing.
+     *
+     * @return milliseconds since the first of the consecutive failures, or 0 if the last read succeeded
+     */
+    synchronized long getFailingMillis() {
+        return consecutiveFailures == 0 ? 0 : clockMillis.getAsLong() - firstFailureMillis;
+    }
+}
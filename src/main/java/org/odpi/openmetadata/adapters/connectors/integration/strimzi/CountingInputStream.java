@@ -0,0 +1,54 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * CountingInputStream counts the bytes read through it.
+ */
+class CountingInputStream extends FilterInputStream {
+    private long count = 0;
+
+    CountingInputStream(InputStream inputStream) {
+        super(inputStream);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = super.read();
+        if (result >= 0) {
+            count++;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int result = super.read(buffer, offset, length);
+        if (result > 0) {
+            count = count + result;
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long length) throws IOException {
+        long result = super.skip(length);
+        count = count + result;
+        return result;
+    }
+
+    /**
+     * Return the number of bytes read or skipped.
+     *
+     * @return byte count
+     */
+    long getCount() {
+        return count;
+    }
+}
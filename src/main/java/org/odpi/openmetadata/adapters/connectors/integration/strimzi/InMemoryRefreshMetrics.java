@@ -0,0 +1,168 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * InMemoryRefreshMetrics keeps the measurements since it was last reset.  Each phase has a histogram with a bucket
+ * for each power of two microseconds, from which the percentiles in the summary are estimated.  Gauges keep their
+ * last value across resets.
+ */
+class InMemoryRefreshMetrics implements RefreshMetricsRecorder {
+    private static final int BUCKETS = 40;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Histogram of the durations of one phase.
+     */
+    static class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = Math.max(nanos / 1000, 1);
+            int bucket = Math.min(63 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Estimate a percentile as the upper bound of the bucket it falls in, capped at the maximum.
+         *
+         * @param percentile percentile between 0 and 100
+         * @return estimated duration in nanoseconds
+         */
+        long getPercentileNanos(double percentile) {
+            long total = getCount();
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen = seen + buckets.get(bucket);
+                if (seen >= rank && seen > 0) {
+                    return Math.min((2L << bucket) * 1000, getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+    }
+
+    @Override
+    public void recordTime(String name, long nanos) {
+        histograms.computeIfAbsent(name, key -> new Histogram()).record(nanos);
+    }
+
+    @Override
+    public void increment(String name, long amount) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(amount);
+    }
+
+    @Override
+    public void recordValue(String name, long value) {
+        gauges.computeIfAbsent(name, key -> new AtomicLong()).set(value);
+    }
+
+    /**
+     * Return the histogram of a phase.
+     *
+     * @param name name of the phase
+     * @return histogram or null if the phase has not been recorded
+     */
+    Histogram getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Return the value of a counter.
+     *
+     * @param name name of the counter
+     * @return value
+     */
+    long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Return the value of a gauge.
+     *
+     * @param name name of the gauge
+     * @return value
+     */
+    long getValue(String name) {
+        AtomicLong gauge = gauges.get(name);
+        return gauge == null ? 0 : gauge.get();
+    }
+
+    /**
+     * Describe the phase timings as count, mean, 50th and 99th percentile and maximum in milliseconds.
+     *
+     * @return timings summary
+     */
+    String summarizeTimings() {
+        StringJoiner summary = new StringJoiner("; ");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            long count = histogram.getCount();
+            summary.add(String.format("%s count=%d mean=%.1fms p50=%.1fms p99=%.1fms max=%.1fms",
+                                      entry.getKey(),
+                                      count,
+                                      count == 0 ? 0.0 : histogram.getTotalNanos() / 1e6 / count,
+                                      histogram.getPercentileNanos(50) / 1e6,
+                                      histogram.getPercentileNanos(99) / 1e6,
+                                      histogram.getMaxNanos() / 1e6));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Describe the counters and gauges.
+     *
+     * @return counters summary
+     */
+    String summarizeCounters() {
+        StringJoiner summary = new StringJoiner(", ");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            summary.add(entry.getKey() + "=" + entry.getValue().sum());
+        }
+        for (Map.Entry<String, AtomicLong> entry : new TreeMap<>(gauges).entrySet()) {
+            summary.add(entry.getKey() + "=" + entry.getValue().get());
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Discard the measurements.
+     */
+    void reset() {
+        histograms.clear();
+        counters.clear();
+    }
+}
@@ -0,0 +1,48 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+
+/**
+ * KafkaTopicListMetadata holds the list level metadata from a Kubernetes list response.
+ */
+class KafkaTopicListMetadata {
+    private String resourceVersion = null;
+    private String continueToken = null;
+
+    /**
+     * Return metadata.resourceVersion of the list, or null if it was not supplied.
+     *
+     * @return resource version
+     */
+    String getResourceVersion() {
+        return resourceVersion;
+    }
+
+    void setResourceVersion(String resourceVersion) {
+        this.resourceVersion = resourceVersion;
+    }
+
+    /**
+     * Return metadata.continue, the token used to request the next page.  This is null or empty on the last page.
+     *
+     * @return continue token
+     */
+    String getContinueToken() {
+        return continueToken;
+    }
+
+    void setContinueToken(String continueToken) {
+        this.continueToken = continueToken;
+    }
+
+    /**
+     * Return whether there is another page to retrieve.
+     *
+     * @return true if there is more to retrieve
+     */
+    boolean hasMore() {
+        return continueToken != null && !continueToken.isEmpty();
+    }
+}
@@ -0,0 +1,369 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+
+/**
+ * KafkaTopicListParser reads a Kubernetes KafkaTopic list response with a streaming parser.  Only the fields
+ * the connector uses are extracted; every other subtree is skipped without being materialized, and each item
+ * is handed to the consumer as soon as it has been read.
+ */
+class KafkaTopicListParser {
+    private static final String ITEMS = "items";
+    private static final String METADATA = "metadata";
+    private static final String NAME = "name";
+    private static final String ANNOTATIONS = "annotations";
+    private static final String SPEC = "spec";
+    private static final String STATUS = "status";
+    private static final String TOPIC_NAME = "topicName";
+    private static final String RESOURCE_VERSION = "resourceVersion";
+    private static final String CONTINUE = "continue";
+    private static final String TYPE = "type";
+    private static final String OBJECT = "object";
+    private static final String CODE = "code";
+    private static final String CONFIG = "config";
+    private static final String CONDITIONS = "conditions";
+
+    private final JsonFactory jsonFactory;
+    private final String descriptionAnnotationField;
+    private final TopicAttributeModel attributeModel;
+
+    /**
+     * Create the factory for the connector's parsers.  It should be created once and shared, since each factory
+     * has its own table of the field names it has read.
+     * <p>
+     * Field names are canonicalized and interned, so a name that has been seen before is returned as the same
+     * string as the constant it is compared with and the comparison ends at the identity check.  The source is
+     * left out of error locations, since it would otherwise hold on to a whole list response.
+     *
+     * @return factory for reading list and watch responses
+     */
+    static JsonFactory createJsonFactory() {
+        return JsonFactory.builder()
+                          .enable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES)
+                          .enable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+                          .disable(StreamReadFeature.INCLUDE_SOURCE_IN_LOCATION)
+                          .build();
+    }
+
+    /**
+     * Constructor for a parser that reads no config or status attributes.
+     *
+     * @param jsonFactory                factory used to create the streaming parsers
+     * @param descriptionAnnotationField name of the annotation holding the topic description, or null
+     */
+    KafkaTopicListParser(JsonFactory jsonFactory, String descriptionAnnotationField) {
+        this(jsonFactory, descriptionAnnotationField, TopicAttributeModel.NONE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param jsonFactory                factory used to create the streaming parsers
+     * @param descriptionAnnotationField name of the annotation holding the topic description, or null
+     * @param attributeModel             config and status attributes to read
+     */
+    KafkaTopicListParser(JsonFactory jsonFactory, String descriptionAnnotationField, TopicAttributeModel attributeModel) {
+        this.jsonFactory = jsonFactory;
+        this.descriptionAnnotationField = descriptionAnnotationField;
+        this.attributeModel = attributeModel;
+    }
+
+    /**
+     * Parse a list response read from a stream.
+     *
+     * @param inputStream response body
+     * @param consumer    receives each KafkaTopic item in document order
+     * @return list level metadata
+     * @throws IOException the stream could not be read or does not contain valid JSON
+     */
+    KafkaTopicListMetadata parse(InputStream inputStream, Consumer<KafkaTopicResource> consumer) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            return parse(parser, consumer);
+        }
+    }
+
+    /**
+     * Parse a list response held in a string.
+     *
+     * @param json     response body
+     * @param consumer receives each KafkaTopic item in document order
+     * @return list level metadata
+     * @throws IOException the string does not contain valid JSON
+     */
+    KafkaTopicListMetadata parse(String json, Consumer<KafkaTopicResource> consumer) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return parse(parser, consumer);
+        }
+    }
+
+    private KafkaTopicListMetadata parse(JsonParser parser, Consumer<KafkaTopicResource> consumer) throws IOException {
+        KafkaTopicListMetadata listMetadata = new KafkaTopicListMetadata();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return listMetadata;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (ITEMS.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() == JsonToken.START_OBJECT) {
+                        consumer.accept(parseItem(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (METADATA.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                parseListMetadata(parser, listMetadata);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return listMetadata;
+    }
+
+    private void parseListMetadata(JsonParser parser, KafkaTopicListMetadata listMetadata) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (RESOURCE_VERSION.equals(fieldName)) {
+                listMetadata.setResourceVersion(readText(parser));
+            } else if (CONTINUE.equals(fieldName)) {
+                listMetadata.setContinueToken(readText(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Parse a single KafkaTopic object.  The parser must be positioned on its START_OBJECT token and is left on
+     * the matching END_OBJECT token.
+     *
+     * @param parser streaming parser
+     * @return extracted fields
+     * @throws IOException the JSON is not valid
+     */
+    KafkaTopicResource parseItem(JsonParser parser) throws IOException {
+        return parseItem(parser, null);
+    }
+
+    /**
+     * Create a streaming parser over a watch response.  The response is a sequence of watch event objects.
+     *
+     * @param inputStream response body
+     * @return parser to pass to parseWatchEvent
+     * @throws IOException the stream could not be read
+     */
+    JsonParser createWatchParser(InputStream inputStream) throws IOException {
+        return jsonFactory.createParser(inputStream);
+    }
+
+    /**
+     * Read the next event from a watch response.
+     *
+     * @param parser parser created by createWatchParser
+     * @return next event or null if the server has closed the watch
+     * @throws IOException the stream could not be read or does not contain valid JSON
+     */
+    KafkaTopicWatchEvent parseWatchEvent(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token != null && token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            token = parser.nextToken();
+        }
+        if (token == null) {
+            return null;
+        }
+        KafkaTopicWatchEvent event = new KafkaTopicWatchEvent();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            token = parser.nextToken();
+            if (TYPE.equals(fieldName)) {
+                event.setType(readText(parser));
+            } else if (OBJECT.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                event.setResource(parseItem(parser, event));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Parse a single object.  When the object is part of a watch event, the status code of an error is also
+     * recorded in the event.
+     */
+    private KafkaTopicResource parseItem(JsonParser parser, KafkaTopicWatchEvent event) throws IOException {
+        KafkaTopicResource resource = new KafkaTopicResource();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (event != null && CODE.equals(fieldName)) {
+                event.setCode(readInteger(parser));
+            } else if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+            } else if (METADATA.equals(fieldName)) {
+                parseMetadata(parser, resource);
+            } else if (SPEC.equals(fieldName)) {
+                parseSpec(parser, resource);
+            } else if (STATUS.equals(fieldName)) {
+                parseStatus(parser, resource);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return resource;
+    }
+
+    private void parseMetadata(JsonParser parser, KafkaTopicResource resource) throws IOException {
+        // a metadata object without a name yields an empty name rather than no name
+        resource.setName("");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (NAME.equals(fieldName)) {
+                resource.setName(readText(parser));
+            } else if (RESOURCE_VERSION.equals(fieldName)) {
+                resource.setResourceVersion(readText(parser));
+            } else if (ANNOTATIONS.equals(fieldName) && token == JsonToken.START_OBJECT && descriptionAnnotationField != null) {
+                parseAnnotations(parser, resource);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void parseAnnotations(JsonParser parser, KafkaTopicResource resource) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (descriptionAnnotationField.equals(fieldName)) {
+                resource.setDescriptionAnnotation(readText(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void parseSpec(JsonParser parser, KafkaTopicResource resource) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (StrimziMonitorIntegrationConnector.PARTITIONS.equals(fieldName)) {
+                resource.setPartitions(readInteger(parser));
+            } else if (StrimziMonitorIntegrationConnector.REPLICAS.equals(fieldName)) {
+                resource.setReplicas(readInteger(parser));
+            } else if (CONFIG.equals(fieldName) && token == JsonToken.START_OBJECT && attributeModel.hasConfigKeys()) {
+                parseConfig(parser, resource);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void parseConfig(JsonParser parser, KafkaTopicResource resource) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int slot = attributeModel.getConfigSlot(parser.getCurrentName());
+            parser.nextToken();
+            if (slot >= 0) {
+                setAttribute(resource, slot, readText(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void parseStatus(JsonParser parser, KafkaTopicResource resource) throws IOException {
+        // a status object without a topicName yields an empty name rather than no name
+        resource.setStatusTopicName("");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            int slot = attributeModel.getStatusSlot(fieldName);
+            if (TOPIC_NAME.equals(fieldName)) {
+                resource.setStatusTopicName(readText(parser));
+                if (slot >= 0) {
+                    setAttribute(resource, slot, resource.getStatusTopicName());
+                }
+            } else if (slot >= 0) {
+                setAttribute(resource, slot, readText(parser));
+            } else if (CONDITIONS.equals(fieldName) && token == JsonToken.START_ARRAY && attributeModel.hasConditions()) {
+                parseConditions(parser, resource);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Read the status of each catalogued condition from the status.conditions array.
+     */
+    private void parseConditions(JsonParser parser, KafkaTopicResource resource) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String type = null;
+            String status = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (TYPE.equals(fieldName)) {
+                    type = readText(parser);
+                } else if (STATUS.equals(fieldName)) {
+                    status = readText(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            int slot = type == null ? -1 : attributeModel.getConditionSlot(type);
+            if (slot >= 0) {
+                setAttribute(resource, slot, status);
+            }
+        }
+    }
+
+    private void setAttribute(KafkaTopicResource resource, int slot, String value) {
+        if (resource.getAttributes() == null) {
+            resource.setAttributes(new String[attributeModel.size()]);
+        }
+        resource.getAttributes()[slot] = attributeModel.pool(value);
+    }
+
+    /**
+     * Return the text of a scalar value.  Objects and arrays are skipped and read as an empty string.
+     */
+    private String readText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Return an integer value, or null if the value is not a JSON integer that fits in an int.
+     */
+    private Integer readInteger(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+            return parser.getIntValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+
+/**
+ * KafkaTopicResource holds the handful of fields the connector needs from one Strimzi KafkaTopic custom resource.
+ * The rest of the resource (for example metadata.managedFields) is skipped while parsing.
+ */
+class KafkaTopicResource {
+    private String name = null;
+    private String resourceVersion = null;
+    private String statusTopicName = null;
+    private String descriptionAnnotation = null;
+    private Integer partitions = null;
+    private Integer replicas = null;
+    private String[] attributes = null;
+
+    /**
+     * Return metadata.name.  This is null if the resource has no metadata object.
+     *
+     * @return topic name
+     */
+    String getName() {
+        return name;
+    }
+
+    void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Return metadata.resourceVersion of this resource, or null if it was not supplied.
+     *
+     * @return resource version
+     */
+    String getResourceVersion() {
+        return resourceVersion;
+    }
+
+    void setResourceVersion(String resourceVersion) {
+        this.resourceVersion = resourceVersion;
+    }
+
+    /**
+     * Return status.topicName, which is the name of the topic in Kafka.  This is null if the resource has no status object.
+     *
+     * @return Kafka topic name
+     */
+    String getStatusTopicName() {
+        return statusTopicName;
+    }
+
+    void setStatusTopicName(String statusTopicName) {
+        this.statusTopicName = statusTopicName;
+    }
+
+    /**
+     * Return the value of the configured description annotation, or null if it is not present.
+     *
+     * @return description annotation value
+     */
+    String getDescriptionAnnotation() {
+        return descriptionAnnotation;
+    }
+
+    void setDescriptionAnnotation(String descriptionAnnotation) {
+        this.descriptionAnnotation = descriptionAnnotation;
+    }
+
+    /**
+     * Return spec.partitions, or null if it is not an integer.
+     *
+     * @return number of partitions
+     */
+    Integer getPartitions() {
+        return partitions;
+    }
+
+    void setPartitions(Integer partitions) {
+        this.partitions = partitions;
+    }
+
+    /**
+     * Return spec.replicas, or null if it is not an integer.
+     *
+     * @return number of replicas
+     */
+    Integer getReplicas() {
+        return replicas;
+    }
+
+    void setReplicas(Integer replicas) {
+        this.replicas = replicas;
+    }
+
+    /**
+     * Return the values of the catalogued config and status attributes in the slots of the attribute model, or
+     * null if none were read.
+     *
+     * @return attribute values
+     */
+    String[] getAttributes() {
+        return attributes;
+    }
+
+    void setAttributes(String[] attributes) {
+        this.attributes = attributes;
+    }
+}
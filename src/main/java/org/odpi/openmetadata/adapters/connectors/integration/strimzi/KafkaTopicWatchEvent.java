@@ -0,0 +1,59 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+
+/**
+ * KafkaTopicWatchEvent is one event read from a Kubernetes watch on KafkaTopic resources.
+ */
+class KafkaTopicWatchEvent {
+    static final String ADDED = "ADDED";
+    static final String MODIFIED = "MODIFIED";
+    static final String DELETED = "DELETED";
+    static final String BOOKMARK = "BOOKMARK";
+    static final String ERROR = "ERROR";
+
+    private String type = null;
+    private KafkaTopicResource resource = null;
+    private Integer code = null;
+
+    /**
+     * Return the event type: ADDED, MODIFIED, DELETED, BOOKMARK or ERROR.
+     *
+     * @return event type
+     */
+    String getType() {
+        return type;
+    }
+
+    void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Return the object carried by the event.  For BOOKMARK events only the resource version is set.
+     *
+     * @return resource or null
+     */
+    KafkaTopicResource getResource() {
+        return resource;
+    }
+
+    void setResource(KafkaTopicResource resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Return the HTTP status code carried by an ERROR event, for example 410 when the resource version is too old.
+     *
+     * @return status code or null
+     */
+    Integer getCode() {
+        return code;
+    }
+
+    void setCode(Integer code) {
+        this.code = code;
+    }
+}
@@ -0,0 +1,236 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.function.Function;
+
+
+/**
+ * KafkaTopicWatcher keeps a Kubernetes watch open on the KafkaTopic resources and passes each change to its
+ * handler as it happens.
+ * <p>
+ * It starts by asking the handler to list (and reconcile) all of the topics, then watches from the resource
+ * version of that list.  When the server ends a watch, or the connection drops, the watch is resumed from the
+ * last resource version seen, which bookmark events keep current.  When the server reports that the resource
+ * version is too old (410 Gone) the topics are listed again.
+ */
+class KafkaTopicWatcher implements Runnable {
+    /**
+     * Handler receives the outcome of the watch.
+     */
+    interface Handler {
+        /**
+         * List and reconcile all of the topics.
+         *
+         * @return resource version of the list, from which the watch starts
+         * @throws Exception the list could not be processed
+         */
+        String relist() throws Exception;
+
+        /**
+         * Process an ADDED or MODIFIED event.
+         *
+         * @param resource KafkaTopic from the event
+         * @throws Exception the event could not be processed
+         */
+        void topicChanged(KafkaTopicResource resource) throws Exception;
+
+        /**
+         * Process a DELETED event.
+         *
+         * @param resource KafkaTopic from the event
+         * @throws Exception the event could not be processed
+         */
+        void topicDeleted(KafkaTopicResource resource) throws Exception;
+
+        /**
+         * Report a failure.  The watcher retries after its retry delay.
+         *
+         * @param error cause of the failure
+         */
+        void watchFailed(Exception error);
+    }
+
+    /*
+     * Extra time allowed beyond the server side watch timeout before the client gives up waiting for data.
+     */
+    static final int RESPONSE_TIMEOUT_MARGIN_SECONDS = 30;
+
+    private final StrimziRestClient restClient;
+    private final Function<String, URI> watchURIBuilder;
+    private final String token;
+    private final KafkaTopicListParser parser;
+    private final Handler handler;
+    private final int watchTimeoutSeconds;
+    private final long retryDelayMillis;
+
+    private volatile boolean running = true;
+    private volatile ClientHttpResponse currentResponse = null;
+    private volatile String resourceVersion = null;
+
+    /**
+     * Constructor.
+     *
+     * @param restClient          pooled client used to issue the watch requests
+     * @param watchURIBuilder     builds the watch request URI for a resource version
+     * @param token               bearer token for the API server
+     * @param parser              parser for the watch events
+     * @param handler             receives the changes
+     * @param watchTimeoutSeconds how long the server keeps each watch request open
+     * @param retryDelayMillis    how long to wait after a failure before trying again
+     */
+    KafkaTopicWatcher(StrimziRestClient restClient,
+                      Function<String, URI> watchURIBuilder,
+                      String token,
+                      KafkaTopicListParser parser,
+                      Handler handler,
+                      int watchTimeoutSeconds,
+                      long retryDelayMillis) {
+        this.restClient = restClient;
+        this.watchURIBuilder = watchURIBuilder;
+        this.token = token;
+        this.parser = parser;
+        this.handler = handler;
+        this.watchTimeoutSeconds = watchTimeoutSeconds;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    /**
+     * List and then watch until stopped.
+     */
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                if (resourceVersion == null) {
+                    resourceVersion = handler.relist();
+                }
+                if (running && resourceVersion != null) {
+                    watch();
+                }
+            } catch (Exception error) {
+                if (running) {
+                    handler.watchFailed(error);
+                    pause();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop watching.  An open watch request is cancelled.
+     */
+    void stop() {
+        running = false;
+        ClientHttpResponse response = currentResponse;
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    /**
+     * Return the resource version that the next watch request will start from.
+     *
+     * @return resource version or null if the topics are to be listed again
+     */
+    String getResourceVersion() {
+        return resourceVersion;
+    }
+
+    /**
+     * Issue one watch request and process its events until the server ends it.
+     *
+     * @throws IOException the request failed
+     */
+    private void watch() throws IOException {
+        try (ClientHttpResponse response = restClient.openStream(watchURIBuilder.apply(resourceVersion),
+                                                                 token,
+                                                                 Timeout.ofSeconds(watchTimeoutSeconds + RESPONSE_TIMEOUT_MARGIN_SECONDS))) {
+            currentResponse = response;
+            // a stop that arrived while the request was being sent could not cancel it
+            if (!running) {
+                return;
+            }
+            int status = response.getStatusCode().value();
+            if (status == HttpStatus.SC_GONE) {
+                resourceVersion = null;
+            } else if (status != HttpStatus.SC_OK) {
+                throw new HttpResponseException(status, response.getStatusText());
+            } else {
+                try (InputStream inputStream = response.getBody();
+                     JsonParser jsonParser = parser.createWatchParser(inputStream)) {
+                    KafkaTopicWatchEvent event = parser.parseWatchEvent(jsonParser);
+                    while (running && event != null && processEvent(event)) {
+                        event = parser.parseWatchEvent(jsonParser);
+                    }
+                }
+            }
+        } finally {
+            currentResponse = null;
+        }
+    }
+
+    /**
+     * Process one event.
+     *
+     * @param event watch event
+     * @return true to carry on reading events; false to end this watch
+     * @throws IOException the server reported an error
+     */
+    private boolean processEvent(KafkaTopicWatchEvent event) throws IOException {
+        String type = event.getType();
+        KafkaTopicResource resource = event.getResource();
+
+        if (KafkaTopicWatchEvent.ERROR.equals(type)) {
+            if (event.getCode() != null && event.getCode() == HttpStatus.SC_GONE) {
+                // the resource version is too old to watch from
+                resourceVersion = null;
+                return false;
+            }
+            throw new IOException("Watch error event with code " + event.getCode());
+        }
+        if (resource == null) {
+            return true;
+        }
+        try {
+            if (KafkaTopicWatchEvent.ADDED.equals(type) || KafkaTopicWatchEvent.MODIFIED.equals(type)) {
+                handler.topicChanged(resource);
+            } else if (KafkaTopicWatchEvent.DELETED.equals(type)) {
+                handler.topicDeleted(resource);
+            }
+        } catch (Exception error) {
+            /*
+             * The change could not be applied.  Rather than lose it, list and reconcile again before resuming.
+             */
+            handler.watchFailed(error);
+            resourceVersion = null;
+            return false;
+        }
+        if (resource.getResourceVersion() != null) {
+            resourceVersion = resource.getResourceVersion();
+        }
+        return true;
+    }
+
+    /**
+     * Wait before retrying.  An interrupt stops the watcher.
+     */
+    private void pause() {
+        try {
+            Thread.sleep(retryDelayMillis);
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,525 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * ReconcileCheckpoint is the work list of the changes a reconcile is making to the catalog for one cluster, and
+ * the progress through it.  The list is written when the changes have been worked out, and a line is appended to
+ * the journal at the end of the file as each change completes or fails, so a reconcile that stops part way
+ * through is resumed from the changes that were still to do rather than from a fresh list and diff.  The
+ * resourceVersion is that of the KafkaTopic list the changes were worked out from; the work list is only resumed
+ * when a watch from it reports no added, modified or deleted topics, so the changes still to do are still the
+ * right ones:
+ * <pre>
+ * {"scope":"...","resourceVersion":"123"}
+ * {"action":"create","topic":"orders","attempts":0,"properties":{...}}
+ * {"action":"delete","topic":"old","guid":"...","attempts":1}
+ * {"quarantined":"bad","fingerprint":"..."}
+ * {"done":"orders"}
+ * {"failed":"old"}
+ * </pre>
+ * A change that fails maxAttempts times in a row is quarantined: it is not tried again until the topic in the
+ * cluster changes, so a topic the metadata server always rejects does not stop the cluster from being
+ * synchronized.  Without a file the checkpoint is only kept in memory and still quarantines failing changes.
+ * <p>
+ * The journal may end in a partly written line if the connector stopped while appending; the line is ignored.
+ */
+class ReconcileCheckpoint implements Closeable {
+    private static final String SCOPE = "scope";
+    private static final String RESOURCE_VERSION = "resourceVersion";
+    private static final String ACTION = "action";
+    private static final String TOPIC = "topic";
+    private static final String GUID = "guid";
+    private static final String ATTEMPTS = "attempts";
+    private static final String PROPERTIES = "properties";
+    private static final String QUARANTINED = "quarantined";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String DONE = "done";
+    private static final String FAILED = "failed";
+
+    private final Path file;
+    private final JsonFactory jsonFactory;
+    private final int maxAttempts;
+    private final String scope;
+    private final String resourceVersion;
+    // the changes, each for a different topic, with the failures in a row and completion of each alongside
+    private final TopicMutations items;
+    private int[] attempts;
+    private boolean[] done;
+    // quarantined topics and the fingerprint of the change that was given up on
+    private final Map<String, String> quarantined = new HashMap<>();
+    private JsonGenerator journal = null;
+
+    /**
+     * Constructor for an empty checkpoint.
+     *
+     * @param file            checkpoint file, or null to keep the checkpoint in memory
+     * @param jsonFactory     factory for reading and writing the file
+     * @param maxAttempts     failures in a row after which a change is quarantined; 0 or less never quarantines
+     * @param scope           describes the configuration the work list was worked out with
+     * @param resourceVersion resource version of the KafkaTopic list the work list was worked out from
+     */
+    ReconcileCheckpoint(Path file, JsonFactory jsonFactory, int maxAttempts, String scope, String resourceVersion) {
+        this(file, jsonFactory, maxAttempts, scope, resourceVersion, new TopicMutations());
+    }
+
+    private ReconcileCheckpoint(Path file, JsonFactory jsonFactory, int maxAttempts, String scope, String resourceVersion, TopicMutations items) {
+        this.file = file;
+        this.jsonFactory = jsonFactory;
+        this.maxAttempts = maxAttempts;
+        this.scope = scope;
+        this.resourceVersion = resourceVersion;
+        this.items = items;
+        this.attempts = new int[items.size()];
+        this.done = new boolean[items.size()];
+    }
+
+    /**
+     * Start a work list that follows on from this one.  The attempts of a change that is still in the list and
+     * the quarantine of a change that has not been changed since are carried over.
+     *
+     * @param resourceVersion resource version of the KafkaTopic list the new work list is worked out from
+     * @param newItems        changes to make, each for a different topic; the work list keeps the list, so it
+     *                        must not be changed afterwards
+     * @return new checkpoint, not yet written
+     */
+    synchronized ReconcileCheckpoint next(String resourceVersion, TopicMutations newItems) {
+        ReconcileCheckpoint next = new ReconcileCheckpoint(file, jsonFactory, maxAttempts, scope, resourceVersion, newItems);
+        // usually every change completed, so there is nothing to carry over
+        Map<String, Integer> unfinished = null;
+        for (int index = 0; index < items.size(); index++) {
+            if (!done[index]) {
+                if (unfinished == null) {
+                    unfinished = new HashMap<>();
+                }
+                unfinished.put(items.getTopicName(index), index);
+            }
+        }
+        if (unfinished == null && quarantined.isEmpty()) {
+            return next;
+        }
+        for (int newIndex = 0; newIndex < newItems.size(); newIndex++) {
+            String topicName = newItems.getTopicName(newIndex);
+            Integer previousIndex = unfinished == null ? null : unfinished.get(topicName);
+            String quarantinedFingerprint = quarantined.get(topicName);
+            if (previousIndex == null && quarantinedFingerprint == null) {
+                continue;
+            }
+            String fingerprint = next.getFingerprint(newIndex);
+            if (previousIndex != null && getFingerprint(previousIndex).equals(fingerprint)) {
+                next.attempts[newIndex] = attempts[previousIndex];
+            }
+            if (fingerprint.equals(quarantinedFingerprint)) {
+                next.quarantined.put(topicName, quarantinedFingerprint);
+            }
+        }
+        return next;
+    }
+
+    String getScope() {
+        return scope;
+    }
+
+    /**
+     * Return the resource version of the KafkaTopic list the work list was worked out from.
+     *
+     * @return resource version
+     */
+    String getResourceVersion() {
+        return resourceVersion;
+    }
+
+    /**
+     * Return the changes in the work list, including those that have completed or are quarantined.  The list
+     * must not be changed.
+     *
+     * @return changes in work list order
+     */
+    TopicMutations getItems() {
+        return items;
+    }
+
+    /**
+     * Return whether a change is still to be made: it has not completed and is not quarantined.
+     *
+     * @param index index of the change in the work list
+     * @return true if the change is pending
+     */
+    synchronized boolean isPending(int index) {
+        return !done[index] && (quarantined.isEmpty() || !quarantined.containsKey(items.getTopicName(index)));
+    }
+
+    /**
+     * Return the number of changes that are still to be made.
+     *
+     * @return pending changes
+     */
+    synchronized int getPendingCount() {
+        int pending = 0;
+        for (int index = 0; index < items.size(); index++) {
+            if (isPending(index)) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Return the number of times in a row a change has failed.
+     *
+     * @param index index of the change in the work list
+     * @return failed attempts
+     */
+    synchronized int getAttempts(int index) {
+        return attempts[index];
+    }
+
+    /**
+     * Identify the version of a change, so that a quarantined change is tried again once the topic changes.
+     *
+     * @param index index of the change in the work list
+     * @return fingerprint of the properties, or the guid of a delete
+     */
+    String getFingerprint(int index) {
+        String action = items.getAction(index);
+        TopicProperties properties = items.getProperties(index);
+        if (properties == null) {
+            return action + ":" + items.getGUID(index);
+        }
+        String fingerprint = items.getFingerprint(index);
+        if (fingerprint == null) {
+            fingerprint = TopicFingerprint.get(properties);
+        }
+        return action + ":" + (fingerprint == null ? TopicFingerprint.compute(properties) : fingerprint);
+    }
+
+    /**
+     * Return whether a topic is quarantined.
+     *
+     * @param topicName name of the topic
+     * @return true if its change is not to be tried
+     */
+    synchronized boolean isQuarantined(String topicName) {
+        return quarantined.containsKey(topicName);
+    }
+
+    /**
+     * Return the number of quarantined topics.
+     *
+     * @return quarantined topics
+     */
+    synchronized int getQuarantinedCount() {
+        return quarantined.size();
+    }
+
+    /**
+     * Record a change that completed.
+     *
+     * @param index index of the change in the work list
+     * @throws IOException the journal could not be written
+     */
+    synchronized void recordDone(int index) throws IOException {
+        done[index] = true;
+        appendJournal(DONE, items.getTopicName(index));
+    }
+
+    /**
+     * Record a change that failed, quarantining it if it has failed maxAttempts times.
+     *
+     * @param index index of the change in the work list
+     * @return true if the change has just been quarantined
+     * @throws IOException the journal could not be written
+     */
+    synchronized boolean recordFailed(int index) throws IOException {
+        String topicName = items.getTopicName(index);
+        attempts[index]++;
+        appendJournal(FAILED, topicName);
+        if (maxAttempts > 0 && attempts[index] >= maxAttempts) {
+            String fingerprint = getFingerprint(index);
+            quarantined.put(topicName, fingerprint);
+            if (journal != null) {
+                writeQuarantine(journal, topicName, fingerprint);
+                journal.flush();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Write the work list to the file, replacing the checkpoint already there, and open the journal.  A
+     * checkpoint without a file is not written.
+     *
+     * @throws IOException the checkpoint could not be written
+     */
+    synchronized void write() throws IOException {
+        if (file == null) {
+            return;
+        }
+        close();
+        ByteArrayOutputStream content = new ByteArrayOutputStream(256 + items.size() * 256);
+        try (JsonGenerator generator = createGenerator(content)) {
+            generator.writeStartObject();
+            generator.writeStringField(SCOPE, scope);
+            generator.writeStringField(RESOURCE_VERSION, resourceVersion);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            for (int index = 0; index < items.size(); index++) {
+                writeItem(generator, index);
+            }
+            for (Map.Entry<String, String> quarantinedTopic : quarantined.entrySet()) {
+                writeQuarantine(generator, quarantinedTopic.getKey(), quarantinedTopic.getValue());
+            }
+            for (int index = 0; index < items.size(); index++) {
+                if (done[index]) {
+                    writeJournalEntry(generator, DONE, items.getTopicName(index));
+                }
+            }
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporaryFile, content.toByteArray());
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException notSupported) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        journal = createGenerator(Files.newOutputStream(file, StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Close the journal.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Read a checkpoint from its file, replaying the journal, and open the journal for the changes still to do.
+     *
+     * @param file        checkpoint file
+     * @param jsonFactory factory for reading and writing the file
+     * @param maxAttempts failures in a row after which a change is quarantined
+     * @return checkpoint
+     * @throws IOException the file could not be read or does not start with a checkpoint
+     */
+    static ReconcileCheckpoint read(Path file, JsonFactory jsonFactory, int maxAttempts) throws IOException {
+        ReconcileCheckpoint checkpoint = null;
+        // index of each change in the work list, for the journal entries that name its topic
+        Map<String, Integer> itemIndices = new HashMap<>();
+        boolean truncated = false;
+        try (JsonParser parser = jsonFactory.createParser(Files.newInputStream(file))) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Map<String, Object> line = readObject(parser);
+                if (checkpoint == null) {
+                    if (!line.containsKey(SCOPE)) {
+                        throw new IOException("Not a reconcile checkpoint");
+                    }
+                    checkpoint = new ReconcileCheckpoint(file, jsonFactory, maxAttempts, (String) line.get(SCOPE), (String) line.get(RESOURCE_VERSION));
+                } else {
+                    checkpoint.replay(line, itemIndices);
+                }
+            }
+        } catch (JsonProcessingException error) {
+            // a partly written last line of the journal
+            if (checkpoint == null) {
+                throw error;
+            }
+            truncated = true;
+        }
+        if (checkpoint == null) {
+            throw new IOException("Empty reconcile checkpoint");
+        }
+        if (truncated) {
+            // rewrite the file so that the journal is not appended to the partly written line
+            checkpoint.write();
+        } else {
+            checkpoint.journal = checkpoint.createGenerator(Files.newOutputStream(file, StandardOpenOption.APPEND));
+        }
+        return checkpoint;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replay(Map<String, Object> line, Map<String, Integer> itemIndices) {
+        if (line.containsKey(ACTION)) {
+            int index = items.size();
+            items.add((String) line.get(ACTION),
+                      (String) line.get(TOPIC),
+                      (String) line.get(GUID),
+                      toTopicProperties((Map<String, Object>) line.get(PROPERTIES)),
+                      null);
+            if (index == attempts.length) {
+                attempts = Arrays.copyOf(attempts, Math.max(16, index * 2));
+                done = Arrays.copyOf(done, attempts.length);
+            }
+            attempts[index] = line.get(ATTEMPTS) instanceof Number ? ((Number) line.get(ATTEMPTS)).intValue() : 0;
+            itemIndices.put(items.getTopicName(index), index);
+        } else if (line.containsKey(DONE)) {
+            Integer index = itemIndices.get((String) line.get(DONE));
+            if (index != null) {
+                done[index] = true;
+            }
+        } else if (line.containsKey(FAILED)) {
+            Integer index = itemIndices.get((String) line.get(FAILED));
+            if (index != null) {
+                attempts[index]++;
+            }
+        } else if (line.containsKey(QUARANTINED)) {
+            quarantined.put((String) line.get(QUARANTINED), (String) line.get(FINGERPRINT));
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8);
+        // each record is a line of its own
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private void appendJournal(String entry, String topicName) throws IOException {
+        if (journal != null) {
+            writeJournalEntry(journal, entry, topicName);
+            journal.flush();
+        }
+    }
+
+    private static void writeJournalEntry(JsonGenerator generator, String entry, String topicName) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(entry, topicName);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeQuarantine(JsonGenerator generator, String topicName, String fingerprint) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(QUARANTINED, topicName);
+        generator.writeStringField(FINGERPRINT, fingerprint);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeItem(JsonGenerator generator, int index) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(ACTION, items.getAction(index));
+        generator.writeStringField(TOPIC, items.getTopicName(index));
+        if (items.getGUID(index) != null) {
+            generator.writeStringField(GUID, items.getGUID(index));
+        }
+        generator.writeNumberField(ATTEMPTS, attempts[index]);
+        TopicProperties properties = items.getProperties(index);
+        if (properties != null) {
+            generator.writeObjectFieldStart(PROPERTIES);
+            generator.writeStringField("qualifiedName", properties.getQualifiedName());
+            generator.writeStringField("name", properties.getName());
+            generator.writeStringField("description", properties.getDescription());
+            generator.writeStringField("typeName", properties.getTypeName());
+            writeMap(generator, "extendedProperties", properties.getExtendedProperties());
+            writeMap(generator, "additionalProperties", properties.getAdditionalProperties());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeMap(JsonGenerator generator, String fieldName, Map<String, ?> map) throws IOException {
+        if (map == null) {
+            return;
+        }
+        generator.writeObjectFieldStart(fieldName);
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Integer || value instanceof Long) {
+                generator.writeNumberField(entry.getKey(), ((Number) value).longValue());
+            } else if (value != null) {
+                generator.writeStringField(entry.getKey(), value.toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TopicProperties toTopicProperties(Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+        TopicProperties properties = new TopicProperties();
+        properties.setQualifiedName((String) map.get("qualifiedName"));
+        properties.setName((String) map.get("name"));
+        properties.setDescription((String) map.get("description"));
+        properties.setTypeName((String) map.get("typeName"));
+        properties.setExtendedProperties((Map<String, Object>) map.get("extendedProperties"));
+        Map<String, Object> additionalProperties = (Map<String, Object>) map.get("additionalProperties");
+        if (additionalProperties != null) {
+            Map<String, String> stringProperties = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : additionalProperties.entrySet()) {
+                stringProperties.put(entry.getKey(), Objects.toString(entry.getValue(), null));
+            }
+            properties.setAdditionalProperties(stringProperties);
+        }
+        return properties;
+    }
+
+    /**
+     * Read the object the parser is at the start of.  Numbers that fit are read as integers, as the connector
+     * catalogs partitions and replicas.
+     */
+    private static Map<String, Object> readObject(JsonParser parser) throws IOException {
+        Map<String, Object> object = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                object.put(fieldName, readObject(parser));
+            } else if (token == JsonToken.VALUE_NUMBER_INT) {
+                long value = parser.getLongValue();
+                object.put(fieldName, value == (int) value ? (Object) (int) value : (Object) value);
+            } else if (token == JsonToken.VALUE_NULL) {
+                object.put(fieldName, null);
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else {
+                object.put(fieldName, parser.getText());
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new IOException("Malformed reconcile checkpoint");
+        }
+        return object;
+    }
+}
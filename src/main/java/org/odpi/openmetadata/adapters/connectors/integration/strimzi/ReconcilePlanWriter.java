@@ -0,0 +1,286 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+
+/**
+ * ReconcilePlanWriter records the changes that a dry run would make to the catalog.  The plan is written as JSON
+ * lines while the clusters are reconciled, so a plan for a large cluster is never held in memory:
+ * <pre>
+ * {"action":"create","topic":"orders","cluster":"east","description":"...","extendedProperties":{...},"additionalProperties":{...}}
+ * {"action":"update","topic":"payments","guid":"...","cluster":"east","changes":[{"field":"partitions","from":"3","to":"6"}]}
+ * {"action":"delete","topic":"old","guid":"...","cluster":"east"}
+ * {"summary":{"create":1,"update":1,"delete":1,"calls":3,"writeParallelism":4,"catalogCallMillis":12.5,"estimatedWriteSeconds":0.0125}}
+ * </pre>
+ * The catalog index holds only the description, extended properties, cluster and fingerprint of a catalogued
+ * topic, so an update that changes nothing else is reported as a change of fingerprint.
+ * <p>
+ * A failure to write the plan does not stop the dry run.  The actions are still counted and the first failure
+ * is kept for the connector to report.
+ */
+class ReconcilePlanWriter implements Closeable {
+    static final String CREATE = "create";
+    static final String UPDATE = "update";
+    static final String DELETE = "delete";
+
+    private final JsonGenerator generator;
+    private int creates = 0;
+    private int updates = 0;
+    private int deletes = 0;
+    private IOException failure = null;
+
+    /**
+     * Constructor.
+     *
+     * @param jsonFactory  factory for the generator
+     * @param outputStream destination of the plan; closed with the writer
+     * @throws IOException the generator could not be created
+     */
+    ReconcilePlanWriter(JsonFactory jsonFactory, OutputStream outputStream) throws IOException {
+        generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8);
+        // each action is a line of its own
+        generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Record a topic that would be catalogued.
+     *
+     * @param cluster      cluster of the topic
+     * @param topicName    name of the topic
+     * @param strimziTopic properties that would be catalogued
+     */
+    synchronized void planCreate(StrimziCluster cluster, String topicName, TopicProperties strimziTopic) {
+        creates++;
+        write(() -> {
+            startAction(CREATE, topicName, null, cluster);
+            generator.writeStringField("description", strimziTopic.getDescription());
+            writeProperties("extendedProperties", strimziTopic.getExtendedProperties());
+            writeProperties("additionalProperties", strimziTopic.getAdditionalProperties());
+            endAction();
+        });
+    }
+
+    /**
+     * Record a catalogued topic that would be updated, with the fields that differ.
+     *
+     * @param cluster         cluster of the topic
+     * @param topicName       name of the topic
+     * @param cataloguedTopic catalogued topic
+     * @param strimziTopic    properties that would be catalogued
+     */
+    synchronized void planUpdate(StrimziCluster cluster,
+                                 String topicName,
+                                 CataloguedTopic cataloguedTopic,
+                                 TopicProperties strimziTopic) {
+        updates++;
+        write(() -> writeUpdate(cluster, topicName, cataloguedTopic, strimziTopic));
+    }
+
+    private void writeUpdate(StrimziCluster cluster,
+                             String topicName,
+                             CataloguedTopic cataloguedTopic,
+                             TopicProperties strimziTopic) throws IOException {
+        startAction(UPDATE, topicName, cataloguedTopic.getGUID(), cluster);
+        generator.writeArrayFieldStart("changes");
+        boolean changed = writeChange("description", cataloguedTopic.getDescription(), strimziTopic.getDescription());
+        Map<String, Object> cataloguedProperties = cataloguedTopic.getExtendedProperties();
+        Map<String, Object> strimziProperties = strimziTopic.getExtendedProperties();
+        TreeSet<String> propertyNames = new TreeSet<>();
+        if (cataloguedProperties != null) {
+            propertyNames.addAll(cataloguedProperties.keySet());
+        }
+        if (strimziProperties != null) {
+            propertyNames.addAll(strimziProperties.keySet());
+        }
+        for (String propertyName : propertyNames) {
+            changed |= writeChange(propertyName,
+                                   cataloguedProperties == null ? null : cataloguedProperties.get(propertyName),
+                                   strimziProperties == null ? null : strimziProperties.get(propertyName));
+        }
+        Map<String, String> additionalProperties = strimziTopic.getAdditionalProperties();
+        changed |= writeChange(StrimziCluster.CLUSTER_PROPERTY,
+                               cataloguedTopic.getCluster(),
+                               additionalProperties == null ? null : additionalProperties.get(StrimziCluster.CLUSTER_PROPERTY));
+        if (!changed) {
+            writeChange(TopicFingerprint.FINGERPRINT_PROPERTY, cataloguedTopic.getFingerprint(), TopicFingerprint.get(strimziTopic));
+        }
+        generator.writeEndArray();
+        endAction();
+    }
+
+    /**
+     * Record a catalogued topic that would be removed.
+     *
+     * @param cluster   cluster of the topic
+     * @param topicName name of the topic
+     * @param guid      unique identifier of the catalogued topic
+     */
+    synchronized void planDelete(StrimziCluster cluster, String topicName, String guid) {
+        deletes++;
+        write(() -> {
+            startAction(DELETE, topicName, guid, cluster);
+            endAction();
+        });
+    }
+
+    /**
+     * Write the totals of the plan and an estimate of how long the catalog calls would take.  The estimate
+     * assumes each call takes as long as a call that read a page of catalogued topics.
+     *
+     * @param writeParallelism  number of catalog calls made at a time
+     * @param catalogCallMillis mean duration of a catalog call, or a negative number if none was made
+     */
+    synchronized void writeSummary(int writeParallelism, double catalogCallMillis) {
+        write(() -> {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("summary");
+            generator.writeNumberField(CREATE, creates);
+            generator.writeNumberField(UPDATE, updates);
+            generator.writeNumberField(DELETE, deletes);
+            generator.writeNumberField("calls", getCalls());
+            generator.writeNumberField("writeParallelism", writeParallelism);
+            if (catalogCallMillis >= 0) {
+                generator.writeNumberField("catalogCallMillis", catalogCallMillis);
+                generator.writeNumberField("estimatedWriteSeconds", getEstimatedWriteSeconds(writeParallelism, catalogCallMillis));
+            }
+            generator.writeEndObject();
+            endAction();
+        });
+    }
+
+    /**
+     * Estimate how long the catalog calls of the plan would take.
+     *
+     * @param writeParallelism  number of catalog calls made at a time
+     * @param catalogCallMillis mean duration of a catalog call
+     * @return estimated seconds
+     */
+    double getEstimatedWriteSeconds(int writeParallelism, double catalogCallMillis) {
+        return Math.ceil((double) getCalls() / Math.max(1, writeParallelism)) * catalogCallMillis / 1000;
+    }
+
+    /**
+     * Return the number of catalog calls the plan would make.  Each create, update and delete is one call.
+     *
+     * @return calls
+     */
+    int getCalls() {
+        return creates + updates + deletes;
+    }
+
+    int getCreates() {
+        return creates;
+    }
+
+    int getUpdates() {
+        return updates;
+    }
+
+    int getDeletes() {
+        return deletes;
+    }
+
+    /**
+     * Return the first failure to write the plan.
+     *
+     * @return exception or null if the plan has been written
+     */
+    synchronized IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Finish the plan and close its destination.  A failure is kept rather than thrown.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            generator.close();
+        } catch (IOException error) {
+            if (failure == null) {
+                failure = error;
+            }
+        }
+    }
+
+    /**
+     * Write part of the plan unless an earlier write has failed.
+     */
+    private void write(PlanWrite planWrite) {
+        if (failure == null) {
+            try {
+                planWrite.write();
+            } catch (IOException error) {
+                failure = error;
+            }
+        }
+    }
+
+    private interface PlanWrite {
+        void write() throws IOException;
+    }
+
+    private void startAction(String action, String topicName, String guid, StrimziCluster cluster) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("action", action);
+        generator.writeStringField("topic", topicName);
+        if (guid != null) {
+            generator.writeStringField("guid", guid);
+        }
+        if (cluster.getName() != null) {
+            generator.writeStringField("cluster", cluster.getName());
+        }
+    }
+
+    private void endAction() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeProperties(String fieldName, Map<String, ?> properties) throws IOException {
+        if (properties == null) {
+            return;
+        }
+        generator.writeObjectFieldStart(fieldName);
+        for (String propertyName : new TreeSet<>(properties.keySet())) {
+            Object value = properties.get(propertyName);
+            // the fingerprint is an implementation detail of the connector
+            if (value != null && !TopicFingerprint.FINGERPRINT_PROPERTY.equals(propertyName)) {
+                generator.writeStringField(propertyName, value.toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write a change if the catalogued and Strimzi values differ.
+     *
+     * @return true if they differ
+     */
+    private boolean writeChange(String field, Object cataloguedValue, Object strimziValue) throws IOException {
+        String from = cataloguedValue == null ? null : cataloguedValue.toString();
+        String to = strimziValue == null ? null : strimziValue.toString();
+        if (Objects.equals(from, to)) {
+            return false;
+        }
+        generator.writeStartObject();
+        generator.writeStringField("field", field);
+        generator.writeStringField("from", from);
+        generator.writeStringField("to", to);
+        generator.writeEndObject();
+        return true;
+    }
+}
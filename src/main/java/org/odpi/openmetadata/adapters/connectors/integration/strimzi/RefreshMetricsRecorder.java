@@ -0,0 +1,131 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+
+/**
+ * RefreshMetricsRecorder receives the measurements the connector takes while it synchronizes topics.  It has the
+ * shape of a timer and counter registry such as Micrometer's so that an implementation can forward each
+ * measurement to one, using the names below as meter names.
+ * <p>
+ * Implementations must be thread safe because changes to the catalog are made from several threads.
+ */
+public interface RefreshMetricsRecorder {
+    /**
+     * A whole refresh, including one that is skipped.
+     */
+    String REFRESH = "strimzi.refresh";
+    /**
+     * The single item list request that checks whether the topics have changed.
+     */
+    String STRIMZI_PROBE = "strimzi.list.probe";
+    /**
+     * Sending a list request until the response headers arrive.
+     */
+    String STRIMZI_REQUEST = "strimzi.list.request";
+    /**
+     * Reading and parsing the body of a list response.  The body is parsed as it is read so this includes the
+     * time spent waiting for the network.
+     */
+    String STRIMZI_PARSE = "strimzi.list.parse";
+    /**
+     * Retrieving the catalogued topics with getMyTopics.
+     */
+    String CATALOG_READ = "catalog.read";
+    /**
+     * Working out the changes to make to the catalog.
+     */
+    String DIFF = "catalog.diff";
+    /**
+     * Making the changes to the catalog.
+     */
+    String CATALOG_WRITE = "catalog.write";
+    /**
+     * Waiting for the write rate limiter before a change to the catalog.
+     */
+    String WRITE_THROTTLE = "catalog.write.throttle";
+
+    /**
+     * Bytes of list response bodies read.
+     */
+    String BYTES_DOWNLOADED = "strimzi.bytes.downloaded";
+    /**
+     * KafkaTopic items read from list responses.
+     */
+    String ITEMS_PARSED = "strimzi.items.parsed";
+    /**
+     * KafkaTopic items that are not catalogued because of their name.
+     */
+    String ITEMS_FILTERED = "strimzi.items.filtered";
+    /**
+     * Refreshes skipped because the topics were unchanged.
+     */
+    String REFRESHES_SKIPPED = "strimzi.refresh.skipped";
+    /**
+     * Topics added to the catalog.
+     */
+    String TOPICS_CREATED = "catalog.topics.created";
+    /**
+     * Catalogued topics updated.
+     */
+    String TOPICS_UPDATED = "catalog.topics.updated";
+    /**
+     * Catalogued topics removed.
+     */
+    String TOPICS_DELETED = "catalog.topics.deleted";
+    /**
+     * Changes to the catalog that failed.
+     */
+    String TOPIC_WRITES_FAILED = "catalog.topics.failed";
+    /**
+     * Requests to Strimzi that were retried.
+     */
+    String REQUEST_RETRIES = "strimzi.request.retries";
+    /**
+     * Reads of a cluster skipped because its circuit breaker was open.
+     */
+    String READS_SUSPENDED = "strimzi.reads.suspended";
+    /**
+     * Refreshes that did nothing because the adaptive refresh interval had not passed.
+     */
+    String REFRESHES_DEFERRED = "strimzi.refresh.deferred";
+    /**
+     * Reads of a cluster that listed only object metadata to find deleted topics.
+     */
+    String METADATA_LISTS = "strimzi.metadata.lists";
+
+    /**
+     * Changes to the catalog left for the next refresh because the refresh reached maxWritesPerRefresh.
+     */
+    String WRITE_BACKLOG = "catalog.write.backlog";
+    /**
+     * Changes to the catalog quarantined because they failed maxWriteAttempts times.
+     */
+    String TOPICS_QUARANTINED = "catalog.topics.quarantined";
+
+    /**
+     * Record the duration of a phase.
+     *
+     * @param name  name of the phase
+     * @param nanos duration in nanoseconds
+     */
+    void recordTime(String name, long nanos);
+
+    /**
+     * Add to a counter.
+     *
+     * @param name   name of the counter
+     * @param amount amount to add
+     */
+    void increment(String name, long amount);
+
+    /**
+     * Set a gauge to its current value.
+     *
+     * @param name  name of the gauge
+     * @param value value
+     */
+    default void recordValue(String name, long value) {
+    }
+}
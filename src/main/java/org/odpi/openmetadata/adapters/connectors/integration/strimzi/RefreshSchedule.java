@@ -0,0 +1,81 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.util.function.LongSupplier;
+
+
+/**
+ * RefreshSchedule decides which of the refresh calls from the integration daemon reconcile the topics.  The daemon
+ * calls refresh at a fixed interval; the schedule keeps its own interval between the configured minimum and
+ * maximum, and refresh calls that arrive before it has passed do nothing.
+ * <p>
+ * Each reconcile that changes nothing doubles the interval, starting from the time since the previous reconcile.
+ * A reconcile that changes topics divides the interval by one more than the number of changes, so a single
+ * change halves it and a burst of changes takes it close to the minimum.  The interval can never be shorter than
+ * the interval at which the daemon calls refresh.
+ */
+class RefreshSchedule {
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final LongSupplier clockMillis;
+
+    private long intervalMillis;
+    private long lastReconcileMillis = 0;
+    private boolean reconciled = false;
+
+    /**
+     * Constructor.
+     *
+     * @param minIntervalMillis shortest interval between reconciles
+     * @param maxIntervalMillis longest interval between reconciles; 0 or less turns the schedule off
+     * @param clockMillis       monotonic clock in milliseconds
+     */
+    RefreshSchedule(long minIntervalMillis, long maxIntervalMillis, LongSupplier clockMillis) {
+        this.minIntervalMillis = Math.max(0, minIntervalMillis);
+        this.maxIntervalMillis = Math.max(this.minIntervalMillis, maxIntervalMillis);
+        this.clockMillis = clockMillis;
+        this.intervalMillis = this.minIntervalMillis;
+    }
+
+    /**
+     * Decide whether the refresh that has been called should reconcile the topics.
+     *
+     * @return true if the interval has passed since the last reconcile
+     */
+    synchronized boolean isDue() {
+        return !reconciled || clockMillis.getAsLong() - lastReconcileMillis >= intervalMillis;
+    }
+
+    /**
+     * Record a completed reconcile and work out the interval until the next one.
+     *
+     * @param mutations number of topics added, updated and removed by the reconcile
+     * @return true if the interval changed
+     */
+    synchronized boolean recordReconcile(int mutations) {
+        long now = clockMillis.getAsLong();
+        long previousIntervalMillis = intervalMillis;
+        if (mutations == 0) {
+            if (reconciled) {
+                intervalMillis = Math.max(intervalMillis, now - lastReconcileMillis) * 2;
+            }
+        } else {
+            intervalMillis = intervalMillis / (mutations + 1L);
+        }
+        intervalMillis = Math.min(maxIntervalMillis, Math.max(minIntervalMillis, intervalMillis));
+        lastReconcileMillis = now;
+        reconciled = true;
+        return intervalMillis != previousIntervalMillis;
+    }
+
+    /**
+     * Return the current interval between reconciles.
+     *
+     * @return interval in milliseconds
+     */
+    synchronized long getIntervalMillis() {
+        return intervalMillis;
+    }
+}
@@ -0,0 +1,116 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * RetryPolicy decides whether a failed request to the API server is retried and how long to wait first.
+ * Requests that were throttled (429), that failed on the server (5xx) or that could not reach it are retried.
+ * The wait doubles with each retry up to a maximum, and a random part is added so that connectors that failed
+ * together do not retry together.  A Retry-After header sets the shortest wait; if it asks for a longer wait
+ * than the maximum the request is not retried in this refresh.
+ */
+final class RetryPolicy {
+    private final int maxRetries;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param maxRetries         number of times a request is retried; 0 turns retries off
+     * @param initialDelayMillis wait before the first retry
+     * @param maxDelayMillis     longest wait before a retry
+     */
+    RetryPolicy(int maxRetries, long initialDelayMillis, long maxDelayMillis) {
+        this.maxRetries = maxRetries;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Return the number of times a request is retried.
+     *
+     * @return maximum retries
+     */
+    int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Decide whether a failure means the API server is throttling or unavailable, rather than that the request
+     * is wrong.
+     *
+     * @param error failure of the request
+     * @return true if the request may succeed when it is repeated
+     */
+    static boolean isRetryable(Exception error) {
+        if (error instanceof HttpStatusCodeException) {
+            int status = ((HttpStatusCodeException) error).getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        // a response that could not be parsed will not parse any better next time
+        return error instanceof ResourceAccessException && !(error.getCause() instanceof JsonProcessingException);
+    }
+
+    /**
+     * Work out how long to wait before a retry.
+     *
+     * @param retry number of the retry, starting at 1
+     * @param error failure of the previous attempt
+     * @return wait in milliseconds, or -1 if the server asked for a longer wait than the maximum
+     */
+    long getDelayMillis(int retry, Exception error) {
+        long backoff = initialDelayMillis << Math.min(retry - 1, 30);
+        if (backoff <= 0 || backoff > maxDelayMillis) {
+            backoff = maxDelayMillis;
+        }
+        // wait between half and all of the backoff
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        long retryAfterMillis = getRetryAfterMillis(error);
+        if (retryAfterMillis > maxDelayMillis) {
+            return -1;
+        }
+        return Math.max(delay, retryAfterMillis);
+    }
+
+    /**
+     * Return the wait requested by the Retry-After header of a failed response.  The header holds either a
+     * number of seconds or an HTTP date.
+     *
+     * @param error failure of the request
+     * @return wait in milliseconds, or 0 if none was requested
+     */
+    static long getRetryAfterMillis(Exception error) {
+        if (!(error instanceof HttpStatusCodeException)) {
+            return 0;
+        }
+        HttpHeaders headers = ((HttpStatusCodeException) error).getResponseHeaders();
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime retryTime = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(retryTime.getZone()), retryTime).toMillis());
+            } catch (DateTimeParseException notDate) {
+                return 0;
+            }
+        }
+    }
+}
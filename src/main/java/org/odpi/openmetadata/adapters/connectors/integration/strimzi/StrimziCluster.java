@@ -0,0 +1,223 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * StrimziCluster is one Kubernetes API server endpoint whose KafkaTopic resources the connector catalogs, together
+ * with the state of its synchronization.  A connector configured with the clusters property has one per entry;
+ * otherwise it has a single unnamed cluster built from the connection's endpoint and configuration properties.
+ * <p>
+ * Topics catalogued from a named cluster record its name in the strimziCluster additional property so that each
+ * cluster only updates and removes its own topics.
+ */
+class StrimziCluster {
+    /**
+     * Name of the additional property that holds the name of the cluster a catalogued topic came from.
+     */
+    static final String CLUSTER_PROPERTY = "strimziCluster";
+
+    private final String name;
+    private final String targetURL;
+    private final String token;
+    private final TopicNameFilter topicNameFilter;
+    private final String labelSelector;
+    private final String fieldSelector;
+
+    /*
+     * The resource version of the most recent list, and the resource version up to which the topics are known to
+     * be reconciled: that of the list of the last reconcile that completed, moved on by the bookmarks of the
+     * probes that found nothing changed.
+     */
+    private volatile String listResourceVersion = null;
+    private volatile String syncedResourceVersion = null;
+    // System.nanoTime when the synchronized resource version was last moved on
+    private volatile long syncedNanos = 0;
+    // reads of the cluster since its last full list was reconciled, or -1 before the first
+    private volatile int readsSinceFullList = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param name            name of the cluster, or null for the endpoint of the connection
+     * @param targetURL       URL of the KafkaTopic list
+     * @param token           bearer token for the API server
+     * @param topicNameFilter decides which topics are catalogued
+     * @param labelSelector   label selector sent with list and watch requests, or null
+     * @param fieldSelector   field selector sent with list and watch requests, or null
+     */
+    StrimziCluster(String name,
+                   String targetURL,
+                   String token,
+                   TopicNameFilter topicNameFilter,
+                   String labelSelector,
+                   String fieldSelector) {
+        this.name = name;
+        this.targetURL = targetURL;
+        this.token = token;
+        this.topicNameFilter = topicNameFilter;
+        this.labelSelector = labelSelector;
+        this.fieldSelector = fieldSelector;
+    }
+
+    /**
+     * Return the name of the cluster.
+     *
+     * @return name, or null for the endpoint of the connection
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Return the URL of the KafkaTopic list.
+     *
+     * @return URL
+     */
+    String getTargetURL() {
+        return targetURL;
+    }
+
+    /**
+     * Return the bearer token for the API server.
+     *
+     * @return token
+     */
+    String getToken() {
+        return token;
+    }
+
+    /**
+     * Describe the configuration that decides which topics are catalogued from this cluster.
+     *
+     * @return scope of the cluster
+     */
+    String getScope() {
+        return name + "\n" + targetURL + "\n" + topicNameFilter + "\n" + labelSelector + "\n" + fieldSelector;
+    }
+
+    /**
+     * Decide whether a topic from this cluster is catalogued.
+     *
+     * @param topicName to check
+     * @return whether to include this topicName
+     */
+    boolean includesTopicName(String topicName) {
+        return topicNameFilter.accepts(topicName);
+    }
+
+    /**
+     * Add the configured label and field selectors to the query parameters of a list or watch request.
+     * The selectors are applied by the API server; the checks on the topic names are still made on the topics
+     * it returns.  Note that the API server only supports field selectors on metadata.name and
+     * metadata.namespace for custom resources unless the CRD declares selectable fields.
+     *
+     * @param queryParameters query parameters to add to
+     */
+    void addSelectors(Map<String, String> queryParameters) {
+        if (labelSelector != null) {
+            queryParameters.put("labelSelector", labelSelector);
+        }
+        if (fieldSelector != null) {
+            queryParameters.put("fieldSelector", fieldSelector);
+        }
+    }
+
+    /**
+     * Build the URI of a request to the cluster, adding the supplied query parameters.
+     *
+     * @param queryParameters query parameter names and unencoded values
+     * @return request URI
+     */
+    URI buildRequestURI(Map<String, String> queryParameters) {
+        StringBuilder uri = new StringBuilder(targetURL);
+        char separator = targetURL.indexOf('?') < 0 ? '?' : '&';
+        for (Map.Entry<String, String> queryParameter : queryParameters.entrySet()) {
+            uri.append(separator)
+               .append(queryParameter.getKey())
+               .append('=')
+               .append(URLEncoder.encode(queryParameter.getValue(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return URI.create(uri.toString());
+    }
+
+    String getListResourceVersion() {
+        return listResourceVersion;
+    }
+
+    void setListResourceVersion(String listResourceVersion) {
+        this.listResourceVersion = listResourceVersion;
+    }
+
+    String getSyncedResourceVersion() {
+        return syncedResourceVersion;
+    }
+
+    void setSyncedResourceVersion(String syncedResourceVersion) {
+        // a probe that confirms the same version does not make it any younger
+        if (syncedResourceVersion != null && !syncedResourceVersion.equals(this.syncedResourceVersion)) {
+            syncedNanos = System.nanoTime();
+        }
+        this.syncedResourceVersion = syncedResourceVersion;
+    }
+
+    /**
+     * Return whether the synchronized resource version was recorded recently enough for a watch from it to be
+     * likely to succeed.
+     *
+     * @param maxAgeSeconds age limit, or 0 for no limit
+     * @return true if there is a synchronized resource version within the age limit
+     */
+    boolean isSyncedWithin(int maxAgeSeconds) {
+        if (syncedResourceVersion == null) {
+            return false;
+        }
+        return maxAgeSeconds <= 0 || System.nanoTime() - syncedNanos < TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    }
+
+    /**
+     * Decide whether the next read of the cluster must list the full KafkaTopic objects rather than only their
+     * metadata.  The first read is always a full list, as is every read until a full list has been reconciled
+     * without failures.
+     *
+     * @param fullListInterval number of reads per full list
+     * @return true if a full list is due
+     */
+    boolean isFullListDue(int fullListInterval) {
+        return readsSinceFullList < 0 || readsSinceFullList + 1 >= fullListInterval;
+    }
+
+    /**
+     * Record a read of the cluster that listed only object metadata.
+     */
+    void recordMetadataList() {
+        if (readsSinceFullList >= 0) {
+            readsSinceFullList++;
+        }
+    }
+
+    /**
+     * Record that a full list of the cluster has been reconciled without failures.
+     */
+    void recordFullListReconciled() {
+        readsSinceFullList = 0;
+    }
+
+    /**
+     * Return a description of the cluster for messages.
+     *
+     * @return name and URL
+     */
+    @Override
+    public String toString() {
+        return name == null ? targetURL : name + " (" + targetURL + ")";
+    }
+}
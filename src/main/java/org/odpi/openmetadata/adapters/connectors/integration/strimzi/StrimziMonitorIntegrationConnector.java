@@ -4,16 +4,11 @@
 package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
 
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.io.HttpClientConnectionManager;
-import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
-import org.apache.hc.core5.ssl.SSLContexts;
-import org.apache.hc.core5.ssl.TrustStrategy;
+import com.fasterxml.jackson.core.JsonParser;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.util.Timeout;
 import org.odpi.openmetadata.accessservices.datamanager.metadataelements.TopicElement;
 import org.odpi.openmetadata.accessservices.datamanager.properties.TemplateProperties;
 import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
@@ -22,21 +17,40 @@ import org.odpi.openmetadata.adapters.connectors.integration.strimzi.ffdc.Strimz
 import org.odpi.openmetadata.frameworks.auditlog.messagesets.AuditLogMessageDefinition;
 import org.odpi.openmetadata.frameworks.auditlog.messagesets.ExceptionMessageDefinition;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.UserNotAuthorizedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.odpi.openmetadata.integrationservices.topic.connector.TopicIntegratorConnector;
 import org.odpi.openmetadata.integrationservices.topic.connector.TopicIntegratorContext;
 import org.springframework.http.*;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
-
-import javax.net.ssl.SSLContext;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.X509Certificate;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 
 /**
@@ -48,19 +62,138 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
     public static final String REPLICAS = "replicas";
     public static final String PARTITIONS = "partitions";
 
+    /*
+     * A paged list that keeps losing its continue token is restarted at most this many times.
+     */
+    private static final int MAX_LIST_RESTARTS = 3;
+
+    /*
+     * How long the topic watcher waits before retrying after a failure.
+     */
+    private static final long WATCH_RETRY_DELAY_MILLIS = 5000;
+
+    /*
+     * Asks the API server for the metadata of each KafkaTopic rather than the whole object.  A server that cannot
+     * return partial objects returns the full list instead, which is parsed in the same way.
+     */
+    private static final List<MediaType> METADATA_LIST_TYPES = List.of(MediaType.parseMediaType("application/json;as=PartialObjectMetadataList;g=meta.k8s.io;v=v1"),
+                                                                       MediaType.APPLICATION_JSON);
+
+    /*
+     * The order in which the changes to the catalog of a cluster are made.
+     */
+    private static final String[] MUTATION_ORDER = {ReconcilePlanWriter.UPDATE, ReconcilePlanWriter.DELETE, ReconcilePlanWriter.CREATE};
+
     private String templateQualifiedName = null;
     private String token = null;
     private String topicNamePrefix = null;
+    private List<String> topicNameIncludes = null;
+    private List<String> topicNameExcludes = null;
+    private String labelSelector = null;
+    private String fieldSelector = null;
     private String templateGUID = null;
     private String targetURL = null;
-    private Set<String> addTopicNamesSet = new HashSet<>();
-    private Map<String, String> deleteTopicNameToGuidMap = new HashMap<>();
-    private Map<String, String> updateTopicNameToGuidMap = new HashMap<>();
-
-    private List<TopicElement> cataloguedTopics;
+    private int listPageSize = StrimziMonitorIntegrationProvider.DEFAULT_LIST_PAGE_SIZE;
+    private int cataloguePageSize = StrimziMonitorIntegrationProvider.DEFAULT_CATALOGUE_PAGE_SIZE;
+    private String syncMode = StrimziMonitorIntegrationProvider.SYNC_MODE_POLL;
+    private int watchTimeoutSeconds = StrimziMonitorIntegrationProvider.DEFAULT_WATCH_TIMEOUT_SECONDS;
+    // the changes worked out by the last reconcile, over all of the clusters
+    private final TopicMutations refreshMutations = new TopicMutations();
+    /*
+     * Reused by each reconcile so that working out and making the changes does not allocate in proportion to the
+     * topics.  The topics listed from each cluster are added to its TopicDiff as they are parsed.
+     */
+    private final Map<StrimziCluster, TopicDiff> topicDiffs = new ConcurrentHashMap<>();
+    private final TopicMutations clusterMutations = new TopicMutations();
+    private int[] writeIndices = new int[0];
+    /*
+     * The catalog is read into the spare index, which is swapped in once the read completes, so a read that fails
+     * part way through leaves the index as it was.  Both are kept and refilled by each read.
+     */
+    private CatalogIndex cataloguedTopicIndex = new CatalogIndex();
+    private CatalogIndex spareCatalogIndex = new CatalogIndex();
+    /*
+     * The clusters whose topics are catalogued.  Unless the clusters property is set there is a single cluster
+     * built from the endpoint and configuration properties of the connection.
+     */
+    private List<StrimziCluster> clusters = null;
+    private int clusterReadParallelism = StrimziMonitorIntegrationProvider.DEFAULT_CLUSTER_READ_PARALLELISM;
+    // the topics this instance reconciles when the topics are shared between several instances
+    private TopicShard topicShard = TopicShard.ALL;
+    private ExecutorService clusterReader = null;
+    /*
+     * Failed requests to the API server are retried, and a cluster whose reads keep failing is not read again
+     * until its circuit breaker has been open for the configured period.
+     */
+    private RetryPolicy retryPolicy = new RetryPolicy(StrimziMonitorIntegrationProvider.DEFAULT_MAX_RETRIES,
+                                                      StrimziMonitorIntegrationProvider.DEFAULT_RETRY_INITIAL_DELAY_MILLIS,
+                                                      StrimziMonitorIntegrationProvider.DEFAULT_RETRY_MAX_DELAY_MILLIS);
+    private int circuitBreakerFailureThreshold = StrimziMonitorIntegrationProvider.DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+    private long circuitBreakerOpenMillis = StrimziMonitorIntegrationProvider.DEFAULT_CIRCUIT_BREAKER_OPEN_SECONDS * 1000L;
+    private final Map<StrimziCluster, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private boolean skipUnchangedRefresh = StrimziMonitorIntegrationProvider.DEFAULT_SKIP_UNCHANGED_REFRESH;
+    private int probeTimeoutSeconds = StrimziMonitorIntegrationProvider.DEFAULT_PROBE_TIMEOUT_SECONDS;
+    private int probeMaxAgeSeconds = StrimziMonitorIntegrationProvider.DEFAULT_PROBE_MAX_AGE_SECONDS;
+    private boolean lastRefreshSkipped = false;
+    // decides which refreshes reconcile; null when every refresh reconciles
+    private RefreshSchedule refreshSchedule = null;
+    private long skippedRefreshCount = 0;
+    // reads of a cluster per full list; the others list only object metadata to remove deleted topics
+    private int fullListInterval = StrimziMonitorIntegrationProvider.DEFAULT_FULL_LIST_INTERVAL;
+    private int writeParallelism = StrimziMonitorIntegrationProvider.DEFAULT_WRITE_PARALLELISM;
+    /*
+     * Changes to the catalog are paced by the rate limiter, if one is configured, and a reconcile makes at most
+     * maxWritesPerRefresh of them.  The rest are the backlog, which the next reconcile works out again.
+     */
+    private WriteRateLimiter writeRateLimiter = null;
+    private int maxWritesPerRefresh = StrimziMonitorIntegrationProvider.DEFAULT_MAX_WRITES_PER_REFRESH;
+    private int writeBudget = 0;
+    private int writeBacklog = 0;
+    /*
+     * The work list of each cluster, kept in checkpointDirectory if it is set.  A reconcile resumes the changes
+     * still to do while the KafkaTopics are unchanged since the work list was worked out, and a change that fails
+     * maxWriteAttempts times is quarantined.
+     */
+    private Path checkpointDirectory = null;
+    private int maxWriteAttempts = StrimziMonitorIntegrationProvider.DEFAULT_MAX_WRITE_ATTEMPTS;
+    private final Map<StrimziCluster, ReconcileCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    /*
+     * In a dry run the changes are written to the plan rather than made.  The writer is open only while a
+     * reconcile is running, and the catalog calls that read the topics are timed to estimate the cost of the plan.
+     */
+    private boolean dryRun = StrimziMonitorIntegrationProvider.DEFAULT_DRY_RUN;
+    private Path planFile = null;
+    private ReconcilePlanWriter planWriter = null;
+    private long catalogCallNanos = 0;
+    private int catalogCalls = 0;
+    private Path snapshotFile = null;
+    /*
+     * Whether start loaded the snapshot into the catalogued topic index, for the first reconcile to use in place
+     * of the catalog.  The snapshot file is current while the catalog has not been changed since it was written.
+     */
+    private boolean snapshotLoaded = false;
+    private boolean snapshotCurrent = false;
+    private final InMemoryRefreshMetrics refreshMetrics = new InMemoryRefreshMetrics();
+    private RefreshMetricsRecorder metricsRecorder = null;
+    private int metricsSummaryInterval = StrimziMonitorIntegrationProvider.DEFAULT_METRICS_SUMMARY_INTERVAL;
+    private int refreshesSinceSummary = 0;
+    private final Object reconcileLock = new Object();
 
     private TopicIntegratorContext myContext = null;
 
+    private StrimziRestClient restClient = null;
+    private final Map<StrimziCluster, KafkaTopicWatcher> topicWatchers = new HashMap<>();
+    private final Map<StrimziCluster, Thread> topicWatcherThreads = new HashMap<>();
+    private TopicWriteExecutor topicWriteExecutor = null;
+    private TopicWriteExecutor.Results lastWriteResults = null;
+
+    // created once so that its field name table and buffers are shared by every list, watch and checkpoint
+    private final JsonFactory jsonFactory = KafkaTopicListParser.createJsonFactory();
+    // built from the description annotation field and attribute model on first use
+    private volatile KafkaTopicListParser topicListParser = null;
+    // the additional properties catalogued for each topic
+    private TopicAttributeModel attributeModel = TopicAttributeModel.NONE;
+
    private Object descriptionAnnotationField = null;
 
     /**
@@ -96,6 +229,206 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
             // TODO check that this exists - manditory ???
             token = (String) configurationProperties.get(StrimziMonitorIntegrationProvider.TOKEN_PROPERTY);
             topicNamePrefix = (String) configurationProperties.get(StrimziMonitorIntegrationProvider.TOPIC_NAME_PREFIX);
+            topicNameIncludes = getPatternListConfigurationProperty(configurationProperties, StrimziMonitorIntegrationProvider.TOPIC_NAME_INCLUDES);
+            topicNameExcludes = getPatternListConfigurationProperty(configurationProperties, StrimziMonitorIntegrationProvider.TOPIC_NAME_EXCLUDES);
+            /*
+             * Selectors are passed to the API server so that topics the connector does not catalog are not sent.
+             */
+            labelSelector = getStringConfigurationProperty(configurationProperties, StrimziMonitorIntegrationProvider.LABEL_SELECTOR);
+            fieldSelector = getStringConfigurationProperty(configurationProperties, StrimziMonitorIntegrationProvider.FIELD_SELECTOR);
+            clusters = getClusterConfiguration(configurationProperties);
+            clusterReadParallelism = getIntegerConfigurationProperty(configurationProperties,
+                                                                     StrimziMonitorIntegrationProvider.CLUSTER_READ_PARALLELISM,
+                                                                     StrimziMonitorIntegrationProvider.DEFAULT_CLUSTER_READ_PARALLELISM);
+            int shardIndex = getIntegerConfigurationProperty(configurationProperties,
+                                                             StrimziMonitorIntegrationProvider.SHARD_INDEX,
+                                                             StrimziMonitorIntegrationProvider.DEFAULT_SHARD_INDEX);
+            int shardCount = getIntegerConfigurationProperty(configurationProperties,
+                                                             StrimziMonitorIntegrationProvider.SHARD_COUNT,
+                                                             StrimziMonitorIntegrationProvider.DEFAULT_SHARD_COUNT);
+            if (shardCount < 1) {
+                throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.SHARD_COUNT);
+            }
+            if (shardIndex < 0 || shardIndex >= shardCount) {
+                throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.SHARD_INDEX);
+            }
+            topicShard = shardCount == 1 ? TopicShard.ALL : new TopicShard(shardIndex, shardCount);
+            List<String> syncedConfigKeys = getPatternListConfigurationProperty(configurationProperties,
+                                                                                StrimziMonitorIntegrationProvider.SYNCED_CONFIG_KEYS);
+            List<String> syncedStatusFields = getPatternListConfigurationProperty(configurationProperties,
+                                                                                  StrimziMonitorIntegrationProvider.SYNCED_STATUS_FIELDS);
+            if (syncedConfigKeys != null || syncedStatusFields != null) {
+                attributeModel = new TopicAttributeModel(syncedConfigKeys == null ? Collections.emptyList() : syncedConfigKeys,
+                                                         syncedStatusFields == null ? Collections.emptyList() : syncedStatusFields);
+            }
+            topicListParser = null;
+
+            /*
+             * Create the pooled HTTP client once; it is reused by every refresh and closed in disconnect.
+             */
+            int connectionPoolSize = getIntegerConfigurationProperty(configurationProperties,
+                                                                     StrimziMonitorIntegrationProvider.CONNECTION_POOL_SIZE,
+                                                                     StrimziMonitorIntegrationProvider.DEFAULT_CONNECTION_POOL_SIZE);
+            int keepAliveSeconds = getIntegerConfigurationProperty(configurationProperties,
+                                                                   StrimziMonitorIntegrationProvider.KEEP_ALIVE_SECONDS,
+                                                                   StrimziMonitorIntegrationProvider.DEFAULT_KEEP_ALIVE_SECONDS);
+            int connectTimeoutMillis = getIntegerConfigurationProperty(configurationProperties,
+                                                                       StrimziMonitorIntegrationProvider.CONNECT_TIMEOUT_MILLIS,
+                                                                       StrimziMonitorIntegrationProvider.DEFAULT_CONNECT_TIMEOUT_MILLIS);
+            int readTimeoutMillis = getIntegerConfigurationProperty(configurationProperties,
+                                                                    StrimziMonitorIntegrationProvider.READ_TIMEOUT_MILLIS,
+                                                                    StrimziMonitorIntegrationProvider.DEFAULT_READ_TIMEOUT_MILLIS);
+            int tlsSessionCacheSize = getIntegerConfigurationProperty(configurationProperties,
+                                                                      StrimziMonitorIntegrationProvider.TLS_SESSION_CACHE_SIZE,
+                                                                      StrimziMonitorIntegrationProvider.DEFAULT_TLS_SESSION_CACHE_SIZE);
+            int tlsSessionTimeoutSeconds = getIntegerConfigurationProperty(configurationProperties,
+                                                                           StrimziMonitorIntegrationProvider.TLS_SESSION_TIMEOUT_SECONDS,
+                                                                           StrimziMonitorIntegrationProvider.DEFAULT_TLS_SESSION_TIMEOUT_SECONDS);
+            boolean compressResponses = getBooleanConfigurationProperty(configurationProperties,
+                                                                        StrimziMonitorIntegrationProvider.COMPRESS_RESPONSES,
+                                                                        StrimziMonitorIntegrationProvider.DEFAULT_COMPRESS_RESPONSES);
+            HttpVersionPolicy httpVersionPolicy = null;
+            Object httpVersionProperty = configurationProperties.get(StrimziMonitorIntegrationProvider.HTTP_VERSION);
+            if (httpVersionProperty != null) {
+                if (StrimziMonitorIntegrationProvider.HTTP_VERSION_2.equals(httpVersionProperty.toString())) {
+                    // HTTP/2 where the server offers it during the TLS handshake, otherwise HTTP/1.1
+                    httpVersionPolicy = HttpVersionPolicy.NEGOTIATE;
+                } else if (!StrimziMonitorIntegrationProvider.HTTP_VERSION_1_1.equals(httpVersionProperty.toString())) {
+                    throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.HTTP_VERSION);
+                }
+            }
+            listPageSize = getIntegerConfigurationProperty(configurationProperties,
+                                                           StrimziMonitorIntegrationProvider.LIST_PAGE_SIZE,
+                                                           StrimziMonitorIntegrationProvider.DEFAULT_LIST_PAGE_SIZE);
+            cataloguePageSize = getIntegerConfigurationProperty(configurationProperties,
+                                                                StrimziMonitorIntegrationProvider.CATALOGUE_PAGE_SIZE,
+                                                                StrimziMonitorIntegrationProvider.DEFAULT_CATALOGUE_PAGE_SIZE);
+            Object syncModeProperty = configurationProperties.get(StrimziMonitorIntegrationProvider.SYNC_MODE);
+            if (syncModeProperty != null) {
+                syncMode = syncModeProperty.toString();
+                if (!StrimziMonitorIntegrationProvider.SYNC_MODE_POLL.equals(syncMode) &&
+                    !StrimziMonitorIntegrationProvider.SYNC_MODE_WATCH.equals(syncMode)) {
+                    throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.SYNC_MODE);
+                }
+            }
+            watchTimeoutSeconds = getIntegerConfigurationProperty(configurationProperties,
+                                                                  StrimziMonitorIntegrationProvider.WATCH_TIMEOUT_SECONDS,
+                                                                  StrimziMonitorIntegrationProvider.DEFAULT_WATCH_TIMEOUT_SECONDS);
+            skipUnchangedRefresh = getBooleanConfigurationProperty(configurationProperties,
+                                                                   StrimziMonitorIntegrationProvider.SKIP_UNCHANGED_REFRESH,
+                                                                   StrimziMonitorIntegrationProvider.DEFAULT_SKIP_UNCHANGED_REFRESH);
+            probeTimeoutSeconds = getIntegerConfigurationProperty(configurationProperties,
+                                                                  StrimziMonitorIntegrationProvider.PROBE_TIMEOUT_SECONDS,
+                                                                  StrimziMonitorIntegrationProvider.DEFAULT_PROBE_TIMEOUT_SECONDS);
+            probeMaxAgeSeconds = getIntegerConfigurationProperty(configurationProperties,
+                                                                 StrimziMonitorIntegrationProvider.PROBE_MAX_AGE_SECONDS,
+                                                                 StrimziMonitorIntegrationProvider.DEFAULT_PROBE_MAX_AGE_SECONDS);
+            writeParallelism = getIntegerConfigurationProperty(configurationProperties,
+                                                               StrimziMonitorIntegrationProvider.WRITE_PARALLELISM,
+                                                               StrimziMonitorIntegrationProvider.DEFAULT_WRITE_PARALLELISM);
+            int writesPerSecond = getIntegerConfigurationProperty(configurationProperties,
+                                                                  StrimziMonitorIntegrationProvider.WRITES_PER_SECOND,
+                                                                  StrimziMonitorIntegrationProvider.DEFAULT_WRITES_PER_SECOND);
+            if (writesPerSecond > 0) {
+                writeRateLimiter = new WriteRateLimiter(writesPerSecond,
+                                                        getIntegerConfigurationProperty(configurationProperties,
+                                                                                        StrimziMonitorIntegrationProvider.WRITE_BURST,
+                                                                                        StrimziMonitorIntegrationProvider.DEFAULT_WRITE_BURST),
+                                                        System::nanoTime);
+            }
+            maxWritesPerRefresh = getIntegerConfigurationProperty(configurationProperties,
+                                                                  StrimziMonitorIntegrationProvider.MAX_WRITES_PER_REFRESH,
+                                                                  StrimziMonitorIntegrationProvider.DEFAULT_MAX_WRITES_PER_REFRESH);
+            if (maxWritesPerRefresh > 0 && StrimziMonitorIntegrationProvider.SYNC_MODE_WATCH.equals(syncMode)) {
+                // the watcher only reconciles when it starts, so a backlog would wait for the next restart
+                throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.MAX_WRITES_PER_REFRESH);
+            }
+            metricsSummaryInterval = getIntegerConfigurationProperty(configurationProperties,
+                                                                     StrimziMonitorIntegrationProvider.METRICS_SUMMARY_INTERVAL,
+                                                                     StrimziMonitorIntegrationProvider.DEFAULT_METRICS_SUMMARY_INTERVAL);
+            retryPolicy = new RetryPolicy(getIntegerConfigurationProperty(configurationProperties,
+                                                                          StrimziMonitorIntegrationProvider.MAX_RETRIES,
+                                                                          StrimziMonitorIntegrationProvider.DEFAULT_MAX_RETRIES),
+                                          getIntegerConfigurationProperty(configurationProperties,
+                                                                          StrimziMonitorIntegrationProvider.RETRY_INITIAL_DELAY_MILLIS,
+                                                                          StrimziMonitorIntegrationProvider.DEFAULT_RETRY_INITIAL_DELAY_MILLIS),
+                                          getIntegerConfigurationProperty(configurationProperties,
+                                                                          StrimziMonitorIntegrationProvider.RETRY_MAX_DELAY_MILLIS,
+                                                                          StrimziMonitorIntegrationProvider.DEFAULT_RETRY_MAX_DELAY_MILLIS));
+            circuitBreakerFailureThreshold = getIntegerConfigurationProperty(configurationProperties,
+                                                                             StrimziMonitorIntegrationProvider.CIRCUIT_BREAKER_FAILURE_THRESHOLD,
+                                                                             StrimziMonitorIntegrationProvider.DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD);
+            circuitBreakerOpenMillis = getIntegerConfigurationProperty(configurationProperties,
+                                                                       StrimziMonitorIntegrationProvider.CIRCUIT_BREAKER_OPEN_SECONDS,
+                                                                       StrimziMonitorIntegrationProvider.DEFAULT_CIRCUIT_BREAKER_OPEN_SECONDS) * 1000L;
+            int minRefreshIntervalSeconds = getIntegerConfigurationProperty(configurationProperties,
+                                                                            StrimziMonitorIntegrationProvider.MIN_REFRESH_INTERVAL_SECONDS,
+                                                                            StrimziMonitorIntegrationProvider.DEFAULT_MIN_REFRESH_INTERVAL_SECONDS);
+            int maxRefreshIntervalSeconds = getIntegerConfigurationProperty(configurationProperties,
+                                                                            StrimziMonitorIntegrationProvider.MAX_REFRESH_INTERVAL_SECONDS,
+                                                                            StrimziMonitorIntegrationProvider.DEFAULT_MAX_REFRESH_INTERVAL_SECONDS);
+            if (maxRefreshIntervalSeconds > 0 && maxRefreshIntervalSeconds < minRefreshIntervalSeconds) {
+                throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.MAX_REFRESH_INTERVAL_SECONDS);
+            }
+            if (minRefreshIntervalSeconds > 0 || maxRefreshIntervalSeconds > 0) {
+                refreshSchedule = new RefreshSchedule(minRefreshIntervalSeconds * 1000L,
+                                                      maxRefreshIntervalSeconds * 1000L,
+                                                      () -> System.nanoTime() / 1000000);
+            }
+            fullListInterval = getIntegerConfigurationProperty(configurationProperties,
+                                                               StrimziMonitorIntegrationProvider.FULL_LIST_INTERVAL,
+                                                               StrimziMonitorIntegrationProvider.DEFAULT_FULL_LIST_INTERVAL);
+            dryRun = getBooleanConfigurationProperty(configurationProperties,
+                                                     StrimziMonitorIntegrationProvider.DRY_RUN,
+                                                     StrimziMonitorIntegrationProvider.DEFAULT_DRY_RUN);
+            if (dryRun && StrimziMonitorIntegrationProvider.SYNC_MODE_WATCH.equals(syncMode)) {
+                // the watcher applies each event as it arrives, so there is no reconcile to plan
+                throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.DRY_RUN);
+            }
+            Object planFileProperty = configurationProperties.get(StrimziMonitorIntegrationProvider.PLAN_FILE);
+            if (planFileProperty != null) {
+                try {
+                    planFile = Paths.get(planFileProperty.toString());
+                } catch (InvalidPathException error) {
+                    throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.PLAN_FILE);
+                }
+            }
+            maxWriteAttempts = getIntegerConfigurationProperty(configurationProperties,
+                                                               StrimziMonitorIntegrationProvider.MAX_WRITE_ATTEMPTS,
+                                                               StrimziMonitorIntegrationProvider.DEFAULT_MAX_WRITE_ATTEMPTS);
+            Object checkpointDirectoryProperty = configurationProperties.get(StrimziMonitorIntegrationProvider.CHECKPOINT_DIRECTORY);
+            if (checkpointDirectoryProperty != null) {
+                try {
+                    checkpointDirectory = Paths.get(checkpointDirectoryProperty.toString());
+                } catch (InvalidPathException error) {
+                    throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.CHECKPOINT_DIRECTORY);
+                }
+            }
+            Object snapshotFileProperty = configurationProperties.get(StrimziMonitorIntegrationProvider.SNAPSHOT_FILE);
+            if (snapshotFileProperty != null) {
+                try {
+                    snapshotFile = Paths.get(snapshotFileProperty.toString());
+                } catch (InvalidPathException error) {
+                    throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.SNAPSHOT_FILE);
+                }
+                loadSnapshot();
+            }
+            try {
+                restClient = new StrimziRestClient(connectionPoolSize,
+                                                   keepAliveSeconds,
+                                                   connectTimeoutMillis,
+                                                   readTimeoutMillis,
+                                                   tlsSessionCacheSize,
+                                                   tlsSessionTimeoutSeconds,
+                                                   compressResponses,
+                                                   httpVersionPolicy);
+            } catch (Exception error) {
+                throw new ConnectorCheckedException(StrimziIntegrationConnectorErrorCode.ERROR_ON_STRIMZI_REST_CALL.getMessageDefinition(connectorName,
+                                                                                                                                          targetURL, error.getClass().getName(), error.getMessage()),
+                                                    this.getClass().getName(),
+                                                    methodName,
+                                                    error);
+            }
             /*
              * Record the configuration
              */
@@ -103,7 +436,7 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
                 // do not record the token in the log which could be sensitive
                 auditLog.logMessage(methodName,
                                     StrimziIntegrationConnectorAuditCode.CONNECTOR_CONFIGURATION.getMessageDefinition(connectorName,
-                                                                                                                      targetURL,
+                                                                                                                      describeClusters(getClusters()),
                                                                                                                       templateQualifiedName
                                                                                                                      ));
             }
@@ -145,6 +478,251 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
         }
     }
 
+    /**
+     * Build the clusters from the clusters configuration property.  Each entry is a map with a name, a url and
+     * optionally a token, topicNamePrefix, topicNameIncludes, topicNameExcludes, labelSelector and fieldSelector;
+     * values that are not set are taken from
+     * the configuration of the connector.  Without the clusters property there is a single cluster for the
+     * endpoint of the connection.
+     *
+     * @param configurationProperties configuration properties from the connection
+     * @return clusters in configuration order
+     * @throws ConnectorCheckedException the clusters property is not valid
+     */
+    @SuppressWarnings("unchecked")
+    private List<StrimziCluster> getClusterConfiguration(Map<String, Object> configurationProperties) throws ConnectorCheckedException {
+        Object clustersProperty = configurationProperties.get(StrimziMonitorIntegrationProvider.CLUSTERS);
+        if (clustersProperty == null) {
+            checkTopicNamePatterns(topicNameIncludes, topicNameExcludes);
+            return Collections.singletonList(new StrimziCluster(null,
+                                                                targetURL,
+                                                                token,
+                                                                compileTopicNameFilter(topicNamePrefix, topicNameIncludes, topicNameExcludes),
+                                                                labelSelector,
+                                                                fieldSelector));
+        }
+        List<StrimziCluster> configuredClusters = new ArrayList<>();
+        Set<String> clusterNames = new HashSet<>();
+        if (clustersProperty instanceof List) {
+            for (Object clusterProperty : (List<Object>) clustersProperty) {
+                if (!(clusterProperty instanceof Map)) {
+                    throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.CLUSTERS);
+                }
+                Map<String, Object> clusterProperties = (Map<String, Object>) clusterProperty;
+                String name = getStringConfigurationProperty(clusterProperties, StrimziMonitorIntegrationProvider.CLUSTER_NAME);
+                String url = getStringConfigurationProperty(clusterProperties, StrimziMonitorIntegrationProvider.CLUSTER_URL);
+                if (name == null || url == null || !clusterNames.add(name)) {
+                    throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.CLUSTERS);
+                }
+                try {
+                    new URI(url);
+                } catch (URISyntaxException e) {
+                    throwException(StrimziIntegrationConnectorErrorCode.INVALID_URL_IN_CONFIGURATION, StrimziMonitorIntegrationProvider.CLUSTERS);
+                }
+                String clusterToken = getStringConfigurationProperty(clusterProperties, StrimziMonitorIntegrationProvider.TOKEN_PROPERTY);
+                String clusterTopicNamePrefix = getStringConfigurationProperty(clusterProperties, StrimziMonitorIntegrationProvider.TOPIC_NAME_PREFIX);
+                List<String> clusterTopicNameIncludes = getPatternListConfigurationProperty(clusterProperties,
+                                                                                            StrimziMonitorIntegrationProvider.TOPIC_NAME_INCLUDES);
+                List<String> clusterTopicNameExcludes = getPatternListConfigurationProperty(clusterProperties,
+                                                                                            StrimziMonitorIntegrationProvider.TOPIC_NAME_EXCLUDES);
+                String clusterLabelSelector = getStringConfigurationProperty(clusterProperties, StrimziMonitorIntegrationProvider.LABEL_SELECTOR);
+                String clusterFieldSelector = getStringConfigurationProperty(clusterProperties, StrimziMonitorIntegrationProvider.FIELD_SELECTOR);
+                checkTopicNamePatterns(clusterTopicNameIncludes == null ? topicNameIncludes : clusterTopicNameIncludes,
+                                       clusterTopicNameExcludes == null ? topicNameExcludes : clusterTopicNameExcludes);
+                configuredClusters.add(new StrimziCluster(name,
+                                                          url,
+                                                          clusterToken == null ? token : clusterToken,
+                                                          compileTopicNameFilter(clusterTopicNamePrefix == null ? topicNamePrefix : clusterTopicNamePrefix,
+                                                                                 clusterTopicNameIncludes == null ? topicNameIncludes : clusterTopicNameIncludes,
+                                                                                 clusterTopicNameExcludes == null ? topicNameExcludes : clusterTopicNameExcludes),
+                                                          clusterLabelSelector == null ? labelSelector : clusterLabelSelector,
+                                                          clusterFieldSelector == null ? fieldSelector : clusterFieldSelector));
+            }
+        }
+        if (configuredClusters.isEmpty()) {
+            throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.CLUSTERS);
+        }
+        return configuredClusters;
+    }
+
+    /**
+     * Return the clusters whose topics are catalogued.
+     *
+     * @return clusters in configuration order
+     */
+    private List<StrimziCluster> getClusters() {
+        if (clusters == null) {
+            clusters = Collections.singletonList(new StrimziCluster(null,
+                                                                    targetURL,
+                                                                    token,
+                                                                    compileTopicNameFilter(topicNamePrefix, topicNameIncludes, topicNameExcludes),
+                                                                    labelSelector,
+                                                                    fieldSelector));
+        }
+        return clusters;
+    }
+
+    /**
+     * Check that the regular expressions in the include and exclude patterns are valid.
+     *
+     * @param includePatterns include patterns, or null
+     * @param excludePatterns exclude patterns, or null
+     * @throws ConnectorCheckedException a regular expression is not valid
+     */
+    private void checkTopicNamePatterns(List<String> includePatterns, List<String> excludePatterns) throws ConnectorCheckedException {
+        if (includePatterns != null && !TopicNameFilter.isValid(includePatterns)) {
+            throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.TOPIC_NAME_INCLUDES);
+        }
+        if (excludePatterns != null && !TopicNameFilter.isValid(excludePatterns)) {
+            throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, StrimziMonitorIntegrationProvider.TOPIC_NAME_EXCLUDES);
+        }
+    }
+
+    /**
+     * Compile the filter that decides which topic names are catalogued.  A topic is catalogued if it starts with
+     * the topicNamePrefix, which is matched literally, or matches any of the include patterns.  The patterns
+     * must have been checked with checkTopicNamePatterns.
+     *
+     * @param prefix          topic name prefix, or null
+     * @param includePatterns include patterns, or null
+     * @param excludePatterns exclude patterns, or null
+     * @return compiled filter
+     */
+    private TopicNameFilter compileTopicNameFilter(String prefix,
+                                                   List<String> includePatterns,
+                                                   List<String> excludePatterns) {
+        return TopicNameFilter.compile(prefix == null || prefix.isEmpty() ? null : prefix,
+                                       includePatterns == null ? Collections.emptyList() : includePatterns,
+                                       excludePatterns == null ? Collections.emptyList() : excludePatterns);
+    }
+
+    /**
+     * Describe clusters for messages.
+     *
+     * @param describedClusters clusters to describe
+     * @return names and URLs of the clusters
+     */
+    private String describeClusters(List<StrimziCluster> describedClusters) {
+        return describedClusters.stream().map(StrimziCluster::toString).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Return the cluster that a catalogued topic belongs to.  A topic catalogued from a configured cluster belongs
+     * to that cluster; any other topic belongs to the first cluster that includes its name.
+     *
+     * @param topicName   name of the topic
+     * @param clusterName name of the cluster recorded with the catalogued topic, or null
+     * @return owning cluster, or null if the topic is not catalogued by this connector
+     */
+    private StrimziCluster getOwningCluster(String topicName, String clusterName) {
+        if (clusterName != null) {
+            for (StrimziCluster cluster : getClusters()) {
+                if (clusterName.equals(cluster.getName())) {
+                    return cluster;
+                }
+            }
+        }
+        for (StrimziCluster cluster : getClusters()) {
+            if (cluster.includesTopicName(topicName)) {
+                return cluster;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve an integer configuration property.  The value may have been supplied as a number or as a string.
+     *
+     * @param configurationProperties configuration properties from the connection
+     * @param propertyName            name of the property
+     * @param defaultValue            value to use if the property is not set
+     * @return property value
+     * @throws ConnectorCheckedException the property value is not an integer
+     */
+    private int getIntegerConfigurationProperty(Map<String, Object> configurationProperties,
+                                                String propertyName,
+                                                int defaultValue) throws ConnectorCheckedException {
+        Object value = configurationProperties.get(propertyName);
+        int result = defaultValue;
+        if (value instanceof Number) {
+            result = ((Number) value).intValue();
+        } else if (value != null) {
+            try {
+                result = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException nfe) {
+                throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, propertyName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve a string configuration property.  A blank value is treated as not set.
+     *
+     * @param configurationProperties configuration properties from the connection
+     * @param propertyName            name of the property
+     * @return trimmed property value or null
+     */
+    private String getStringConfigurationProperty(Map<String, Object> configurationProperties, String propertyName) {
+        Object value = configurationProperties.get(propertyName);
+        if (value == null || value.toString().isBlank()) {
+            return null;
+        }
+        return value.toString().trim();
+    }
+
+    /**
+     * Retrieve a list of patterns.  The value may have been supplied as a list or as a comma separated string.
+     * Blank patterns are ignored.
+     *
+     * @param configurationProperties configuration properties from the connection
+     * @param propertyName            name of the property
+     * @return trimmed patterns, or null if the property is not set
+     */
+    private List<String> getPatternListConfigurationProperty(Map<String, Object> configurationProperties, String propertyName) {
+        Object value = configurationProperties.get(propertyName);
+        if (value == null) {
+            return null;
+        }
+        List<String> patterns = new ArrayList<>();
+        Collection<?> values = value instanceof Collection ? (Collection<?>) value : Arrays.asList(value.toString().split(","));
+        for (Object pattern : values) {
+            if (pattern != null && !pattern.toString().isBlank()) {
+                patterns.add(pattern.toString().trim());
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Retrieve a boolean configuration property.  The value may have been supplied as a boolean or as a string.
+     *
+     * @param configurationProperties configuration properties from the connection
+     * @param propertyName            name of the property
+     * @param defaultValue            value to use if the property is not set
+     * @return property value
+     * @throws ConnectorCheckedException the property value is not true or false
+     */
+    private boolean getBooleanConfigurationProperty(Map<String, Object> configurationProperties,
+                                                    String propertyName,
+                                                    boolean defaultValue) throws ConnectorCheckedException {
+        Object value = configurationProperties.get(propertyName);
+        boolean result = defaultValue;
+        if (value instanceof Boolean) {
+            result = (Boolean) value;
+        } else if (value != null) {
+            String stringValue = value.toString().trim();
+            if ("true".equalsIgnoreCase(stringValue)) {
+                result = true;
+            } else if ("false".equalsIgnoreCase(stringValue)) {
+                result = false;
+            } else {
+                throwException(StrimziIntegrationConnectorErrorCode.INVALID_CONFIGURATION_PROPERTY, propertyName);
+            }
+        }
+        return result;
+    }
+
     /**
      * Throw an exception based on the supplied error code.
      *
@@ -183,6 +761,34 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
      * This method performs two sweeps.  It first retrieves the files in the directory and validates that are in the
      * catalog - adding or updating them if necessary.  The second sweep is to ensure that all of the assets catalogued
      * in this directory actually exist on the file system.
+     * <p>
+     * When maxRefreshIntervalSeconds or minRefreshIntervalSeconds is set, a refresh that arrives before the
+     * adaptive refresh interval has passed does nothing.
+     * <p>
+     * When skipUnchangedRefresh is set, a cluster whose topics a short watch shows to be unchanged since its last
+     * reconcile is not read.  The watch is not made once the last reconcile is more than probeMaxAgeSeconds old.
+     * <p>
+     * When fullListInterval is more than 1, only one read of a cluster in that many lists the full KafkaTopic
+     * objects.  The reads between list only object metadata, which is enough to remove deleted topics; added and
+     * changed topics are picked up by the next full list.  A watcher listing the topics again always lists in full.
+     * <p>
+     * When dryRun is set, the topics are read and compared with the catalog as usual but the changes are written
+     * to the planFile instead of being made.  Every refresh plans afresh because the catalog is not changed.
+     * <p>
+     * When shardCount is more than 1, the topics are divided between that many connector instances and this one
+     * only reconciles the topics of shard shardIndex.  Topics of the other shards are ignored both in the clusters
+     * and in the catalog, so they are never removed by this instance.
+     * <p>
+     * Changes to the catalog are paced to writesPerSecond, with bursts of up to writeBurst, when writesPerSecond
+     * is set.  When maxWritesPerRefresh is set, a refresh makes at most that many changes and leaves the rest to
+     * the following refreshes; the number left is published as the catalog.write.backlog gauge.
+     * <p>
+     * The changes worked out for a cluster are kept as a work list, written to checkpointDirectory when it is set.
+     * While a watch from the resource version of the work list reports no change to the KafkaTopics, a refresh (or
+     * a restart) makes the changes still to do without listing and comparing the topics again.  In watch mode the
+     * watcher always lists the topics when it starts, and works the changes still to do out again from the list.
+     * When maxWriteAttempts is set, a change that fails that many times is quarantined until the topic changes in
+     * the cluster.
      *
      * @throws ConnectorCheckedException there is a problem with the connector.  It is not able to refresh the metadata.
      */
@@ -193,173 +799,1463 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
             auditLog.logMessage(methodName,
                                 StrimziIntegrationConnectorAuditCode.REFRESH_CALLED.getMessageDefinition(connectorName));
         }
-        //clear out the maps
-        updateTopicNameToGuidMap = new HashMap<>();
-        deleteTopicNameToGuidMap  = new HashMap<>();
-        // clear the set
-        addTopicNamesSet = new HashSet<>();
+        long startTime = System.nanoTime();
         try {
-            /*
-             * Retrieve the list of active topics from Strimzi.
-             */
-            Map<String, TopicProperties> strimziTopicElements = getStrimziTopicElements();
+            if (StrimziMonitorIntegrationProvider.SYNC_MODE_WATCH.equals(syncMode)) {
+                /*
+                 * In watch mode the watcher keeps the catalog up to date; it performs the full list and reconcile
+                 * itself whenever it (re)starts.  Refresh only makes sure that it is running.
+                 */
+                startTopicWatcher();
+            } else if (refreshSchedule != null && !refreshSchedule.isDue()) {
+                incrementCounter(RefreshMetricsRecorder.REFRESHES_DEFERRED, 1);
+            } else {
+                reconcile(getClusters(), skipUnchangedRefresh, false);
+                if (refreshSchedule != null) {
+                    scheduleNextReconcile();
+                }
+            }
+        } finally {
+            recordTime(RefreshMetricsRecorder.REFRESH, startTime);
+            logRefreshSummary();
+        }
+    }
 
-            /*
-             * Retrieve the topics that are catalogued for this event broker.
-             * Remove the topics from the catalog that are no longer present in the event broker.
-             * Remove the names of the topics that are cataloged from the active topic names.
-             * At the end of this loop, the active topic names will just contain the names of the
-             * topics that are not catalogued.
-             */
-            int startFrom = 0;
-            cataloguedTopics = myContext.getMyTopics(startFrom, 0);
+    /**
+     * Adjust the interval until the next reconcile to the number of changes the last one made.
+     */
+    private void scheduleNextReconcile() {
+        final String methodName = "scheduleNextReconcile";
+        int mutations = refreshMutations.size();
+        if (refreshSchedule.recordReconcile(mutations) && auditLog != null) {
+            auditLog.logMessage(methodName,
+                                StrimziIntegrationConnectorAuditCode.REFRESH_INTERVAL_CHANGED.getMessageDefinition(connectorName,
+                                                                                                                   Long.toString(refreshSchedule.getIntervalMillis() / 1000),
+                                                                                                                   Integer.toString(mutations)));
+        }
+    }
 
-            // populate the delete map the update map and the add set
-            determineMutations(cataloguedTopics, strimziTopicElements);
+    /**
+     * Set a recorder that receives the refresh measurements as well as the built in summary.
+     *
+     * @param metricsRecorder recorder, for example one that forwards to a metrics registry
+     */
+    public void setRefreshMetricsRecorder(RefreshMetricsRecorder metricsRecorder) {
+        this.metricsRecorder = metricsRecorder;
+    }
 
-            Set<String> updateTopicNames = updateTopicNameToGuidMap.keySet();
-            /*
-             * Update topics to the catalog.
-             */
-            for (String topicName : updateTopicNames) {
-                TopicProperties topicProperties = strimziTopicElements.get(topicName);
-                // Assume not a merge update.
-                myContext.updateTopic(updateTopicNameToGuidMap.get(topicName), false, topicProperties);
-            }
-            Set<String> deleteTopicNames = deleteTopicNameToGuidMap.keySet();
-            /*
-             * Delete topics to the catalog.
-             */
-            for (String topicName : deleteTopicNames) {
-                myContext.removeTopic(deleteTopicNameToGuidMap.get(topicName), topicName);
+    /**
+     * Record the time since the start of a phase.
+     *
+     * @param name      name of the phase
+     * @param startTime value of System.nanoTime when the phase started
+     */
+    private void recordTime(String name, long startTime) {
+        long nanos = System.nanoTime() - startTime;
+        refreshMetrics.recordTime(name, nanos);
+        if (metricsRecorder != null) {
+            metricsRecorder.recordTime(name, nanos);
+        }
+    }
+
+    /**
+     * Add to a counter.
+     *
+     * @param name   name of the counter
+     * @param amount amount to add
+     */
+    private void incrementCounter(String name, long amount) {
+        refreshMetrics.increment(name, amount);
+        if (metricsRecorder != null) {
+            metricsRecorder.increment(name, amount);
+        }
+    }
+
+    /**
+     * Log the summary of the measurements every metricsSummaryInterval refreshes and start measuring afresh.
+     */
+    private synchronized void logRefreshSummary() {
+        final String methodName = "logRefreshSummary";
+        refreshesSinceSummary++;
+        if (metricsSummaryInterval > 0 && refreshesSinceSummary >= metricsSummaryInterval) {
+            if (auditLog != null) {
+                auditLog.logMessage(methodName,
+                                    StrimziIntegrationConnectorAuditCode.REFRESH_SUMMARY.getMessageDefinition(connectorName,
+                                                                                                              Integer.toString(refreshesSinceSummary),
+                                                                                                              refreshMetrics.summarizeTimings(),
+                                                                                                              refreshMetrics.summarizeCounters()));
             }
-            /*
-             * Add topics
-             */
-            for (String topicName : addTopicNamesSet) {
-                String topicGUID;
-                if (templateGUID == null) {
-
-                    TopicProperties topicProperties = strimziTopicElements.get(topicName);
-                    topicGUID = myContext.createTopic(topicProperties);
-
-                    if (topicGUID != null) {
-                        if (auditLog != null) {
-                            auditLog.logMessage(methodName,
-                                                StrimziIntegrationConnectorAuditCode.TOPIC_CREATED.getMessageDefinition(connectorName,
-                                                                                                                        topicName,
-                                                                                                                        topicGUID));
-                        }
+            refreshMetrics.reset();
+            refreshesSinceSummary = 0;
+        }
+    }
+
+    /**
+     * Compare the topics in Strimzi with the catalogued topics and make the catalog match.
+     * <p>
+     * The clusters are read in parallel.  Each cluster is compared with the catalog and its changes applied as soon
+     * as its list arrives, so a slow cluster does not hold up the others.  Only the catalogued topics that belong
+     * to a cluster are compared with its list, so a cluster that cannot be read leaves its topics as they are.
+     *
+     * @param reconcileClusters clusters to reconcile
+     * @param skipIfUnchanged   do nothing for a cluster whose topics are unchanged since its last reconcile
+     * @param relist            list the topics of each cluster rather than resume its work list, because the
+     *                          watcher needs the resource version of a list to watch from
+     * @throws ConnectorCheckedException there is a problem with the connector.  It is not able to refresh the metadata.
+     */
+    private void reconcile(List<StrimziCluster> reconcileClusters, boolean skipIfUnchanged, boolean relist) throws ConnectorCheckedException {
+        final String methodName = "reconcile";
+        synchronized (reconcileLock) {
+            refreshMutations.clear();
+            lastRefreshSkipped = false;
+            writeBudget = maxWritesPerRefresh;
+            writeBacklog = 0;
+            List<Future<ClusterRead>> clusterReads = new ArrayList<>();
+            Exception readError = null;
+            try {
+                if (dryRun) {
+                    openPlan();
+                }
+                ExecutorCompletionService<ClusterRead> completionService = null;
+                if (reconcileClusters.size() > 1 && clusterReadParallelism > 1) {
+                    completionService = new ExecutorCompletionService<>(getClusterReader());
+                    for (StrimziCluster cluster : reconcileClusters) {
+                        clusterReads.add(completionService.submit(() -> readCluster(cluster, skipIfUnchanged, relist)));
                     }
-                } else {
-                    TemplateProperties templateProperties = new TemplateProperties();
-
-                    templateProperties.setQualifiedName(topicName);
-                    topicGUID = myContext.createTopicFromTemplate(templateGUID, templateProperties);
-                    if (topicGUID != null) {
-                        if (auditLog != null) {
-                            auditLog.logMessage(methodName,
-                                                StrimziIntegrationConnectorAuditCode.TOPIC_CREATED_FROM_TEMPLATE.getMessageDefinition(connectorName,
-                                                                                                                                      topicName,
-                                                                                                                                      topicGUID,
-                                                                                                                                      templateQualifiedName,
-                                                                                                                                      templateGUID));
+                }
+                boolean allSkipped = true;
+                boolean allSynchronized = true;
+                boolean catalogRead = false;
+                for (int i = 0; i < reconcileClusters.size(); i++) {
+                    ClusterRead clusterRead = completionService == null ? readCluster(reconcileClusters.get(i), skipIfUnchanged, relist)
+                                                                        : completionService.take().get();
+                    if (clusterRead.error != null) {
+                        allSkipped = false;
+                        allSynchronized = false;
+                        if (readError == null) {
+                            readError = clusterRead.error;
+                        }
+                    } else if (clusterRead.checkpoint != null) {
+                        // the topics are unchanged since the work list was worked out, so carry on with it
+                        allSkipped = false;
+                        if (!resumeCheckpoint(clusterRead.cluster, clusterRead.checkpoint)) {
+                            allSynchronized = false;
+                        }
+                    } else if (clusterRead.listedTopics != null || clusterRead.strimziTopicNames != null) {
+                        allSkipped = false;
+                        if (!catalogRead) {
+                            /*
+                             * Retrieve the topics that are catalogued for the clusters once, when the first
+                             * cluster that has changed has been read.
+                             */
+                            long startTime = System.nanoTime();
+                            if (snapshotLoaded) {
+                                snapshotLoaded = false;
+                            } else {
+                                getCataloguedTopicIndex();
+                            }
+                            recordTime(RefreshMetricsRecorder.CATALOG_READ, startTime);
+                            catalogRead = true;
+                        }
+                        if (clusterRead.listedTopics == null) {
+                            // added and changed topics wait for the next full list
+                            removeDeletedTopics(clusterRead.cluster, clusterRead.strimziTopicNames);
+                            allSynchronized = false;
+                        } else if (reconcileCluster(clusterRead.cluster)) {
+                            clusterRead.cluster.recordFullListReconciled();
+                        } else {
+                            allSynchronized = false;
                         }
                     }
                 }
+                lastRefreshSkipped = allSkipped;
+                /*
+                 * A dry run leaves the catalog as it was, so the snapshot is left as it was too.  The index is
+                 * only complete if the catalog was read, which a reconcile that only resumed work lists skips.
+                 */
+                if (allSynchronized && catalogRead && planWriter == null) {
+                    saveSnapshot();
+                }
+            } catch (Exception error) {
+                for (Future<ClusterRead> clusterRead : clusterReads) {
+                    clusterRead.cancel(true);
+                }
+                if (error instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                readError = error instanceof ExecutionException && error.getCause() instanceof Exception ? (Exception) error.getCause() : error;
+                if (auditLog != null) {
+                    auditLog.logException(methodName,
+                                          StrimziIntegrationConnectorAuditCode.UNABLE_TO_RETRIEVE_TOPICS.getMessageDefinition(connectorName,
+                                                                                                                              describeClusters(reconcileClusters),
+                                                                                                                              readError.getClass().getName(),
+                                                                                                                              readError.getMessage()),
+                                          readError);
+
+
+                }
+            }
+            if (planWriter != null) {
+                closePlan();
+            }
+            recordWriteBacklog();
+            // the clusters that could be read have been reconciled; report the first failure
+            if (readError != null) {
+                throw new ConnectorCheckedException(StrimziIntegrationConnectorErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(connectorName,
+                                                                                                                                   readError.getClass().getName(),
+                                                                                                                                   readError.getMessage()),
+                                                    this.getClass().getName(),
+                                                    methodName,
+                                                    readError);
+            }
+        }
+    }
+
+    /**
+     * ClusterRead is the outcome of reading the topics of one cluster.
+     */
+    private static class ClusterRead {
+        private final StrimziCluster cluster;
+        // TopicDiff holding the listed topics; null when the topics are unchanged since the last reconcile, the cluster could not be read or only names were listed
+        private final TopicDiff listedTopics;
+        // names of the topics when only object metadata was listed, otherwise null
+        private final Set<String> strimziTopicNames;
+        // work list to resume when the topics are unchanged since it was worked out, otherwise null
+        private final ReconcileCheckpoint checkpoint;
+        private final Exception error;
+
+        ClusterRead(StrimziCluster cluster, TopicDiff listedTopics, Exception error) {
+            this(cluster, listedTopics, null, error);
+        }
+
+        ClusterRead(StrimziCluster cluster, TopicDiff listedTopics, Set<String> strimziTopicNames, Exception error) {
+            this.cluster = cluster;
+            this.listedTopics = listedTopics;
+            this.strimziTopicNames = strimziTopicNames;
+            this.checkpoint = null;
+            this.error = error;
+        }
+
+        ClusterRead(StrimziCluster cluster, ReconcileCheckpoint checkpoint) {
+            this.cluster = cluster;
+            this.listedTopics = null;
+            this.strimziTopicNames = null;
+            this.checkpoint = checkpoint;
+            this.error = null;
+        }
+    }
+
+    /**
+     * Read the topics of a cluster unless they are unchanged since its last reconcile or its circuit breaker is
+     * open.  A failure is logged and returned rather than thrown so that the other clusters are still reconciled.
+     *
+     * @param cluster         cluster to read
+     * @param skipIfUnchanged do not read the list if the topics are unchanged since the last reconcile
+     * @param relist          list the topics rather than resume the work list of the cluster
+     * @return topics in the cluster, or the failure
+     */
+    private ClusterRead readCluster(StrimziCluster cluster, boolean skipIfUnchanged, boolean relist) {
+        final String methodName = "readCluster";
+        CircuitBreaker circuitBreaker = getCircuitBreaker(cluster);
+        if (!circuitBreaker.allowRequest()) {
+            incrementCounter(RefreshMetricsRecorder.READS_SUSPENDED, 1);
+            if (auditLog != null) {
+                auditLog.logMessage(methodName,
+                                    StrimziIntegrationConnectorAuditCode.CLUSTER_READ_SUSPENDED.getMessageDefinition(connectorName,
+                                                                                                                     cluster.toString()));
+            }
+            return new ClusterRead(cluster, null, null);
+        }
+        try {
+            ClusterRead clusterRead = readClusterTopics(cluster, skipIfUnchanged, relist);
+            long failingMillis = circuitBreaker.getFailingMillis();
+            if (circuitBreaker.recordSuccess() && auditLog != null) {
+                auditLog.logMessage(methodName,
+                                    StrimziIntegrationConnectorAuditCode.CIRCUIT_BREAKER_CLOSED.getMessageDefinition(connectorName,
+                                                                                                                     cluster.toString(),
+                                                                                                                     Long.toString(failingMillis)));
             }
+            return clusterRead;
         } catch (Exception error) {
             if (auditLog != null) {
                 auditLog.logException(methodName,
                                       StrimziIntegrationConnectorAuditCode.UNABLE_TO_RETRIEVE_TOPICS.getMessageDefinition(connectorName,
-                                                                                                                          "localhost:9092",
+                                                                                                                          cluster.getTargetURL(),
                                                                                                                           error.getClass().getName(),
                                                                                                                           error.getMessage()),
                                       error);
-
-
             }
-
-            throw new ConnectorCheckedException(StrimziIntegrationConnectorErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(connectorName,
-                                                                                                                               error.getClass().getName(),
-                                                                                                                               error.getMessage()),
-                                                this.getClass().getName(),
-                                                methodName,
-                                                error);
+            // only failures of the API server count towards opening the breaker
+            if (RetryPolicy.isRetryable(error) && circuitBreaker.recordFailure() && auditLog != null) {
+                auditLog.logMessage(methodName,
+                                    StrimziIntegrationConnectorAuditCode.CIRCUIT_BREAKER_OPENED.getMessageDefinition(connectorName,
+                                                                                                                     cluster.toString(),
+                                                                                                                     Integer.toString(circuitBreaker.getConsecutiveFailures()),
+                                                                                                                     Long.toString(circuitBreakerOpenMillis / 1000)));
+            }
+            return new ClusterRead(cluster, null, error);
         }
     }
 
-    void determineMutations(List<TopicElement> cataloguedTopics, Map<String, TopicProperties> strimziTopicElements) {
-        // existing strimzi topics
-        Set<String> strimziTopicNames;
-        Map<String, TopicElement> cataloguedTopicMap = new HashMap<>();
-        if (cataloguedTopics != null) {
-            for (TopicElement topicElement : cataloguedTopics) {
-                String topicName = topicElement.getProperties().getQualifiedName();
-                // restrict to the topic names we care about.
-                if (includeTopicBasedOnName(topicName)) {
-                    cataloguedTopicMap.put(topicName, topicElement);
-                }
+    /**
+     * Read the topics of a cluster unless they are unchanged since its last reconcile.
+     *
+     * @param cluster         cluster to read
+     * @param skipIfUnchanged do not read the list if the topics are unchanged since the last reconcile
+     * @param relist          list the topics rather than resume the work list of the cluster
+     * @return topics in the cluster
+     * @throws Exception the cluster could not be read
+     */
+    private ClusterRead readClusterTopics(StrimziCluster cluster, boolean skipIfUnchanged, boolean relist) throws Exception {
+        final String methodName = "readClusterTopics";
+        /*
+         * One probe decides both whether a work list left part way through can be resumed and whether a
+         * synchronized cluster can be skipped.  Changes still to do come first, so they are not left undone by a
+         * skip after a restart from a snapshot.  A relist does neither: the changes still to do are worked out
+         * again from the list, carrying over their attempts.
+         */
+        ReconcileCheckpoint checkpoint = dryRun || relist ? null : getCheckpoint(cluster);
+        boolean resumable = checkpoint != null && checkpoint.getPendingCount() > 0;
+        String probeResourceVersion = resumable ? checkpoint.getResourceVersion()
+                                                : skipIfUnchanged && cluster.isSyncedWithin(probeMaxAgeSeconds) ? cluster.getSyncedResourceVersion() : null;
+        String unchangedResourceVersion = probeUnchangedTopics(cluster, probeResourceVersion);
+        if (resumable && unchangedResourceVersion != null) {
+            cluster.setSyncedResourceVersion(null);
+            return new ClusterRead(cluster, checkpoint);
+        }
+        if (unchangedResourceVersion != null) {
+            cluster.setSyncedResourceVersion(unchangedResourceVersion);
+            synchronized (this) {
+                skippedRefreshCount++;
             }
+            incrementCounter(RefreshMetricsRecorder.REFRESHES_SKIPPED, 1);
+            if (auditLog != null) {
+                auditLog.logMessage(methodName,
+                                    StrimziIntegrationConnectorAuditCode.REFRESH_SKIPPED.getMessageDefinition(connectorName,
+                                                                                                              cluster.getTargetURL(),
+                                                                                                              cluster.getSyncedResourceVersion(),
+                                                                                                              Long.toString(skippedRefreshCount)));
+            }
+            return new ClusterRead(cluster, null, null);
+        }
+        // forget the synchronized state until this reconcile completes
+        cluster.setSyncedResourceVersion(null);
 
+        if (!relist && !cluster.isFullListDue(fullListInterval)) {
             /*
-             * Loop through catalogued topics to decide whether to update or delete by populating the maps.
-             * The delete and update maps need the Egeria guid to be able to action the mutation.
+             * Only the names are needed to find the deleted topics.  The synchronized state is not restored until
+             * the next full list has added and updated the other topics.  A relist always lists in full, as a
+             * watcher needs the resource version of the full list to watch from.
              */
-            if (cataloguedTopics.size() > 0) {
-                // uncomment and implement more code if we need to consider paging
-                // startFrom = startFrom + cataloguedTopics.size();
-                if (strimziTopicElements == null) {
-                    strimziTopicNames = new HashSet<>();
-                } else {
-                    strimziTopicNames = strimziTopicElements.keySet();
-                }
-                for (TopicElement cataloguedTopic : cataloguedTopics) {
-                    String cataloguedTopicName = cataloguedTopic.getProperties().getQualifiedName();
-                    String cataloguedEgeriaTopicGUID = cataloguedTopic.getElementHeader().getGUID();
-
-                    if (!strimziTopicNames.contains(cataloguedTopicName)) {
-                        /*
-                         * The topic no longer exists so delete it from the catalog.
-                         */
-
-                        deleteTopicNameToGuidMap.put(cataloguedTopicName, cataloguedEgeriaTopicGUID);
-                    } else {
-                        // we have 2 topics of the same name in Strimzi and Egeria
-                        if (updateRequired(strimziTopicElements.get(cataloguedTopicName), cataloguedTopicMap.get(cataloguedTopicName))) {
-                            updateTopicNameToGuidMap.put(cataloguedTopicName, cataloguedEgeriaTopicGUID);
-                        }
-                    }
-                }
-            }
+            Set<String> strimziTopicNames = getStrimziTopicNames(cluster);
+            cluster.recordMetadataList();
+            incrementCounter(RefreshMetricsRecorder.METADATA_LISTS, 1);
+            return new ClusterRead(cluster, null, strimziTopicNames, null);
         }
+
         /*
-         * loop through Strimzi topics to determine what we need to add. The add is made without a guid, as the guid
-         * does not exist yet.
+         * Retrieve the list of active topics from Strimzi.
          */
-        if (strimziTopicElements != null && strimziTopicElements.size() > 0) {
-            strimziTopicNames = strimziTopicElements.keySet();
-            for (String strimziTopicName : strimziTopicNames) {
-                Set<String> cataloguedTopicNames = cataloguedTopicMap.keySet();
-                if (!cataloguedTopicNames.contains(strimziTopicName)) {
-                    addTopicNamesSet.add(strimziTopicName);
-                }
-            }
-        }
+        return new ClusterRead(cluster, listStrimziTopics(cluster), null);
     }
 
     /**
-     * Determine is an update is required.
-     * @param strimziTopicProperties strimzi topic information
-     * @param cataloguedTopicElement cataloged topic information
-     * @return true if update required
+     * Return the circuit breaker of a cluster, creating it on first use.
+     *
+     * @param cluster cluster
+     * @return circuit breaker
+     */
+    private CircuitBreaker getCircuitBreaker(StrimziCluster cluster) {
+        return circuitBreakers.computeIfAbsent(cluster, key -> new CircuitBreaker(circuitBreakerFailureThreshold,
+                                                                                  circuitBreakerOpenMillis,
+                                                                                  () -> System.nanoTime() / 1000000));
+    }
+
+    /**
+     * Make a request to the API server of a cluster, repeating it while it fails in a way that may succeed later.
+     *
+     * @param cluster cluster the request is made to
+     * @param request request to make
+     * @param <T> type of the result of the request
+     * @return result of the request
+     * @throws RestClientException the request failed and is not retried
+     */
+    private <T> T executeWithRetry(StrimziCluster cluster, Supplier<T> request) throws RestClientException {
+        final String methodName = "executeWithRetry";
+        for (int retry = 1; ; retry++) {
+            try {
+                return request.get();
+            } catch (RestClientException error) {
+                if (retry > retryPolicy.getMaxRetries() || !RetryPolicy.isRetryable(error)) {
+                    throw error;
+                }
+                long delayMillis = retryPolicy.getDelayMillis(retry, error);
+                if (delayMillis < 0) {
+                    // the server asked for a longer wait than a refresh should take
+                    throw error;
+                }
+                incrementCounter(RefreshMetricsRecorder.REQUEST_RETRIES, 1);
+                if (auditLog != null) {
+                    auditLog.logMessage(methodName,
+                                        StrimziIntegrationConnectorAuditCode.REQUEST_RETRY.getMessageDefinition(connectorName,
+                                                                                                                cluster.getTargetURL(),
+                                                                                                                Long.toString(delayMillis),
+                                                                                                                Integer.toString(retry),
+                                                                                                                Integer.toString(retryPolicy.getMaxRetries()),
+                                                                                                                error.getClass().getName(),
+                                                                                                                error.getMessage()));
+                }
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw error;
+                }
+            }
+        }
+    }
+
+    /**
+     * Make the catalogued topics of a cluster match the topics read from it.
+     *
+     * @param cluster cluster that was read; its TopicDiff holds the topics that were listed
+     * @return true if every change was applied
+     * @throws InterruptedException the reconcile was interrupted while waiting for the changes
+     */
+    private boolean reconcileCluster(StrimziCluster cluster) throws InterruptedException {
+        final String methodName = "reconcileCluster";
+        /*
+         * Remove the topics from the catalog that are no longer present in the event broker, update the
+         * catalogued topics whose fingerprint differs and add the topics that are not catalogued.
+         */
+        long startTime = System.nanoTime();
+        TopicDiff topicDiff = getTopicDiff(cluster);
+        clusterMutations.clear();
+        topicDiff.diff(cataloguedTopicIndex, getClusterFilter(cluster), clusterMutations);
+        recordTime(RefreshMetricsRecorder.DIFF, startTime);
+
+        /*
+         * Update, delete and add topics in the catalog.  A topic appears in the mutations at most once so
+         * the changes are independent of each other and can be sent in parallel.  The changes are recorded
+         * in the checkpoint first so that a reconcile that stops part way through can be resumed.  They are
+         * made in the order updates, deletes then creates.
+         */
+        TopicMutations items = planWriter == null ? new TopicMutations(clusterMutations.size()) : null;
+        for (String action : MUTATION_ORDER) {
+            for (int i = 0; i < clusterMutations.size(); i++) {
+                if (!action.equals(clusterMutations.getAction(i))) {
+                    continue;
+                }
+                String topicName = clusterMutations.getTopicName(i);
+                if (ReconcilePlanWriter.CREATE.equals(action)) {
+                    // a topic that is catalogued from another cluster stays with that cluster
+                    CataloguedTopic cataloguedTopic = cataloguedTopicIndex.get(topicName);
+                    if (cataloguedTopic != null) {
+                        logClusterTopicConflict(methodName, topicName, cluster, cataloguedTopic);
+                        continue;
+                    }
+                }
+                refreshMutations.add(clusterMutations, i);
+                if (items != null) {
+                    items.add(clusterMutations, i);
+                } else if (ReconcilePlanWriter.CREATE.equals(action)) {
+                    planWriter.planCreate(cluster, topicName, clusterMutations.getProperties(i));
+                } else if (ReconcilePlanWriter.UPDATE.equals(action)) {
+                    planWriter.planUpdate(cluster, topicName, cataloguedTopicIndex.get(topicName), clusterMutations.getProperties(i));
+                } else {
+                    planWriter.planDelete(cluster, topicName, clusterMutations.getGUID(i));
+                }
+            }
+        }
+        // the listed properties are not kept until the next list
+        topicDiff.clear();
+        clusterMutations.clear();
+        if (items == null) {
+            // the catalog still differs from the cluster, so the next refresh plans again
+            return false;
+        }
+        return applyCheckpoint(cluster, startCheckpoint(cluster, items), false);
+    }
+
+    /**
+     * Return the TopicDiff that holds the topics listed from a cluster, creating it on first use.
+     *
+     * @param cluster cluster
+     * @return TopicDiff of the cluster
+     */
+    private TopicDiff getTopicDiff(StrimziCluster cluster) {
+        return topicDiffs.computeIfAbsent(cluster, key -> new TopicDiff(this::updateRequired));
+    }
+
+    /**
+     * Make the changes of a work list that are still to do, after the refresh that worked it out failed or
+     * stopped part way through.  The catalog is not read, so a create that may already have been made is looked
+     * up first.
+     *
+     * @param cluster    cluster the work list is for
+     * @param checkpoint work list
+     * @return true if every change has now been made or quarantined
+     * @throws InterruptedException the reconcile was interrupted while waiting for the changes
+     */
+    private boolean resumeCheckpoint(StrimziCluster cluster, ReconcileCheckpoint checkpoint) throws InterruptedException {
+        final String methodName = "resumeCheckpoint";
+        if (auditLog != null) {
+            auditLog.logMessage(methodName,
+                                StrimziIntegrationConnectorAuditCode.CHECKPOINT_RESUMED.getMessageDefinition(connectorName,
+                                                                                                             Integer.toString(checkpoint.getPendingCount()),
+                                                                                                             cluster.toString(),
+                                                                                                             checkpoint.getResourceVersion()));
+        }
+        TopicMutations items = checkpoint.getItems();
+        for (int index = 0; index < items.size(); index++) {
+            if (checkpoint.isPending(index)) {
+                refreshMutations.add(items, index);
+            }
+        }
+        return applyCheckpoint(cluster, checkpoint, true);
+    }
+
+    /**
+     * Make the changes of a work list that are still to do, within the write budget of the refresh.
+     *
+     * @param cluster    cluster the work list is for
+     * @param checkpoint work list
+     * @param resumed    the work list was not worked out by this refresh, so its creates are looked up in the
+     *                   catalog before they are made
+     * @return true if every change has now been made or quarantined
+     * @throws InterruptedException the reconcile was interrupted while waiting for the changes
+     */
+    private boolean applyCheckpoint(StrimziCluster cluster, ReconcileCheckpoint checkpoint, boolean resumed) throws InterruptedException {
+        TopicMutations items = checkpoint.getItems();
+        int writeCount = limitToWriteBudget(checkpoint.getPendingCount());
+        int[] indices = getWriteIndices(writeCount);
+        // topics created from the template are updated with their properties from Strimzi by the next reconcile
+        boolean createdFromTemplate = false;
+        for (int index = 0, count = 0; count < writeCount; index++) {
+            if (checkpoint.isPending(index)) {
+                indices[count++] = index;
+                createdFromTemplate |= templateGUID != null && ReconcilePlanWriter.CREATE.equals(items.getAction(index));
+            }
+        }
+        if (writeCount > 0) {
+            invalidateSnapshot();
+        }
+        applyTopicWrites(cluster, new MutationWrites(items, indices, writeCount, checkpoint, resumed));
+
+        // a refresh with failed or deferred changes must not be skipped next time, so that they are made
+        if (checkpoint.getPendingCount() == 0 && !createdFromTemplate) {
+            cluster.setSyncedResourceVersion(checkpoint.getResourceVersion());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove the catalogued topics of a cluster that are no longer in its list of topic names.
+     *
+     * @param cluster           cluster that was read
+     * @param strimziTopicNames names of the topics in the cluster
+     * @throws InterruptedException the reconcile was interrupted while waiting for the changes
+     */
+    private void removeDeletedTopics(StrimziCluster cluster, Set<String> strimziTopicNames) throws InterruptedException {
+        long startTime = System.nanoTime();
+        clusterMutations.clear();
+        BiPredicate<String, String> clusterFilter = getClusterFilter(cluster);
+        cataloguedTopicIndex.forEach((entry, topicName, guid, fingerprint, cataloguedCluster) -> {
+            if ((clusterFilter == null || clusterFilter.test(topicName, cataloguedCluster)) && !strimziTopicNames.contains(topicName)) {
+                clusterMutations.add(ReconcilePlanWriter.DELETE, topicName, guid, null, null);
+            }
+        });
+        recordTime(RefreshMetricsRecorder.DIFF, startTime);
+        for (int i = 0; i < clusterMutations.size(); i++) {
+            refreshMutations.add(clusterMutations, i);
+        }
+
+        if (planWriter != null) {
+            for (int i = 0; i < clusterMutations.size(); i++) {
+                planWriter.planDelete(cluster, clusterMutations.getTopicName(i), clusterMutations.getGUID(i));
+            }
+        } else {
+            int writeCount = limitToWriteBudget(clusterMutations.size());
+            int[] indices = getWriteIndices(writeCount);
+            for (int i = 0; i < writeCount; i++) {
+                indices[i] = i;
+            }
+            if (writeCount > 0) {
+                invalidateSnapshot();
+            }
+            applyTopicWrites(cluster, new MutationWrites(clusterMutations, indices, writeCount, null, false));
+        }
+        clusterMutations.clear();
+    }
+
+    /**
+     * Return an array for the indices of the changes to write, reused from one call to the next.
+     *
+     * @param writeCount number of changes
+     * @return array of at least writeCount elements
+     */
+    private int[] getWriteIndices(int writeCount) {
+        if (writeIndices.length < writeCount) {
+            writeIndices = new int[Math.max(writeCount, writeIndices.length * 2)];
+        }
+        return writeIndices;
+    }
+
+    /**
+     * Return the work list of a cluster, reading it from the checkpoint directory the first time.  A checkpoint
+     * that cannot be read or was written with a different configuration is ignored.
+     *
+     * @param cluster cluster
+     * @return work list or null if there is none
+     */
+    private ReconcileCheckpoint getCheckpoint(StrimziCluster cluster) {
+        final String methodName = "getCheckpoint";
+        ReconcileCheckpoint checkpoint = checkpoints.get(cluster);
+        Path checkpointFile = getCheckpointFile(cluster);
+        if (checkpoint == null && checkpointFile != null && Files.exists(checkpointFile)) {
+            try {
+                checkpoint = ReconcileCheckpoint.read(checkpointFile, jsonFactory, maxWriteAttempts);
+                if (!getSnapshotScope().equals(checkpoint.getScope())) {
+                    checkpoint.close();
+                    throw new IOException("The checkpoint was written with a different endpoint or topic selection");
+                }
+                checkpoints.put(cluster, checkpoint);
+            } catch (IOException error) {
+                logCheckpointFailed(methodName, checkpointFile, error);
+                return null;
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Replace the work list of a cluster with the changes of this reconcile and write it to the checkpoint
+     * directory.  The changes are still made if the checkpoint cannot be written.
+     *
+     * @param cluster cluster the changes are for
+     * @param items   changes to make, kept by the work list
+     * @return new work list
+     */
+    private ReconcileCheckpoint startCheckpoint(StrimziCluster cluster, TopicMutations items) {
+        final String methodName = "startCheckpoint";
+        ReconcileCheckpoint previous = getCheckpoint(cluster);
+        if (previous == null) {
+            previous = new ReconcileCheckpoint(getCheckpointFile(cluster), jsonFactory, maxWriteAttempts, getSnapshotScope(), null);
+        }
+        ReconcileCheckpoint checkpoint = previous.next(cluster.getListResourceVersion(), items);
+        try {
+            previous.close();
+            checkpoint.write();
+        } catch (IOException error) {
+            logCheckpointFailed(methodName, getCheckpointFile(cluster), error);
+        }
+        checkpoints.put(cluster, checkpoint);
+        return checkpoint;
+    }
+
+    /**
+     * Return the checkpoint file of a cluster.
+     *
+     * @param cluster cluster
+     * @return file in the checkpoint directory, or null if there is no checkpoint directory
+     */
+    private Path getCheckpointFile(StrimziCluster cluster) {
+        if (checkpointDirectory == null) {
+            return null;
+        }
+        String clusterName = cluster.getName() == null ? "topics" : URLEncoder.encode(cluster.getName(), StandardCharsets.UTF_8);
+        return checkpointDirectory.resolve(clusterName + ".checkpoint");
+    }
+
+    private void recordCheckpointDone(ReconcileCheckpoint checkpoint, int index) {
+        final String methodName = "recordCheckpointDone";
+        try {
+            checkpoint.recordDone(index);
+        } catch (IOException error) {
+            // the change was made; if the connector stops now it is resumed, and a create is then found in the catalog
+            logCheckpointFailed(methodName, null, error);
+        }
+    }
+
+    private void recordCheckpointFailed(ReconcileCheckpoint checkpoint, StrimziCluster cluster, int index) {
+        final String methodName = "recordCheckpointFailed";
+        try {
+            if (checkpoint.recordFailed(index)) {
+                incrementCounter(RefreshMetricsRecorder.TOPICS_QUARANTINED, 1);
+                if (auditLog != null) {
+                    auditLog.logMessage(methodName,
+                                        StrimziIntegrationConnectorAuditCode.TOPIC_QUARANTINED.getMessageDefinition(connectorName,
+                                                                                                                    checkpoint.getItems().getTopicName(index),
+                                                                                                                    cluster.toString(),
+                                                                                                                    Integer.toString(maxWriteAttempts)));
+                }
+            }
+        } catch (IOException error) {
+            logCheckpointFailed(methodName, null, error);
+        }
+    }
+
+    private void logCheckpointFailed(String methodName, Path checkpointFile, IOException error) {
+        if (auditLog != null) {
+            auditLog.logException(methodName,
+                                  StrimziIntegrationConnectorAuditCode.CHECKPOINT_FAILED.getMessageDefinition(connectorName,
+                                                                                                              String.valueOf(checkpointFile == null ? checkpointDirectory : checkpointFile),
+                                                                                                              error.getClass().getName(),
+                                                                                                              error.getMessage()),
+                                  error);
+        }
+    }
+
+    /**
+     * Work out how many changes fit in what is left of the write budget of the refresh and count the rest as
+     * backlog.  The first changes are the ones that are made.
+     *
+     * @param changeCount number of changes to make
+     * @return number of changes to make this refresh
+     */
+    private int limitToWriteBudget(int changeCount) {
+        if (maxWritesPerRefresh <= 0) {
+            return changeCount;
+        }
+        int writeCount = Math.min(changeCount, Math.max(writeBudget, 0));
+        writeBudget = writeBudget - writeCount;
+        writeBacklog = writeBacklog + changeCount - writeCount;
+        return writeCount;
+    }
+
+    /**
+     * Publish the backlog left by the reconcile and log it if there is one.
+     */
+    private void recordWriteBacklog() {
+        final String methodName = "recordWriteBacklog";
+        refreshMetrics.recordValue(RefreshMetricsRecorder.WRITE_BACKLOG, writeBacklog);
+        if (metricsRecorder != null) {
+            metricsRecorder.recordValue(RefreshMetricsRecorder.WRITE_BACKLOG, writeBacklog);
+        }
+        if (writeBacklog > 0 && auditLog != null) {
+            auditLog.logMessage(methodName,
+                                StrimziIntegrationConnectorAuditCode.WRITE_BACKLOG_DEFERRED.getMessageDefinition(connectorName,
+                                                                                                                 Integer.toString(maxWritesPerRefresh - writeBudget),
+                                                                                                                 Integer.toString(writeBacklog)));
+        }
+    }
+
+    /**
+     * Wait for the write rate limiter, if there is one, before a change to the catalog.
+     *
+     * @throws InterruptedException the thread was interrupted while waiting
+     */
+    private void throttleWrite() throws InterruptedException {
+        if (writeRateLimiter != null) {
+            long waitNanos = writeRateLimiter.acquire();
+            if (waitNanos > 0) {
+                refreshMetrics.recordTime(RefreshMetricsRecorder.WRITE_THROTTLE, waitNanos);
+                if (metricsRecorder != null) {
+                    metricsRecorder.recordTime(RefreshMetricsRecorder.WRITE_THROTTLE, waitNanos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the test that selects the catalogued topics that belong to a cluster.
+     *
+     * @param cluster cluster
+     * @return test of a qualified name and catalogued cluster name, or null if every catalogued topic belongs to the cluster
+     */
+    private BiPredicate<String, String> getClusterFilter(StrimziCluster cluster) {
+        if (getClusters().size() == 1) {
+            return null;
+        }
+        return (topicName, cataloguedCluster) -> getOwningCluster(topicName, cataloguedCluster) == cluster;
+    }
+
+    private void logClusterTopicConflict(String methodName, String topicName, StrimziCluster cluster, CataloguedTopic cataloguedTopic) {
+        if (auditLog != null) {
+            StrimziCluster owningCluster = getOwningCluster(topicName, cataloguedTopic.getCluster());
+            auditLog.logMessage(methodName,
+                                StrimziIntegrationConnectorAuditCode.CLUSTER_TOPIC_CONFLICT.getMessageDefinition(connectorName,
+                                                                                                                 topicName,
+                                                                                                                 cluster.toString(),
+                                                                                                                 String.valueOf(owningCluster)));
+        }
+    }
+
+    /**
+     * Return the executor that reads the clusters in parallel, creating it on first use.
+     *
+     * @return cluster reader
+     */
+    private synchronized ExecutorService getClusterReader() {
+        if (clusterReader == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            clusterReader = Executors.newFixedThreadPool(Math.min(clusterReadParallelism, getClusters().size()), runnable -> {
+                Thread thread = new Thread(runnable, "StrimziClusterReader-" + connectorName + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return clusterReader;
+    }
+
+    /**
+     * Describe the configuration that decides which topics are catalogued.  A snapshot taken with a different
+     * scope does not describe the catalogued topics.
+     *
+     * @return scope of the snapshot
+     */
+    private String getSnapshotScope() {
+        StringBuilder scope = new StringBuilder(String.valueOf(descriptionAnnotationField));
+        if (attributeModel != TopicAttributeModel.NONE) {
+            scope.append('\n').append(attributeModel);
+        }
+        if (topicShard != TopicShard.ALL) {
+            scope.append('\n').append(topicShard);
+        }
+        for (StrimziCluster cluster : getClusters()) {
+            scope.append('\n').append(cluster.getScope());
+        }
+        return scope.toString();
+    }
+
+    /**
+     * Load the snapshot file if there is one.  A snapshot that cannot be used is logged and ignored so that the
+     * first refresh performs a full synchronization.
+     */
+    private void loadSnapshot() {
+        final String methodName = "loadSnapshot";
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        try {
+            TopicSnapshot snapshot = TopicSnapshot.read(snapshotFile, cataloguedTopicIndex);
+            if (!getSnapshotScope().equals(snapshot.getScope())) {
+                throw new IOException("The snapshot was taken with a different endpoint or topic selection");
+            }
+            List<String> resourceVersions = snapshot.getResourceVersions();
+            if (resourceVersions.size() != getClusters().size()) {
+                throw new IOException("The snapshot was taken with a different number of clusters");
+            }
+            snapshotLoaded = true;
+            for (int i = 0; i < resourceVersions.size(); i++) {
+                getClusters().get(i).setSyncedResourceVersion(resourceVersions.get(i));
+            }
+            snapshotCurrent = true;
+            if (auditLog != null) {
+                auditLog.logMessage(methodName,
+                                    StrimziIntegrationConnectorAuditCode.SNAPSHOT_LOADED.getMessageDefinition(connectorName,
+                                                                                                              Integer.toString(snapshot.getTopics().size()),
+                                                                                                              String.join(", ", resourceVersions),
+                                                                                                              snapshotFile.toString()));
+            }
+        } catch (IOException | RuntimeException error) {
+            // drop any topics read before the snapshot proved unusable
+            cataloguedTopicIndex.clear();
+            if (auditLog != null) {
+                auditLog.logException(methodName,
+                                      StrimziIntegrationConnectorAuditCode.SNAPSHOT_UNUSABLE.getMessageDefinition(connectorName,
+                                                                                                                  snapshotFile.toString(),
+                                                                                                                  error.getClass().getName(),
+                                                                                                                  error.getMessage()),
+                                      error);
+            }
+        }
+    }
+
+    /**
+     * Start the plan of a dry run, replacing the plan of the last refresh.  Without a plan file the changes are
+     * only counted.
+     *
+     * @throws IOException the plan file cannot be created
+     */
+    private void openPlan() throws IOException {
+        catalogCallNanos = 0;
+        catalogCalls = 0;
+        planWriter = new ReconcilePlanWriter(jsonFactory, planFile == null ? OutputStream.nullOutputStream() : Files.newOutputStream(planFile));
+    }
+
+    /**
+     * Finish the plan of a dry run with its summary and report what the refresh would have done.
+     */
+    private void closePlan() {
+        final String methodName = "closePlan";
+        double catalogCallMillis = catalogCalls == 0 ? -1 : catalogCallNanos / 1000000.0 / catalogCalls;
+        planWriter.writeSummary(writeParallelism, catalogCallMillis);
+        planWriter.close();
+        if (planWriter.getFailure() != null) {
+            logPlanWriteFailed(methodName, planWriter.getFailure());
+        }
+        if (auditLog != null) {
+            auditLog.logMessage(methodName,
+                                StrimziIntegrationConnectorAuditCode.DRY_RUN_PLANNED.getMessageDefinition(connectorName,
+                                                                                                          Integer.toString(planWriter.getCreates()),
+                                                                                                          Integer.toString(planWriter.getUpdates()),
+                                                                                                          Integer.toString(planWriter.getDeletes()),
+                                                                                                          catalogCalls == 0 ? "an unknown number of" :
+                                                                                                                  String.format("%.1f", planWriter.getEstimatedWriteSeconds(writeParallelism, catalogCallMillis)),
+                                                                                                          String.valueOf(planFile)));
+        }
+        planWriter = null;
+    }
+
+    private void logPlanWriteFailed(String methodName, IOException error) {
+        if (auditLog != null) {
+            auditLog.logException(methodName,
+                                  StrimziIntegrationConnectorAuditCode.PLAN_WRITE_FAILED.getMessageDefinition(connectorName,
+                                                                                                              String.valueOf(planFile),
+                                                                                                              error.getClass().getName(),
+                                                                                                              error.getMessage()),
+                                  error);
+        }
+    }
+
+    /**
+     * Write the catalogued topic index to the snapshot file, if one is configured.
+     */
+    private void saveSnapshot() {
+        final String methodName = "saveSnapshot";
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            List<String> resourceVersions = new ArrayList<>();
+            for (StrimziCluster cluster : getClusters()) {
+                resourceVersions.add(cluster.getSyncedResourceVersion());
+            }
+            new TopicSnapshot(getSnapshotScope(), resourceVersions, cataloguedTopicIndex).write(snapshotFile);
+            snapshotCurrent = true;
+        } catch (IOException error) {
+            logSnapshotWriteFailed(methodName, error);
+        }
+    }
+
+    /**
+     * Remove the snapshot file before the catalog is changed.  If the connector stops before a new snapshot is
+     * written, the next start performs a full synchronization rather than trusting a snapshot that no longer
+     * matches the catalog.
+     */
+    private void invalidateSnapshot() {
+        final String methodName = "invalidateSnapshot";
+        if (snapshotFile == null || !snapshotCurrent) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(snapshotFile);
+            snapshotCurrent = false;
+        } catch (IOException error) {
+            logSnapshotWriteFailed(methodName, error);
+        }
+    }
+
+    private void logSnapshotWriteFailed(String methodName, IOException error) {
+        if (auditLog != null) {
+            auditLog.logException(methodName,
+                                  StrimziIntegrationConnectorAuditCode.SNAPSHOT_WRITE_FAILED.getMessageDefinition(connectorName,
+                                                                                                                  snapshotFile.toString(),
+                                                                                                                  error.getClass().getName(),
+                                                                                                                  error.getMessage()),
+                                  error);
+        }
+    }
+
+    /**
+     * Send the catalog changes with bounded parallelism.  A change that fails is logged and counted; it does not
+     * stop the other changes.  If the changes come from a work list the failure is recorded in it, and a change
+     * that has failed too often is quarantined.
+     *
+     * @param cluster cluster the changes came from
+     * @param writes  changes to send
+     * @return counts of the changes that succeeded and failed
+     * @throws InterruptedException the refresh was interrupted while waiting for the changes
+     */
+    private TopicWriteExecutor.Results applyTopicWrites(StrimziCluster cluster, MutationWrites writes) throws InterruptedException {
+        final String methodName = "applyTopicWrites";
+        if (topicWriteExecutor == null) {
+            topicWriteExecutor = new TopicWriteExecutor(writeParallelism, "StrimziTopicWriter-" + connectorName + "-");
+        }
+        long startTime = System.nanoTime();
+        TopicWriteExecutor.Results results = topicWriteExecutor.execute(writes, (write, error) -> {
+            incrementCounter(RefreshMetricsRecorder.TOPIC_WRITES_FAILED, 1);
+            if (auditLog != null) {
+                auditLog.logException(methodName,
+                                      StrimziIntegrationConnectorAuditCode.UNEXPECTED_EXC_TOPIC_UPDATE.getMessageDefinition(error.getClass().getName(),
+                                                                                                                            connectorName,
+                                                                                                                            writes.getTopicName(write),
+                                                                                                                            error.getMessage()),
+                                      error);
+            }
+            if (writes.checkpoint != null) {
+                recordCheckpointFailed(writes.checkpoint, cluster, writes.getIndex(write));
+            }
+        });
+        recordTime(RefreshMetricsRecorder.CATALOG_WRITE, startTime);
+        if (auditLog != null && writes.size() > 0) {
+            auditLog.logMessage(methodName,
+                                StrimziIntegrationConnectorAuditCode.TOPIC_WRITES_APPLIED.getMessageDefinition(connectorName,
+                                                                                                               Integer.toString(writes.size()),
+                                                                                                               cluster.getTargetURL(),
+                                                                                                               Integer.toString(results.getSucceeded()),
+                                                                                                               Integer.toString(results.getFailed())));
+        }
+        lastWriteResults = results;
+        return results;
+    }
+
+    /**
+     * The catalog changes of a reconcile, sent by their index in the mutations so that no object is built for
+     * each change.  A change made from a work list is recorded in it as done.  The creates of a resumed work list
+     * may have been made before the connector stopped without being recorded, so each is looked up in the catalog
+     * first and becomes an update if the topic is already there.
+     */
+    private final class MutationWrites implements TopicWriteExecutor.TopicWrites {
+        private final TopicMutations mutations;
+        // indices in the mutations of the changes to send
+        private final int[] indices;
+        private final int size;
+        private final ReconcileCheckpoint checkpoint;
+        private final boolean lookUpCreates;
+
+        MutationWrites(TopicMutations mutations, int[] indices, int size, ReconcileCheckpoint checkpoint, boolean lookUpCreates) {
+            this.mutations = mutations;
+            this.indices = indices;
+            this.size = size;
+            this.checkpoint = checkpoint;
+            this.lookUpCreates = lookUpCreates;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void apply(int write) throws Exception {
+            int index = indices[write];
+            String action = mutations.getAction(index);
+            String topicName = mutations.getTopicName(index);
+            if (ReconcilePlanWriter.CREATE.equals(action)) {
+                String cataloguedGUID = lookUpCreates ? findCataloguedTopicGUID(topicName) : null;
+                if (cataloguedGUID == null) {
+                    createTopic(topicName, mutations.getProperties(index));
+                } else {
+                    updateTopic(cataloguedGUID, topicName, mutations.getProperties(index));
+                }
+            } else if (ReconcilePlanWriter.UPDATE.equals(action)) {
+                updateTopic(mutations.getGUID(index), topicName, mutations.getProperties(index));
+            } else {
+                removeTopic(mutations.getGUID(index), topicName);
+            }
+            if (checkpoint != null) {
+                recordCheckpointDone(checkpoint, index);
+            }
+        }
+
+        String getTopicName(int write) {
+            return mutations.getTopicName(indices[write]);
+        }
+
+        int getIndex(int write) {
+            return indices[write];
+        }
+    }
+
+    /**
+     * Look up a topic in the catalog by its qualified name.
+     *
+     * @param topicName qualified name of the topic
+     * @return unique identifier of the catalogued topic, or null if it is not catalogued
+     */
+    private String findCataloguedTopicGUID(String topicName) throws InvalidParameterException,
+                                                                    UserNotAuthorizedException,
+                                                                    PropertyServerException {
+        List<TopicElement> topicElements = myContext.getTopicsByName(topicName, 0, 0);
+        if (topicElements != null) {
+            for (TopicElement topicElement : topicElements) {
+                // the lookup also matches other names, so only an exact match of the qualified name counts
+                if (topicElement.getProperties() != null && topicName.equals(topicElement.getProperties().getQualifiedName())) {
+                    return topicElement.getElementHeader().getGUID();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Catalog a new topic, using the template if one is configured, and add it to the catalogued topic index.
+     * A topic created from the template has the template's properties rather than those from Strimzi, so it is
+     * indexed without a fingerprint and the next reconcile updates it.
+     *
+     * @param topicName       name of the topic
+     * @param topicProperties properties of the topic in Strimzi
+     * @return unique identifier of the new topic
+     * @throws InvalidParameterException  the properties are not valid
+     * @throws UserNotAuthorizedException the connector is not authorized to create the topic
+     * @throws PropertyServerException    there is a problem in the metadata server
+     * @throws InterruptedException       the thread was interrupted while waiting for the write rate limiter
+     */
+    private String createTopic(String topicName, TopicProperties topicProperties) throws InvalidParameterException,
+                                                                                         UserNotAuthorizedException,
+                                                                                         PropertyServerException,
+                                                                                         InterruptedException {
+        final String methodName = "createTopic";
+        String topicGUID;
+        throttleWrite();
+        if (templateGUID == null) {
+            topicGUID = myContext.createTopic(topicProperties);
+
+            if (topicGUID != null) {
+                if (auditLog != null) {
+                    auditLog.logMessage(methodName,
+                                        StrimziIntegrationConnectorAuditCode.TOPIC_CREATED.getMessageDefinition(connectorName,
+                                                                                                                topicName,
+                                                                                                                topicGUID));
+                }
+            }
+        } else {
+            TemplateProperties templateProperties = new TemplateProperties();
+
+            templateProperties.setQualifiedName(topicName);
+            topicGUID = myContext.createTopicFromTemplate(templateGUID, templateProperties);
+            if (topicGUID != null) {
+                if (auditLog != null) {
+                    auditLog.logMessage(methodName,
+                                        StrimziIntegrationConnectorAuditCode.TOPIC_CREATED_FROM_TEMPLATE.getMessageDefinition(connectorName,
+                                                                                                                              topicName,
+                                                                                                                              topicGUID,
+                                                                                                                              templateQualifiedName,
+                                                                                                                              templateGUID));
+                }
+            }
+        }
+        if (topicGUID != null) {
+            cataloguedTopicIndex.put(topicName, templateGUID == null ? new CataloguedTopic(topicGUID, topicProperties)
+                                                                     : new CataloguedTopic(topicGUID, null, null, null, CataloguedTopic.getCluster(topicProperties)));
+            incrementCounter(RefreshMetricsRecorder.TOPICS_CREATED, 1);
+        }
+        return topicGUID;
+    }
+
+    /**
+     * Update a catalogued topic and the catalogued topic index.
+     *
+     * @param topicGUID       unique identifier of the catalogued topic
+     * @param topicName       name of the topic
+     * @param topicProperties properties of the topic in Strimzi
+     * @throws InvalidParameterException  the properties are not valid
+     * @throws UserNotAuthorizedException the connector is not authorized to update the topic
+     * @throws PropertyServerException    there is a problem in the metadata server
+     * @throws InterruptedException       the thread was interrupted while waiting for the write rate limiter
+     */
+    private void updateTopic(String topicGUID, String topicName, TopicProperties topicProperties) throws InvalidParameterException,
+                                                                                                         UserNotAuthorizedException,
+                                                                                                         PropertyServerException,
+                                                                                                         InterruptedException {
+        final String methodName = "updateTopic";
+        throttleWrite();
+        // Assume not a merge update.
+        myContext.updateTopic(topicGUID, false, topicProperties);
+        cataloguedTopicIndex.put(topicName, new CataloguedTopic(topicGUID, topicProperties));
+        incrementCounter(RefreshMetricsRecorder.TOPICS_UPDATED, 1);
+        if (auditLog != null) {
+            auditLog.logMessage(methodName,
+                                StrimziIntegrationConnectorAuditCode.TOPIC_UPDATED.getMessageDefinition(connectorName,
+                                                                                                        topicName,
+                                                                                                        topicGUID));
+        }
+    }
+
+    /**
+     * Remove a catalogued topic and drop it from the catalogued topic index.
+     *
+     * @param topicGUID unique identifier of the catalogued topic
+     * @param topicName name of the topic
+     * @throws InvalidParameterException  the guid is not valid
+     * @throws UserNotAuthorizedException the connector is not authorized to remove the topic
+     * @throws PropertyServerException    there is a problem in the metadata server
+     * @throws InterruptedException       the thread was interrupted while waiting for the write rate limiter
+     */
+    private void removeTopic(String topicGUID, String topicName) throws InvalidParameterException,
+                                                                        UserNotAuthorizedException,
+                                                                        PropertyServerException,
+                                                                        InterruptedException {
+        final String methodName = "removeTopic";
+        throttleWrite();
+        myContext.removeTopic(topicGUID, topicName);
+        cataloguedTopicIndex.remove(topicName);
+        incrementCounter(RefreshMetricsRecorder.TOPICS_DELETED, 1);
+        if (auditLog != null) {
+            auditLog.logMessage(methodName,
+                                StrimziIntegrationConnectorAuditCode.TOPIC_DELETED.getMessageDefinition(connectorName,
+                                                                                                        topicName,
+                                                                                                        topicGUID));
+        }
+    }
+
+    /**
+     * Start a topic watcher for each cluster that does not have one running.
+     */
+    private synchronized void startTopicWatcher() {
+        for (StrimziCluster cluster : getClusters()) {
+            Thread topicWatcherThread = topicWatcherThreads.get(cluster);
+            if (topicWatcherThread == null || !topicWatcherThread.isAlive()) {
+                KafkaTopicWatcher topicWatcher = new KafkaTopicWatcher(restClient,
+                                                                       resourceVersion -> buildWatchURI(cluster, resourceVersion, watchTimeoutSeconds),
+                                                                       cluster.getToken(),
+                                                                       getTopicListParser(),
+                                                                       new TopicWatchHandler(cluster),
+                                                                       watchTimeoutSeconds,
+                                                                       WATCH_RETRY_DELAY_MILLIS);
+                String threadName = "StrimziTopicWatcher-" + connectorName + (cluster.getName() == null ? "" : "-" + cluster.getName());
+                topicWatcherThread = new Thread(topicWatcher, threadName);
+                topicWatcherThread.setDaemon(true);
+                topicWatchers.put(cluster, topicWatcher);
+                topicWatcherThreads.put(cluster, topicWatcherThread);
+                topicWatcherThread.start();
+            }
+        }
+    }
+
+    /**
+     * Stop the topic watchers that are running.
+     */
+    private synchronized void stopTopicWatcher() {
+        for (KafkaTopicWatcher topicWatcher : topicWatchers.values()) {
+            topicWatcher.stop();
+        }
+        for (Thread topicWatcherThread : topicWatcherThreads.values()) {
+            topicWatcherThread.interrupt();
+        }
+        topicWatchers.clear();
+        topicWatcherThreads.clear();
+    }
+
+    /**
+     * Build the URI of a watch request that starts from the supplied resource version.
+     *
+     * @param cluster         cluster to watch
+     * @param resourceVersion resource version of the last list or event processed
+     * @param timeoutSeconds  how long the server keeps the watch open
+     * @return watch request URI
+     */
+    private URI buildWatchURI(StrimziCluster cluster, String resourceVersion, int timeoutSeconds) {
+        Map<String, String> queryParameters = new LinkedHashMap<>();
+        queryParameters.put("watch", "true");
+        cluster.addSelectors(queryParameters);
+        queryParameters.put("resourceVersion", resourceVersion);
+        queryParameters.put("allowWatchBookmarks", "true");
+        queryParameters.put("timeoutSeconds", Integer.toString(timeoutSeconds));
+        return cluster.buildRequestURI(queryParameters);
+    }
+
+    /**
+     * TopicWatchHandler turns the events from the topic watcher of a cluster into changes to the catalog.
+     */
+    private class TopicWatchHandler implements KafkaTopicWatcher.Handler {
+        private final StrimziCluster cluster;
+
+        TopicWatchHandler(StrimziCluster cluster) {
+            this.cluster = cluster;
+        }
+
+        /**
+         * Reconcile the whole list of the cluster and return the resource version to watch from.
+         *
+         * @return list resource version
+         * @throws ConnectorCheckedException the reconcile failed
+         */
+        @Override
+        public String relist() throws ConnectorCheckedException {
+            final String methodName = "relist";
+            if (auditLog != null) {
+                auditLog.logMessage(methodName,
+                                    StrimziIntegrationConnectorAuditCode.WATCH_RESYNC.getMessageDefinition(connectorName, cluster.getTargetURL()));
+            }
+            // the watch needs a fresh resource version so the list is always retrieved, even to resume a work list
+            reconcile(Collections.singletonList(cluster), false, true);
+            return cluster.getListResourceVersion();
+        }
+
+        /**
+         * Create or update the catalogued topic for an ADDED or MODIFIED event.
+         *
+         * @param resource KafkaTopic from the event
+         * @throws Exception the catalog could not be updated
+         */
+        @Override
+        public void topicChanged(KafkaTopicResource resource) throws Exception {
+            final String methodName = "topicChanged";
+            TopicProperties topicProperties = convertResourceToTopicProperties(resource, cluster);
+            if (topicProperties != null) {
+                String topicName = topicProperties.getQualifiedName();
+                synchronized (reconcileLock) {
+                    CataloguedTopic cataloguedTopic = cataloguedTopicIndex.get(topicName);
+                    if (cataloguedTopic == null) {
+                        invalidateSnapshot();
+                        createTopic(topicName, topicProperties);
+                    } else if (getOwningCluster(topicName, cataloguedTopic.getCluster()) != cluster) {
+                        logClusterTopicConflict(methodName, topicName, cluster, cataloguedTopic);
+                    } else if (updateRequired(topicProperties, cataloguedTopic)) {
+                        invalidateSnapshot();
+                        updateTopic(cataloguedTopic.getGUID(), topicName, topicProperties);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Remove the catalogued topic for a DELETED event.
+         *
+         * @param resource KafkaTopic from the event
+         * @throws Exception the catalog could not be updated
+         */
+        @Override
+        public void topicDeleted(KafkaTopicResource resource) throws Exception {
+            synchronized (reconcileLock) {
+                CataloguedTopic cataloguedTopic = cataloguedTopicIndex.get(resource.getName());
+                if (cataloguedTopic != null && getOwningCluster(resource.getName(), cataloguedTopic.getCluster()) == cluster) {
+                    invalidateSnapshot();
+                    removeTopic(cataloguedTopic.getGUID(), resource.getName());
+                }
+            }
+        }
+
+        /**
+         * Log a failure of the watch.  The watcher retries after a delay.
+         *
+         * @param error cause of the failure
+         */
+        @Override
+        public void watchFailed(Exception error) {
+            final String methodName = "watchFailed";
+            if (auditLog != null) {
+                auditLog.logException(methodName,
+                                      StrimziIntegrationConnectorAuditCode.WATCH_FAILED.getMessageDefinition(connectorName,
+                                                                                                             cluster.getTargetURL(),
+                                                                                                             error.getClass().getName(),
+                                                                                                             error.getMessage()),
+                                      error);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the catalogued topics a page at a time and fold each page into the catalogued topic index.  Only
+     * the parts of each element needed to work out the mutations are kept.  The topics are read into the spare
+     * index, which then replaces the catalogued topic index and is kept for the next read.
+     *
+     * @return catalogued topics keyed by qualified name
+     * @throws InvalidParameterException  the paging parameters are not valid
+     * @throws UserNotAuthorizedException the connector is not authorized to retrieve the topics
+     * @throws PropertyServerException    there is a problem in the metadata server
+     */
+    CatalogIndex getCataloguedTopicIndex() throws InvalidParameterException,
+                                                  UserNotAuthorizedException,
+                                                  PropertyServerException {
+        CatalogIndex cataloguedTopicIndex = spareCatalogIndex;
+        cataloguedTopicIndex.clear();
+        int startFrom = 0;
+        boolean morePages = true;
+        while (morePages) {
+            long startTime = System.nanoTime();
+            List<TopicElement> cataloguedTopics = myContext.getMyTopics(startFrom, cataloguePageSize);
+            catalogCallNanos += System.nanoTime() - startTime;
+            catalogCalls++;
+            if (cataloguedTopics != null) {
+                addToCataloguedTopicIndex(cataloguedTopicIndex, cataloguedTopics);
+                startFrom = startFrom + cataloguedTopics.size();
+            }
+            // a page size of 0 returns everything in one call; a short page is the last one
+            morePages = cataloguePageSize > 0 && cataloguedTopics != null && cataloguedTopics.size() == cataloguePageSize;
+        }
+        spareCatalogIndex = this.cataloguedTopicIndex;
+        // the references to the old topics are dropped, but the space they took is kept
+        spareCatalogIndex.clear();
+        this.cataloguedTopicIndex = cataloguedTopicIndex;
+        return cataloguedTopicIndex;
+    }
+
+    /**
+     * Add the topics we care about to the catalogued topic index.
+     *
+     * @param cataloguedTopicIndex index to add to
+     * @param cataloguedTopics     page of catalogued topic elements
      */
-    boolean updateRequired(TopicProperties strimziTopicProperties, TopicElement cataloguedTopicElement) {
-        boolean doUpdate = !Objects.equals(strimziTopicProperties.getDescription(), cataloguedTopicElement.getProperties().getDescription());
+    private void addToCataloguedTopicIndex(CatalogIndex cataloguedTopicIndex, List<TopicElement> cataloguedTopics) {
+        final String methodName = "addToCataloguedTopicIndex";
+        for (TopicElement topicElement : cataloguedTopics) {
+            if (topicElement == null || topicElement.getProperties() == null || topicElement.getElementHeader() == null) {
+                if (auditLog != null) {
+                    auditLog.logMessage(methodName,
+                                        StrimziIntegrationConnectorAuditCode.BAD_TOPIC_ELEMENT.getMessageDefinition(connectorName,
+                                                                                                                    String.valueOf(topicElement)));
+                }
+            } else {
+                TopicProperties topicProperties = topicElement.getProperties();
+                String topicName = topicProperties.getQualifiedName();
+                // the getter copies the map, so it is read once for both the cluster and the fingerprint
+                Map<String, String> additionalProperties = topicProperties.getAdditionalProperties();
+                String cluster = additionalProperties == null ? null : additionalProperties.get(StrimziCluster.CLUSTER_PROPERTY);
+                // restrict to the topics of the clusters we catalog, and to our shard of them
+                if (getOwningCluster(topicName, cluster) != null && topicShard.owns(topicName)) {
+                    cataloguedTopicIndex.put(topicName,
+                                             topicElement.getElementHeader().getGUID(),
+                                             topicProperties.getDescription(),
+                                             topicProperties.getExtendedProperties(),
+                                             additionalProperties == null ? null : additionalProperties.get(TopicFingerprint.FINGERPRINT_PROPERTY),
+                                             cluster);
+                }
+            }
+        }
+    }
+
+    /**
+     * Work out the mutations from a list of catalogued topic elements.
+     *
+     * @param cataloguedTopics     catalogued topic elements
+     * @param strimziTopicElements topics in Strimzi keyed by name
+     */
+    void determineMutations(List<TopicElement> cataloguedTopics, Map<String, TopicProperties> strimziTopicElements) {
+        CatalogIndex cataloguedTopicIndex = new CatalogIndex();
+        if (cataloguedTopics != null) {
+            addToCataloguedTopicIndex(cataloguedTopicIndex, cataloguedTopics);
+        }
+        determineMutations(cataloguedTopicIndex, strimziTopicElements);
+    }
+
+    /**
+     * Add the topics to update, delete and add to the mutations by comparing the catalogued topics with the topics
+     * in Strimzi.
+     *
+     * @param cataloguedTopicIndex catalogued topics keyed by qualified name
+     * @param strimziTopicElements topics in Strimzi keyed by name
+     */
+    void determineMutations(CatalogIndex cataloguedTopicIndex, Map<String, TopicProperties> strimziTopicElements) {
+        TopicDiff topicDiff = new TopicDiff(this::updateRequired);
+        topicDiff.load(strimziTopicElements);
+        topicDiff.diff(cataloguedTopicIndex, null, refreshMutations);
+    }
+
+    /**
+     * Determine is an update is required.
+     * When the Strimzi topic carries a fingerprint this is a single comparison with the catalogued fingerprint;
+     * a catalogued topic without a fingerprint is updated so that it gets one.  The fingerprint covers the
+     * additional properties, so a change to a synced config key or status field also causes an update.
+     * @param strimziTopicProperties strimzi topic information
+     * @param cataloguedTopic cataloged topic information
+     * @return true if update required
+     */
+    boolean updateRequired(TopicProperties strimziTopicProperties, CataloguedTopic cataloguedTopic) {
+        String strimziFingerprint = TopicFingerprint.get(strimziTopicProperties);
+        if (strimziFingerprint != null) {
+            return !strimziFingerprint.equals(cataloguedTopic.getFingerprint());
+        }
+
+        boolean doUpdate = !Objects.equals(strimziTopicProperties.getDescription(), cataloguedTopic.getDescription());
 
 
         Map<String, Object> strimziExtendedProperties = strimziTopicProperties.getExtendedProperties();
-        Map<String, Object> cataloguedExtendedProperties = cataloguedTopicElement.getProperties().getExtendedProperties();
+        Map<String, Object> cataloguedExtendedProperties = cataloguedTopic.getExtendedProperties();
         if (strimziExtendedProperties != null && cataloguedExtendedProperties != null) {
             if (!Objects.equals(strimziExtendedProperties.get(REPLICAS),
                                 cataloguedExtendedProperties.get(REPLICAS))) {
@@ -387,159 +2283,398 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
         return doUpdate;
     }
 
-    public RestTemplate restTemplate() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
-        TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
-
-        SSLContext sslContext = SSLContexts.custom()
-                .loadTrustMaterial(null, acceptingTrustStrategy)
-                .build();
-
-        SSLConnectionSocketFactory sslConnectionSocketFactory = new SSLConnectionSocketFactory(sslContext);
-
-        HttpClientConnectionManager httpClientConnectionManager = PoolingHttpClientConnectionManagerBuilder
-                .create()
-                .setSSLSocketFactory(sslConnectionSocketFactory)
-                .build();
-
-        CloseableHttpClient httpClient = HttpClients.custom()
-                .setConnectionManager(httpClientConnectionManager)
-                .build();
-
-        HttpComponentsClientHttpRequestFactory requestFactory =
-                new HttpComponentsClientHttpRequestFactory(httpClient);
-
-        return new RestTemplate(requestFactory);
-    }
-
     /**
      * Issue rest call to Strimzi, the url is obtained from the config.
      * Return map with the key of topic name with the topic properties as the value
      * The topicProperties should contain the qualifiedName as the topic name , the topic description and
      * the additional properties.
      * Probably should pass the additional properties through as configuration parameters.
+     * The topics are requested a page at a time using the Kubernetes limit and continue parameters, and each
+     * page is parsed as it is read rather than being buffered as a string.
      *
      * @return map with the key of topic name with the topic properties as the value.
      */
-    private Map<String, TopicProperties> getStrimziTopicElements() throws ConnectorCheckedException {
-        String methodName = "getStrimziTopicElements";
-        // set authentication
-        HttpHeaders authHeaders = new HttpHeaders();
+    Map<String, TopicProperties> getStrimziTopicElements() throws ConnectorCheckedException {
+        StrimziCluster cluster = getClusters().get(0);
+        // a map of topicProperties keys by topic name for easy retrieval.
+        Map<String, TopicProperties> topicMap = listTopics(cluster,
+                                                           Collections.singletonList(MediaType.APPLICATION_JSON),
+                                                           (map, resource) -> addTopicProperties(map, resource, cluster),
+                                                           null);
+        logRetrievedTopics(cluster, topicMap.size());
+        return topicMap;
+    }
+
+    /**
+     * Retrieve the topics in a cluster a page at a time into the TopicDiff of the cluster, with the fingerprints
+     * worked out as they are parsed, ready for the reconcile.  The topics are not also collected into a map.
+     *
+     * @param cluster cluster to read
+     * @return TopicDiff of the cluster holding the topics
+     */
+    private TopicDiff listStrimziTopics(StrimziCluster cluster) throws ConnectorCheckedException {
+        TopicDiff listedTopics = getTopicDiff(cluster);
+        listedTopics.clear();
+        listTopics(cluster,
+                   Collections.singletonList(MediaType.APPLICATION_JSON),
+                   (map, resource) -> convertResourceToTopicProperties(resource, cluster, listedTopics) != null,
+                   listedTopics::clear);
+        logRetrievedTopics(cluster, listedTopics.size());
+        return listedTopics;
+    }
 
-        authHeaders.setContentType(MediaType.APPLICATION_JSON);
-        authHeaders.add("Authorization", "Bearer " + token);
+    /**
+     * Retrieve the names of the topics in a cluster.  Only the metadata of each KafkaTopic is requested, which
+     * leaves out the spec, status and most of the size of each item.
+     *
+     * @param cluster cluster to read
+     * @return names of the topics
+     */
+    private Set<String> getStrimziTopicNames(StrimziCluster cluster) throws ConnectorCheckedException {
+        Map<String, Boolean> topicNames = listTopics(cluster, METADATA_LIST_TYPES, (map, resource) -> {
+            if (resource.getName() != null) {
+                map.put(resource.getName(), Boolean.TRUE);
+            }
+            return true;
+        }, null);
+        logRetrievedTopics(cluster, topicNames.size());
+        return topicNames.keySet();
+    }
 
-        HttpEntity<?> request = new HttpEntity<>(authHeaders);
-        RestTemplate restTemplate;
+    /**
+     * List the KafkaTopics in a cluster a page at a time, passing each to a collector as it is parsed.  The items
+     * parsed and filtered are counted once the list is complete, so the pages of a list that had to be restarted
+     * are not counted twice.
+     *
+     * @param cluster     cluster to read
+     * @param acceptTypes media types to accept
+     * @param collector   adds a parsed KafkaTopic to the result, returning false if it was filtered out
+     * @param restart     removes what the collector kept outside the result when the list is restarted, or null
+     * @param <T> type of the values in the result
+     * @return result keyed by topic name
+     */
+    private <T> Map<String, T> listTopics(StrimziCluster cluster,
+                                          List<MediaType> acceptTypes,
+                                          BiPredicate<Map<String, T>, KafkaTopicResource> collector,
+                                          Runnable restart) throws ConnectorCheckedException {
+        String methodName = "getStrimziTopicElements";
 
+        Map<String, T> topicMap = new HashMap<>();
+        // items parsed and items filtered out since the list was started
+        long[] itemCounts = new long[2];
+        KafkaTopicListParser parser = getTopicListParser();
+        String continueToken = null;
+        boolean morePages = true;
+        int restarts = 0;
         try {
-            restTemplate = restTemplate();
-        } catch (Exception error) {
-            throw new ConnectorCheckedException(StrimziIntegrationConnectorErrorCode.ERROR_ON_STRIMZI_REST_CALL.getMessageDefinition(connectorName,
-                                                                                                                                      targetURL, error.getClass().getName(), error.getMessage()),
-                                                this.getClass().getName(),
-                                                methodName,
-                                                error);
+            while (morePages) {
+                Map<String, String> queryParameters = new LinkedHashMap<>();
+                // every page must be requested with the same selectors as the first
+                cluster.addSelectors(queryParameters);
+                if (listPageSize > 0) {
+                    queryParameters.put("limit", Integer.toString(listPageSize));
+                }
+                if (continueToken != null) {
+                    queryParameters.put("continue", continueToken);
+                }
+                try {
+                    final long requestStartTime = System.nanoTime();
+                    final URI requestURI = cluster.buildRequestURI(queryParameters);
+                    KafkaTopicListMetadata listMetadata = executeWithRetry(cluster, () -> restClient.getRestTemplate().execute(requestURI,
+                                                                                               HttpMethod.GET,
+                                                                                               request -> {
+                                                                                                   HttpHeaders headers = request.getHeaders();
+                                                                                                   headers.setAccept(acceptTypes);
+                                                                                                   // set authentication
+                                                                                                   headers.setBearerAuth(cluster.getToken());
+                                                                                               },
+                                                                                               response -> {
+                                                                                                   recordTime(RefreshMetricsRecorder.STRIMZI_REQUEST, requestStartTime);
+                                                                                                   long parseStartTime = System.nanoTime();
+                                                                                                   CountingInputStream body = new CountingInputStream(response.getBody());
+                                                                                                   try {
+                                                                                                       return parser.parse(body, resource -> {
+                                                                                                           itemCounts[0]++;
+                                                                                                           if (!collector.test(topicMap, resource)) {
+                                                                                                               itemCounts[1]++;
+                                                                                                           }
+                                                                                                       });
+                                                                                                   } finally {
+                                                                                                       incrementCounter(RefreshMetricsRecorder.BYTES_DOWNLOADED, body.getCount());
+                                                                                                       recordTime(RefreshMetricsRecorder.STRIMZI_PARSE, parseStartTime);
+                                                                                                   }
+                                                                                               }));
+                    if (continueToken == null && listMetadata != null) {
+                        // every page of a paged list comes from the snapshot taken for the first page
+                        cluster.setListResourceVersion(listMetadata.getResourceVersion());
+                    }
+                    morePages = listMetadata != null && listMetadata.hasMore();
+                    continueToken = morePages ? listMetadata.getContinueToken() : null;
+                } catch (HttpClientErrorException.Gone error) {
+                    /*
+                     * The continue token has expired.  The pages already read belong to a snapshot that can no
+                     * longer be continued, so start again from the first page.
+                     */
+                    if (continueToken == null || restarts >= MAX_LIST_RESTARTS) {
+                        throw error;
+                    }
+                    restarts++;
+                    if (auditLog != null) {
+                        auditLog.logMessage(methodName,
+                                            StrimziIntegrationConnectorAuditCode.LIST_CONTINUE_EXPIRED.getMessageDefinition(connectorName,
+                                                                                                                            cluster.getTargetURL(),
+                                                                                                                            Long.toString(itemCounts[0] - itemCounts[1]),
+                                                                                                                            Integer.toString(restarts)));
+                    }
+                    topicMap.clear();
+                    if (restart != null) {
+                        restart.run();
+                    }
+                    Arrays.fill(itemCounts, 0);
+                    continueToken = null;
+                }
+            }
+            incrementCounter(RefreshMetricsRecorder.ITEMS_PARSED, itemCounts[0]);
+            incrementCounter(RefreshMetricsRecorder.ITEMS_FILTERED, itemCounts[1]);
+        } catch (ResourceAccessException error) {
+            if (error.getCause() instanceof JsonProcessingException) {
+                throw new ConnectorCheckedException(StrimziIntegrationConnectorErrorCode.ERROR_PARSING_REST_RESPONSE.getMessageDefinition(connectorName,
+                                                                                                                                          error.getCause().getClass().getName(),
+                                                                                                                                          cluster.getTargetURL(),
+                                                                                                                                          error.getCause().getMessage()),
+                                                    this.getClass().getName(),
+                                                    methodName,
+                                                    error.getCause());
+            }
+            throw error;
         }
-        ResponseEntity<String> responseEntity = restTemplate.exchange(targetURL, HttpMethod.GET, request, String.class);
-
-        String jsonString = responseEntity.getBody();
-
-        //System.err.println("Rest call got this response " + jsonString);
+        return topicMap;
+    }
 
-        return convertStringToTopicMap(jsonString);
+    /**
+     * Determine whether the topics in Strimzi are unchanged since a resource version.  The resource version of
+     * the list cannot be compared instead, since it is the revision of the whole Kubernetes cluster and moves
+     * with every write to any resource.  Rather, a watch is started from the resource version with a short
+     * timeout: the API server first sends an event for each change made since then, so a watch that ends without
+     * an ADDED, MODIFIED or DELETED event shows that the topics are unchanged.  A resource version that is too old
+     * to watch from (410 Gone) counts as a change.
+     *
+     * @param cluster         cluster to probe
+     * @param resourceVersion resource version to watch from, or null
+     * @return resource version up to which the topics are unchanged, which is later than resourceVersion if the
+     *         server sent a bookmark, or null if they have changed or resourceVersion is null
+     * @throws RestClientException the watch request failed
+     */
+    private String probeUnchangedTopics(StrimziCluster cluster, String resourceVersion) throws RestClientException {
+        if (resourceVersion == null) {
+            return null;
+        }
+        KafkaTopicListParser parser = getTopicListParser();
+        URI probeURI = buildWatchURI(cluster, resourceVersion, probeTimeoutSeconds);
+        long startTime = System.nanoTime();
+        String unchangedResourceVersion = executeWithRetry(cluster, () -> {
+            try (ClientHttpResponse response = restClient.openStream(probeURI,
+                                                                     cluster.getToken(),
+                                                                     Timeout.ofSeconds(probeTimeoutSeconds + KafkaTopicWatcher.RESPONSE_TIMEOUT_MARGIN_SECONDS))) {
+                if (response.getStatusCode().value() == HttpStatus.GONE.value()) {
+                    return null;
+                }
+                if (response.getStatusCode().isError()) {
+                    // throws the same exceptions as a list request, so that the failure is retried in the same way
+                    new DefaultResponseErrorHandler().handleError(response);
+                }
+                CountingInputStream body = new CountingInputStream(response.getBody());
+                try (JsonParser jsonParser = parser.createWatchParser(body)) {
+                    return readProbeEvents(parser, jsonParser, resourceVersion);
+                } finally {
+                    incrementCounter(RefreshMetricsRecorder.BYTES_DOWNLOADED, body.getCount());
+                }
+            } catch (IOException error) {
+                throw new ResourceAccessException("I/O error on probe of " + cluster.getTargetURL() + ": " + error.getMessage(), error);
+            }
+        });
+        recordTime(RefreshMetricsRecorder.STRIMZI_PROBE, startTime);
+        return unchangedResourceVersion;
+    }
 
+    /**
+     * Read the events of a probe until the first change or the end of the watch.
+     *
+     * @param parser          parser for the events
+     * @param jsonParser      streaming parser over the response
+     * @param resourceVersion resource version the watch started from
+     * @return resource version up to which the topics are unchanged, or null if they have changed
+     * @throws IOException the response could not be read or the server reported an error
+     */
+    private String readProbeEvents(KafkaTopicListParser parser, JsonParser jsonParser, String resourceVersion) throws IOException {
+        String unchangedResourceVersion = resourceVersion;
+        KafkaTopicWatchEvent event;
+        while ((event = parser.parseWatchEvent(jsonParser)) != null) {
+            String type = event.getType();
+            if (KafkaTopicWatchEvent.BOOKMARK.equals(type)) {
+                if (event.getResource() != null && event.getResource().getResourceVersion() != null) {
+                    unchangedResourceVersion = event.getResource().getResourceVersion();
+                }
+            } else if (KafkaTopicWatchEvent.ERROR.equals(type)) {
+                if (event.getCode() != null && event.getCode() == HttpStatus.GONE.value()) {
+                    return null;
+                }
+                throw new IOException("Watch error event with code " + event.getCode());
+            } else if (KafkaTopicWatchEvent.ADDED.equals(type) || KafkaTopicWatchEvent.MODIFIED.equals(type) || KafkaTopicWatchEvent.DELETED.equals(type)) {
+                // closing the response ends the watch without waiting for its timeout
+                return null;
+            }
+        }
+        return unchangedResourceVersion;
     }
 
+    /**
+     * Convert a KafkaTopic list response held in a string into topic properties.
+     *
+     * @param jsonString list response
+     * @return map with the key of topic name with the topic properties as the value.
+     * @throws ConnectorCheckedException the response is not valid JSON
+     */
     public Map<String, TopicProperties> convertStringToTopicMap(String jsonString) throws ConnectorCheckedException {
         String methodName = "convertStringToTopicMap";
-        // a map of topicProperties keys by topic name for easy retrieval.
-        Map<String, TopicProperties> topicMap = new HashMap<>();
-        ObjectMapper mapper = new ObjectMapper();
-
-        JsonNode root;
+        Map<String, TopicProperties> topicMap;
         try {
-            root = mapper.readTree(jsonString);
-        } catch (JsonProcessingException error) {
+            topicMap = parseTopicList(jsonString);
+        } catch (IOException error) {
             throw new ConnectorCheckedException(StrimziIntegrationConnectorErrorCode.ERROR_PARSING_REST_RESPONSE.getMessageDefinition(connectorName,
-                                                                                                                                      targetURL, error.getClass().getName(), error.getMessage()),
+                                                                                                                                      error.getClass().getName(), targetURL, error.getMessage()),
                                                 this.getClass().getName(),
                                                 methodName,
                                                 error);
         }
-        JsonNode items = root.path("items");
-        if (items.isArray()) {
-            for (JsonNode node : items) {
-                String topicName = null;
-                String statusTopicName = null;
-                String description = null;
-                Integer partitions = null;
-                Integer replicas = null;
-                JsonNode statusNode = node.path("status");
-                if (statusNode.isObject()) {
-                    statusTopicName = statusNode.path("topicName").asText();
-                }
-                JsonNode metadataNode = node.path("metadata");
-                if (metadataNode.isObject()) {
-                    topicName = metadataNode.path("name").asText();
-
-                }
-                if (includeBasedOnStatusTopicName(statusTopicName) && includeTopicBasedOnName(topicName)) {
-                    JsonNode specNode = node.path("spec");
-                    if (specNode.isObject()) {
-                        try {
-                            partitions = Integer.parseInt(String.valueOf(specNode.path(PARTITIONS)));
-                        } catch (NumberFormatException nfe) {
-                            // catch the exception and leave the variable as null so it will not be included in the topic properties
-                        }
-                        try {
-                        replicas = Integer.parseInt(String.valueOf(specNode.path(REPLICAS)));
-                        } catch (NumberFormatException nfe) {
-                            // catch the exception and leave the variable as null so it will not be included in the topic properties
-                        }
-                    }
-
-                    if (metadataNode.isObject()) {
-                        JsonNode annotationsNode = metadataNode.path("annotations");
-                        // Get the topic description from the configured annotation field
-                        // If the property is not set or the field is empty a default description will be generated
-                        if( descriptionAnnotationField != null) {
-                            description = annotationsNode.path(descriptionAnnotationField.toString()).asText();
-                            if( description == null || description.equals( "" ) ) {
-                                description = getDefaultDescription(topicName);
-                            }
-                        } else {
-                            description = getDefaultDescription(topicName);
-                        }
-                    }
+        return topicMap;
+    }
 
-                    TopicProperties topicProperties = new TopicProperties();
-
-                    topicProperties.setDescription(description);
-                    topicProperties.setQualifiedName(topicName);
-                    topicProperties.setDisplayName(topicName);
-                    // specify the type name
-                    topicProperties.setTypeName("KafkaTopic");
-                    // the KafkaTopic has the attributes maximumPartitions and maximumReplicas
-                    // KafkaTopic extends the Topic type, these attributes need to be sent through as extendedProperties
-                    Map<String, Object> extendedProperties = new HashMap<>();
-                    if (partitions != null) {
-                        extendedProperties.put(PARTITIONS, partitions);
-                    }
-                    if (replicas != null) {
-                        extendedProperties.put(REPLICAS, replicas);
-                    }
-                    topicProperties.setExtendedProperties(extendedProperties);
-                    topicMap.put(topicName, topicProperties);
-                }
+    private Map<String, TopicProperties> parseTopicList(String jsonString) throws IOException {
+        // a map of topicProperties keys by topic name for easy retrieval.
+        Map<String, TopicProperties> topicMap = new HashMap<>();
+        StrimziCluster cluster = getClusters().get(0);
+        long[] itemCounts = new long[2];
+        getTopicListParser().parse(jsonString, resource -> {
+            itemCounts[0]++;
+            if (!addTopicProperties(topicMap, resource, cluster)) {
+                itemCounts[1]++;
             }
+        });
+        incrementCounter(RefreshMetricsRecorder.ITEMS_PARSED, itemCounts[0]);
+        incrementCounter(RefreshMetricsRecorder.ITEMS_FILTERED, itemCounts[1]);
+        logRetrievedTopics(cluster, topicMap.size());
+        return topicMap;
+    }
+
+    private KafkaTopicListParser getTopicListParser() {
+        KafkaTopicListParser parser = topicListParser;
+        if (parser == null) {
+            // the parser holds no state between lists, so threads that race here build equivalent parsers
+            parser = new KafkaTopicListParser(jsonFactory, descriptionAnnotationField == null ? null : descriptionAnnotationField.toString(), attributeModel);
+            topicListParser = parser;
         }
+        return parser;
+    }
+
+    /**
+     * Convert a KafkaTopic and add it to the topics of a list.
+     *
+     * @return false if the topic is not catalogued
+     */
+    private boolean addTopicProperties(Map<String, TopicProperties> topicMap, KafkaTopicResource resource, StrimziCluster cluster) {
+        TopicProperties topicProperties = convertResourceToTopicProperties(resource, cluster);
+        if (topicProperties == null) {
+            return false;
+        }
+        topicMap.put(topicProperties.getQualifiedName(), topicProperties);
+        return true;
+    }
+
+    private void logRetrievedTopics(StrimziCluster cluster, int topicCount) {
+        final String methodName = "convertStringToTopicMap";
         if (auditLog != null) {
             auditLog.logMessage(methodName,
                                 StrimziIntegrationConnectorAuditCode.RETRIEVED_TOPICS.getMessageDefinition(connectorName,
-                                                                                                           Integer.toString(topicMap.size()),
-                                                                                                           targetURL));
+                                                                                                           cluster.getTargetURL(),
+                                                                                                           Integer.toString(topicCount)));
         }
-        return topicMap;
+    }
+
+    /**
+     * Convert the fields extracted from a KafkaTopic resource into topic properties.
+     *
+     * @param resource parsed KafkaTopic
+     * @return topic properties or null if the topic is not to be catalogued
+     */
+    TopicProperties convertResourceToTopicProperties(KafkaTopicResource resource) {
+        return convertResourceToTopicProperties(resource, getClusters().get(0));
+    }
+
+    /**
+     * Convert the fields extracted from a KafkaTopic resource read from a cluster into topic properties.
+     *
+     * @param resource parsed KafkaTopic
+     * @param cluster  cluster the KafkaTopic was read from
+     * @return topic properties or null if the topic is not to be catalogued
+     */
+    private TopicProperties convertResourceToTopicProperties(KafkaTopicResource resource, StrimziCluster cluster) {
+        return convertResourceToTopicProperties(resource, cluster, null);
+    }
+
+    /**
+     * Convert the fields extracted from a KafkaTopic resource read from a cluster into topic properties, adding
+     * the topic with its fingerprint to a TopicDiff.  The getters of TopicProperties copy their maps, so the
+     * fingerprint is handed over here rather than read back out of the additional properties by the diff.
+     *
+     * @param resource     parsed KafkaTopic
+     * @param cluster      cluster the KafkaTopic was read from
+     * @param listedTopics receives the topic if it is catalogued, or null
+     * @return topic properties or null if the topic is not to be catalogued
+     */
+    private TopicProperties convertResourceToTopicProperties(KafkaTopicResource resource, StrimziCluster cluster, TopicDiff listedTopics) {
+        String topicName = resource.getName();
+        if (!includeBasedOnStatusTopicName(resource.getStatusTopicName()) || !cluster.includesTopicName(topicName) || !topicShard.owns(topicName)) {
+            return null;
+        }
+        // Get the topic description from the configured annotation field
+        // If the property is not set or the field is empty a default description will be generated
+        String description = resource.getDescriptionAnnotation();
+        if (descriptionAnnotationField == null || description == null || description.equals("")) {
+            description = getDefaultDescription(topicName);
+        }
+
+        TopicProperties topicProperties = new TopicProperties();
+
+        topicProperties.setDescription(description);
+        topicProperties.setQualifiedName(topicName);
+        topicProperties.setDisplayName(topicName);
+        // specify the type name
+        topicProperties.setTypeName("KafkaTopic");
+        // the KafkaTopic has the attributes maximumPartitions and maximumReplicas
+        // KafkaTopic extends the Topic type, these attributes need to be sent through as extendedProperties
+        Map<String, Object> extendedProperties = new HashMap<>();
+        if (resource.getPartitions() != null) {
+            extendedProperties.put(PARTITIONS, resource.getPartitions());
+        }
+        if (resource.getReplicas() != null) {
+            extendedProperties.put(REPLICAS, resource.getReplicas());
+        }
+        topicProperties.setExtendedProperties(extendedProperties);
+        // the config and status attributes share their names and common values with the other topics
+        String[] attributes = resource.getAttributes() == null ? new String[attributeModel.size()] : resource.getAttributes();
+        Map<String, String> additionalProperties = new TopicAttributeMap(attributeModel, attributes);
+        // set before the fingerprint so that a topic that moves to another cluster is updated
+        additionalProperties.put(StrimziCluster.CLUSTER_PROPERTY, cluster.getName());
+        topicProperties.setAdditionalProperties(additionalProperties);
+        // the fingerprint is stored as an additional property so that the next refresh only has to compare it
+        String fingerprint = TopicFingerprint.compute(topicProperties);
+        additionalProperties.put(TopicFingerprint.FINGERPRINT_PROPERTY, fingerprint);
+        topicProperties.setAdditionalProperties(additionalProperties);
+        if (listedTopics != null) {
+            listedTopics.add(topicName, topicProperties, fingerprint);
+        }
+        return topicProperties;
     }
 
     /**
@@ -560,26 +2695,6 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
         return include;
     }
 
-    /**
-     * Include this topic name only if it is not null, not empty, and starts with the
-     * requested prefix if there is one.
-     *
-     * @param topicName to check
-     * @return whether to include this topicName
-     */
-    private boolean includeTopicBasedOnName(String topicName) {
-        boolean include = false;
-        if (topicName != null) {
-            if (topicNamePrefix == null || topicName.length() == 0) {
-                include = true;
-            } else if (topicName.startsWith(topicNamePrefix)) {
-                include = true;
-            }
-        }
-        return include;
-    }
-
-
     /**
      * Shutdown Strimzi monitoring
      *
@@ -595,6 +2710,33 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
                                 StrimziIntegrationConnectorAuditCode.CONNECTOR_STOPPING.getMessageDefinition(connectorName));
         }
 
+        stopTopicWatcher();
+
+        if (topicWriteExecutor != null) {
+            topicWriteExecutor.close();
+            topicWriteExecutor = null;
+        }
+
+        if (clusterReader != null) {
+            clusterReader.shutdownNow();
+            clusterReader = null;
+        }
+
+        // the checkpoint files stay so that the next start resumes the changes still to do
+        for (ReconcileCheckpoint checkpoint : checkpoints.values()) {
+            try {
+                checkpoint.close();
+            } catch (IOException error) {
+                logCheckpointFailed(methodName, null, error);
+            }
+        }
+        checkpoints.clear();
+
+        if (restClient != null) {
+            restClient.close();
+            restClient = null;
+        }
+
         super.disconnect();
     }
 
@@ -603,18 +2745,119 @@ public class StrimziMonitorIntegrationConnector extends TopicIntegratorConnector
      */
     void setTargetURL(String targetURL) {
         this.targetURL = targetURL;
+        this.clusters = null;
+    }
+    void setClusters(List<StrimziCluster> clusters) {
+        this.clusters = clusters;
+    }
+    void setRestClient(StrimziRestClient restClient) {
+        this.restClient = restClient;
+    }
+    void setSelectors(String labelSelector, String fieldSelector) {
+        this.labelSelector = labelSelector;
+        this.fieldSelector = fieldSelector;
+        this.clusters = null;
+    }
+    void setListPageSize(int listPageSize) {
+        this.listPageSize = listPageSize;
+    }
+    void setCataloguePageSize(int cataloguePageSize) {
+        this.cataloguePageSize = cataloguePageSize;
+    }
+    void setSnapshotFile(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        loadSnapshot();
+    }
+    void setWriteParallelism(int writeParallelism) {
+        this.writeParallelism = writeParallelism;
+    }
+    void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+    void setRefreshSchedule(RefreshSchedule refreshSchedule) {
+        this.refreshSchedule = refreshSchedule;
+    }
+    void setAttributeModel(TopicAttributeModel attributeModel) {
+        this.attributeModel = attributeModel;
+        this.topicListParser = null;
+    }
+    void setFullListInterval(int fullListInterval) {
+        this.fullListInterval = fullListInterval;
+    }
+    void setWriteLimits(WriteRateLimiter writeRateLimiter, int maxWritesPerRefresh) {
+        this.writeRateLimiter = writeRateLimiter;
+        this.maxWritesPerRefresh = maxWritesPerRefresh;
+    }
+    void setTopicShard(TopicShard topicShard) {
+        this.topicShard = topicShard;
+    }
+    void setSkipUnchangedRefresh(boolean skipUnchangedRefresh, int probeMaxAgeSeconds) {
+        this.skipUnchangedRefresh = skipUnchangedRefresh;
+        this.probeMaxAgeSeconds = probeMaxAgeSeconds;
+    }
+
+    void setSyncMode(String syncMode) {
+        this.syncMode = syncMode;
+    }
+    void setCheckpoints(Path checkpointDirectory, int maxWriteAttempts) {
+        this.checkpointDirectory = checkpointDirectory;
+        this.maxWriteAttempts = maxWriteAttempts;
+    }
+    void setDryRun(boolean dryRun, Path planFile) {
+        this.dryRun = dryRun;
+        this.planFile = planFile;
+    }
+    void setCircuitBreaker(int failureThreshold, long openMillis) {
+        this.circuitBreakerFailureThreshold = failureThreshold;
+        this.circuitBreakerOpenMillis = openMillis;
+        this.circuitBreakers.clear();
+    }
+    TopicWriteExecutor.Results getLastWriteResults() {
+        return lastWriteResults;
+    }
+    InMemoryRefreshMetrics getRefreshMetrics() {
+        return refreshMetrics;
+    }
+    boolean isLastRefreshSkipped() {
+        return lastRefreshSkipped;
+    }
+    long getSkippedRefreshCount() {
+        return skippedRefreshCount;
+    }
+    void setTopicIntegratorContext(TopicIntegratorContext myContext) {
+        this.myContext = myContext;
+    }
+    void setTemplate(String templateGUID, String templateQualifiedName) {
+        this.templateGUID = templateGUID;
+        this.templateQualifiedName = templateQualifiedName;
     }
     Set<String> getaddTopicNamesSet() {
+        Set<String> addTopicNamesSet = new HashSet<>();
+        for (int i = 0; i < refreshMutations.size(); i++) {
+            if (ReconcilePlanWriter.CREATE.equals(refreshMutations.getAction(i))) {
+                addTopicNamesSet.add(refreshMutations.getTopicName(i));
+            }
+        }
         return addTopicNamesSet;
     }
     Map<String, String> getdeleteTopicNameToGuidMap() {
-        return deleteTopicNameToGuidMap;
+        return getMutationGUIDs(ReconcilePlanWriter.DELETE);
     }
     Map<String, String> getupdateTopicNameToGuidMap() {
-        return updateTopicNameToGuidMap;
+        return getMutationGUIDs(ReconcilePlanWriter.UPDATE);
+    }
+    private Map<String, String> getMutationGUIDs(String action) {
+        Map<String, String> topicNameToGuidMap = new HashMap<>();
+        for (int i = 0; i < refreshMutations.size(); i++) {
+            if (action.equals(refreshMutations.getAction(i))) {
+                topicNameToGuidMap.put(refreshMutations.getTopicName(i), refreshMutations.getGUID(i));
+            }
+        }
+        return topicNameToGuidMap;
     }
     void setDescriptionAnnotationField(Object descriptionAnnotationField) {
         this.descriptionAnnotationField = descriptionAnnotationField;
+        this.topicListParser = null;
     }
 
 
@@ -25,6 +25,103 @@ public class StrimziMonitorIntegrationProvider extends ConnectorProviderBase
     static final String TOKEN_PROPERTY = "token";
     static final String TOPIC_NAME_PREFIX = "topicNamePrefix";
     static final String DESCRIPTION_ANNOTATION_FIELD = "descriptionAnnotationField";
+    static final String CONNECTION_POOL_SIZE = "connectionPoolSize";
+    static final String KEEP_ALIVE_SECONDS = "keepAliveSeconds";
+    static final String CONNECT_TIMEOUT_MILLIS = "connectTimeoutMillis";
+    static final String READ_TIMEOUT_MILLIS = "readTimeoutMillis";
+    static final String TLS_SESSION_CACHE_SIZE = "tlsSessionCacheSize";
+    static final String TLS_SESSION_TIMEOUT_SECONDS = "tlsSessionTimeoutSeconds";
+    static final String LIST_PAGE_SIZE = "listPageSize";
+    static final String CATALOGUE_PAGE_SIZE = "cataloguePageSize";
+    static final String SYNC_MODE = "syncMode";
+    static final String WATCH_TIMEOUT_SECONDS = "watchTimeoutSeconds";
+    /*
+     * The API server has no conditional GET for a KafkaTopic list: the resource version of a list is the revision
+     * of the whole cluster, so it moves with every write to any resource.  skipUnchangedRefresh stands in for it
+     * with a watch from the synchronized resource version that ends after probeTimeoutSeconds; a watch that sends
+     * no change shows that the list need not be read.  The probe holds each refresh for up to its timeout, so it
+     * is off by default.  A version synchronized more than probeMaxAgeSeconds ago is listed without a probe, since
+     * the API server has normally compacted it away by then and would answer 410 Gone.
+     */
+    static final String SKIP_UNCHANGED_REFRESH = "skipUnchangedRefresh";
+    static final String PROBE_TIMEOUT_SECONDS = "probeTimeoutSeconds";
+    static final String PROBE_MAX_AGE_SECONDS = "probeMaxAgeSeconds";
+    static final String WRITE_PARALLELISM = "writeParallelism";
+    static final String SNAPSHOT_FILE = "snapshotFile";
+    static final String METRICS_SUMMARY_INTERVAL = "metricsSummaryInterval";
+    static final String LABEL_SELECTOR = "labelSelector";
+    static final String FIELD_SELECTOR = "fieldSelector";
+    static final String TOPIC_NAME_INCLUDES = "topicNameIncludes";
+    static final String TOPIC_NAME_EXCLUDES = "topicNameExcludes";
+    static final String CLUSTERS = "clusters";
+    static final String CLUSTER_READ_PARALLELISM = "clusterReadParallelism";
+    static final String MAX_RETRIES = "maxRetries";
+    static final String RETRY_INITIAL_DELAY_MILLIS = "retryInitialDelayMillis";
+    static final String RETRY_MAX_DELAY_MILLIS = "retryMaxDelayMillis";
+    static final String CIRCUIT_BREAKER_FAILURE_THRESHOLD = "circuitBreakerFailureThreshold";
+    static final String CIRCUIT_BREAKER_OPEN_SECONDS = "circuitBreakerOpenSeconds";
+    static final String MIN_REFRESH_INTERVAL_SECONDS = "minRefreshIntervalSeconds";
+    static final String MAX_REFRESH_INTERVAL_SECONDS = "maxRefreshIntervalSeconds";
+    static final String COMPRESS_RESPONSES = "compressResponses";
+    static final String HTTP_VERSION = "httpVersion";
+    static final String FULL_LIST_INTERVAL = "fullListInterval";
+    static final String SYNCED_CONFIG_KEYS = "syncedConfigKeys";
+    static final String SYNCED_STATUS_FIELDS = "syncedStatusFields";
+    static final String DRY_RUN = "dryRun";
+    static final String PLAN_FILE = "planFile";
+    static final String SHARD_INDEX = "shardIndex";
+    static final String SHARD_COUNT = "shardCount";
+    static final String WRITES_PER_SECOND = "writesPerSecond";
+    static final String WRITE_BURST = "writeBurst";
+    static final String MAX_WRITES_PER_REFRESH = "maxWritesPerRefresh";
+    static final String CHECKPOINT_DIRECTORY = "checkpointDirectory";
+    static final String MAX_WRITE_ATTEMPTS = "maxWriteAttempts";
+
+    /*
+     * Keys of each entry in the clusters property.  An entry that does not set the token, topic name patterns or
+     * selectors uses the value configured for the connector.
+     */
+    static final String CLUSTER_NAME = "name";
+    static final String CLUSTER_URL = "url";
+
+    static final String SYNC_MODE_POLL = "poll";
+    static final String SYNC_MODE_WATCH = "watch";
+
+    static final String HTTP_VERSION_1_1 = "HTTP/1.1";
+    static final String HTTP_VERSION_2 = "HTTP/2";
+
+    static final int DEFAULT_CONNECTION_POOL_SIZE = 5;
+    static final int DEFAULT_KEEP_ALIVE_SECONDS = 300;
+    static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10000;
+    static final int DEFAULT_READ_TIMEOUT_MILLIS = 60000;
+    static final int DEFAULT_TLS_SESSION_CACHE_SIZE = 100;
+    static final int DEFAULT_TLS_SESSION_TIMEOUT_SECONDS = 86400;
+    static final int DEFAULT_LIST_PAGE_SIZE = 500;
+    static final int DEFAULT_CATALOGUE_PAGE_SIZE = 100;
+    static final int DEFAULT_WATCH_TIMEOUT_SECONDS = 300;
+    static final boolean DEFAULT_SKIP_UNCHANGED_REFRESH = false;
+    static final int DEFAULT_PROBE_TIMEOUT_SECONDS = 1;
+    // the default interval at which the API server compacts the history of etcd
+    static final int DEFAULT_PROBE_MAX_AGE_SECONDS = 300;
+    static final int DEFAULT_WRITE_PARALLELISM = 4;
+    static final int DEFAULT_METRICS_SUMMARY_INTERVAL = 10;
+    static final int DEFAULT_CLUSTER_READ_PARALLELISM = 4;
+    static final int DEFAULT_MAX_RETRIES = 3;
+    static final int DEFAULT_RETRY_INITIAL_DELAY_MILLIS = 500;
+    static final int DEFAULT_RETRY_MAX_DELAY_MILLIS = 30000;
+    static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 3;
+    static final int DEFAULT_CIRCUIT_BREAKER_OPEN_SECONDS = 120;
+    static final int DEFAULT_MIN_REFRESH_INTERVAL_SECONDS = 0;
+    static final int DEFAULT_MAX_REFRESH_INTERVAL_SECONDS = 0;
+    static final boolean DEFAULT_COMPRESS_RESPONSES = true;
+    static final int DEFAULT_FULL_LIST_INTERVAL = 1;
+    static final boolean DEFAULT_DRY_RUN = false;
+    static final int DEFAULT_SHARD_INDEX = 0;
+    static final int DEFAULT_SHARD_COUNT = 1;
+    static final int DEFAULT_WRITES_PER_SECOND = 0;
+    static final int DEFAULT_WRITE_BURST = 10;
+    static final int DEFAULT_MAX_WRITES_PER_REFRESH = 0;
+    static final int DEFAULT_MAX_WRITE_ATTEMPTS = 0;
 
     /**
      * Constructor used to initialize the ConnectorProvider with the Java class name of the specific
@@ -49,6 +146,49 @@ public class StrimziMonitorIntegrationProvider extends ConnectorProviderBase
         recognizedConfigurationProperties.add(TOKEN_PROPERTY);
         recognizedConfigurationProperties.add(TOPIC_NAME_PREFIX);
         recognizedConfigurationProperties.add(DESCRIPTION_ANNOTATION_FIELD);
+        recognizedConfigurationProperties.add(CONNECTION_POOL_SIZE);
+        recognizedConfigurationProperties.add(KEEP_ALIVE_SECONDS);
+        recognizedConfigurationProperties.add(CONNECT_TIMEOUT_MILLIS);
+        recognizedConfigurationProperties.add(READ_TIMEOUT_MILLIS);
+        recognizedConfigurationProperties.add(TLS_SESSION_CACHE_SIZE);
+        recognizedConfigurationProperties.add(TLS_SESSION_TIMEOUT_SECONDS);
+        recognizedConfigurationProperties.add(LIST_PAGE_SIZE);
+        recognizedConfigurationProperties.add(CATALOGUE_PAGE_SIZE);
+        recognizedConfigurationProperties.add(SYNC_MODE);
+        recognizedConfigurationProperties.add(WATCH_TIMEOUT_SECONDS);
+        recognizedConfigurationProperties.add(SKIP_UNCHANGED_REFRESH);
+        recognizedConfigurationProperties.add(PROBE_TIMEOUT_SECONDS);
+        recognizedConfigurationProperties.add(PROBE_MAX_AGE_SECONDS);
+        recognizedConfigurationProperties.add(WRITE_PARALLELISM);
+        recognizedConfigurationProperties.add(SNAPSHOT_FILE);
+        recognizedConfigurationProperties.add(METRICS_SUMMARY_INTERVAL);
+        recognizedConfigurationProperties.add(LABEL_SELECTOR);
+        recognizedConfigurationProperties.add(FIELD_SELECTOR);
+        recognizedConfigurationProperties.add(TOPIC_NAME_INCLUDES);
+        recognizedConfigurationProperties.add(TOPIC_NAME_EXCLUDES);
+        recognizedConfigurationProperties.add(CLUSTERS);
+        recognizedConfigurationProperties.add(CLUSTER_READ_PARALLELISM);
+        recognizedConfigurationProperties.add(MAX_RETRIES);
+        recognizedConfigurationProperties.add(RETRY_INITIAL_DELAY_MILLIS);
+        recognizedConfigurationProperties.add(RETRY_MAX_DELAY_MILLIS);
+        recognizedConfigurationProperties.add(CIRCUIT_BREAKER_FAILURE_THRESHOLD);
+        recognizedConfigurationProperties.add(CIRCUIT_BREAKER_OPEN_SECONDS);
+        recognizedConfigurationProperties.add(MIN_REFRESH_INTERVAL_SECONDS);
+        recognizedConfigurationProperties.add(MAX_REFRESH_INTERVAL_SECONDS);
+        recognizedConfigurationProperties.add(COMPRESS_RESPONSES);
+        recognizedConfigurationProperties.add(HTTP_VERSION);
+        recognizedConfigurationProperties.add(FULL_LIST_INTERVAL);
+        recognizedConfigurationProperties.add(SYNCED_CONFIG_KEYS);
+        recognizedConfigurationProperties.add(SYNCED_STATUS_FIELDS);
+        recognizedConfigurationProperties.add(DRY_RUN);
+        recognizedConfigurationProperties.add(PLAN_FILE);
+        recognizedConfigurationProperties.add(SHARD_INDEX);
+        recognizedConfigurationProperties.add(SHARD_COUNT);
+        recognizedConfigurationProperties.add(WRITES_PER_SECOND);
+        recognizedConfigurationProperties.add(WRITE_BURST);
+        recognizedConfigurationProperties.add(MAX_WRITES_PER_REFRESH);
+        recognizedConfigurationProperties.add(CHECKPOINT_DIRECTORY);
+        recognizedConfigurationProperties.add(MAX_WRITE_ATTEMPTS);
 
         connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
 
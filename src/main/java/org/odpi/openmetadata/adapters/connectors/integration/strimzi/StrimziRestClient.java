@@ -0,0 +1,277 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.ssl.TrustStrategy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+
+
+/**
+ * StrimziRestClient owns the HTTP stack used to call the Kubernetes API server that hosts the Strimzi
+ * KafkaTopic resources.  It is created once when the connector starts and closed when it disconnects so that
+ * pooled connections (and the TLS sessions negotiated over them) are reused across refreshes.
+ * <p>
+ * By default requests are made over HTTP/1.1 with the classic client.  With an HTTP version policy the
+ * asynchronous client is used instead, so that list and watch requests to an API server that speaks HTTP/2 share
+ * one connection.  Either way gzip encoded responses can be asked for; they are inflated as they are read.
+ */
+class StrimziRestClient implements Closeable {
+    private final CloseableHttpClient httpClient;
+    private final CloseableHttpAsyncClient asyncHttpClient;
+    private final AsyncClientHttpRequestFactory asyncRequestFactory;
+    private final RestTemplate restTemplate;
+
+    /**
+     * Build the pooled HTTP/1.1 client that asks for compressed responses.
+     *
+     * @param connectionPoolSize       maximum number of pooled connections
+     * @param keepAliveSeconds         how long an idle connection is kept when the server does not say otherwise
+     * @param connectTimeoutMillis     timeout for establishing a connection
+     * @param readTimeoutMillis        timeout waiting for data on an established connection
+     * @param tlsSessionCacheSize      number of TLS sessions cached for resumption (0 means no limit)
+     * @param tlsSessionTimeoutSeconds lifetime of a cached TLS session
+     * @throws KeyStoreException        the trust material could not be loaded
+     * @throws NoSuchAlgorithmException the TLS algorithm is not available
+     * @throws KeyManagementException   the SSL context could not be initialized
+     */
+    StrimziRestClient(int connectionPoolSize,
+                      int keepAliveSeconds,
+                      int connectTimeoutMillis,
+                      int readTimeoutMillis,
+                      int tlsSessionCacheSize,
+                      int tlsSessionTimeoutSeconds) throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+        this(connectionPoolSize, keepAliveSeconds, connectTimeoutMillis, readTimeoutMillis, tlsSessionCacheSize, tlsSessionTimeoutSeconds, true, null);
+    }
+
+    /**
+     * Build the pooled HTTP client.
+     *
+     * @param connectionPoolSize       maximum number of pooled connections
+     * @param keepAliveSeconds         how long an idle connection is kept when the server does not say otherwise
+     * @param connectTimeoutMillis     timeout for establishing a connection
+     * @param readTimeoutMillis        timeout waiting for data on an established connection
+     * @param tlsSessionCacheSize      number of TLS sessions cached for resumption (0 means no limit)
+     * @param tlsSessionTimeoutSeconds lifetime of a cached TLS session
+     * @param compressResponses        ask for gzip encoded responses
+     * @param httpVersionPolicy        HTTP versions the asynchronous client may use, or null for the HTTP/1.1 client
+     * @throws KeyStoreException        the trust material could not be loaded
+     * @throws NoSuchAlgorithmException the TLS algorithm is not available
+     * @throws KeyManagementException   the SSL context could not be initialized
+     */
+    StrimziRestClient(int connectionPoolSize,
+                      int keepAliveSeconds,
+                      int connectTimeoutMillis,
+                      int readTimeoutMillis,
+                      int tlsSessionCacheSize,
+                      int tlsSessionTimeoutSeconds,
+                      boolean compressResponses,
+                      HttpVersionPolicy httpVersionPolicy) throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+        TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
+
+        SSLContext sslContext = SSLContexts.custom()
+                .loadTrustMaterial(null, acceptingTrustStrategy)
+                .build();
+        // the SSL context lives as long as the client so its session cache allows abbreviated handshakes on reconnect
+        sslContext.getClientSessionContext().setSessionCacheSize(tlsSessionCacheSize);
+        sslContext.getClientSessionContext().setSessionTimeout(tlsSessionTimeoutSeconds);
+
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+
+        if (httpVersionPolicy == null) {
+            SSLConnectionSocketFactory sslConnectionSocketFactory = new SSLConnectionSocketFactory(sslContext);
+
+            HttpClientConnectionManager httpClientConnectionManager = PoolingHttpClientConnectionManagerBuilder
+                    .create()
+                    .setSSLSocketFactory(sslConnectionSocketFactory)
+                    .setMaxConnTotal(connectionPoolSize)
+                    .setMaxConnPerRoute(connectionPoolSize)
+                    .setDefaultConnectionConfig(connectionConfig)
+                    .build();
+
+            // the connector retries failed requests itself, so the client's own retries would only multiply its attempts
+            HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                    .setConnectionManager(httpClientConnectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .disableAutomaticRetries()
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds));
+            if (!compressResponses) {
+                httpClientBuilder.disableContentCompression();
+            }
+            httpClient = httpClientBuilder.build();
+            asyncHttpClient = null;
+            asyncRequestFactory = null;
+            restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        } else {
+            // HTTP/2 is negotiated with ALPN during the TLS handshake
+            asyncHttpClient = HttpAsyncClients.custom()
+                    .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder
+                                                  .create()
+                                                  .setTlsStrategy(ClientTlsStrategyBuilder.create().setSslContext(sslContext).build())
+                                                  .setMaxConnTotal(connectionPoolSize)
+                                                  .setMaxConnPerRoute(connectionPoolSize)
+                                                  .setDefaultConnectionConfig(connectionConfig)
+                                                  .setDefaultTlsConfig(TlsConfig.custom().setVersionPolicy(httpVersionPolicy).build())
+                                                  .build())
+                    .setDefaultRequestConfig(requestConfig)
+                    .disableAutomaticRetries()
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                    .build();
+            asyncHttpClient.start();
+            httpClient = null;
+            asyncRequestFactory = new AsyncClientHttpRequestFactory(asyncHttpClient, compressResponses);
+            restTemplate = new RestTemplate(asyncRequestFactory);
+        }
+    }
+
+    /**
+     * Return the rest template that issues requests over the pooled client.
+     *
+     * @return rest template
+     */
+    RestTemplate getRestTemplate() {
+        return restTemplate;
+    }
+
+    /**
+     * Issue a GET request whose response is read as it arrives, such as a long-running watch.  Closing the
+     * response before its body has been read cancels the request, so a watch can be stopped from another thread.
+     *
+     * @param uri             URI of the request
+     * @param token           bearer token for the API server
+     * @param responseTimeout how long to wait for data
+     * @return response, which the caller must close
+     * @throws IOException the request failed
+     */
+    ClientHttpResponse openStream(URI uri, String token, Timeout responseTimeout) throws IOException {
+        if (asyncRequestFactory != null) {
+            ClientHttpRequest request = asyncRequestFactory.createRequest(uri, HttpMethod.GET, responseTimeout);
+            request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+            request.getHeaders().setBearerAuth(token);
+            return request.execute();
+        }
+        HttpGet request = new HttpGet(uri);
+        request.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        request.setConfig(RequestConfig.custom().setResponseTimeout(responseTimeout).build());
+        // the response is left open for the caller to stream, rather than read and closed by a response handler
+        return new StreamingResponse(request, httpClient.executeOpen(null, request, null));
+    }
+
+    /**
+     * StreamingResponse is a response from the HTTP/1.1 client whose body has not been read.
+     */
+    private static class StreamingResponse implements ClientHttpResponse {
+        private final HttpGet request;
+        private final ClassicHttpResponse response;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        StreamingResponse(HttpGet request, ClassicHttpResponse response) {
+            this.request = request;
+            this.response = response;
+            for (Header header : response.getHeaders()) {
+                headers.add(header.getName(), header.getValue());
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(response.getCode());
+        }
+
+        @Override
+        @Deprecated
+        public int getRawStatusCode() {
+            return response.getCode();
+        }
+
+        @Override
+        public String getStatusText() {
+            return response.getReasonPhrase() == null ? "" : response.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getEntity() == null ? new ByteArrayInputStream(new byte[0]) : response.getEntity().getContent();
+        }
+
+        @Override
+        public void close() {
+            // cancelling drops a connection whose body is still being sent; a completed exchange is not affected
+            request.cancel();
+            try {
+                response.close();
+            } catch (IOException error) {
+                // the connection is discarded anyway
+            }
+        }
+    }
+
+    /**
+     * Release the pooled connections.
+     */
+    @Override
+    public void close() {
+        if (httpClient != null) {
+            httpClient.close(CloseMode.GRACEFUL);
+        }
+        if (asyncHttpClient != null) {
+            asyncHttpClient.close(CloseMode.GRACEFUL);
+        }
+    }
+}
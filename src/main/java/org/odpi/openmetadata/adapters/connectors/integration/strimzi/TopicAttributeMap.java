@@ -0,0 +1,105 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * TopicAttributeMap is the additional properties of one topic.  It holds an array of values in the slots of a
+ * TopicAttributeModel, so a topic costs the map and the array rather than a hash table with an entry per
+ * property.  Slots without a value are not in the map.  Only the slots of the model can be set.
+ */
+class TopicAttributeMap extends AbstractMap<String, String> {
+    private final TopicAttributeModel model;
+    private final String[] values;
+
+    /**
+     * Constructor.
+     *
+     * @param model  slots of the properties
+     * @param values value of each slot, or null; used by the map rather than copied
+     */
+    TopicAttributeMap(TopicAttributeModel model, String[] values) {
+        this.model = model;
+        this.values = values;
+    }
+
+    @Override
+    public String get(Object key) {
+        int slot = model.getSlot(key);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        int slot = model.getSlot(key);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Topic attribute " + key + " is not in the model");
+        }
+        String previousValue = values[slot];
+        values[slot] = value;
+        return previousValue;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (String value : values) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int nextSlot = advance(0);
+
+                    private int advance(int slot) {
+                        while (slot < values.length && values[slot] == null) {
+                            slot++;
+                        }
+                        return slot;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextSlot < values.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int slot = nextSlot;
+                        nextSlot = advance(slot + 1);
+                        return new SimpleImmutableEntry<>(model.getPropertyName(slot), values[slot]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TopicAttributeMap.this.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,207 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * TopicAttributeModel describes the additional properties that are catalogued for each topic: the cluster, the
+ * fingerprint and the selected spec.config keys and status fields of the KafkaTopic.  Each property has a fixed
+ * slot, so a topic holds its values in an array and shares the property names with every other topic.
+ * <p>
+ * A config key is catalogued as config.key.  A status field is catalogued as status.field; a field named
+ * conditions.type selects the status of the condition of that type, for example conditions.Ready.
+ * <p>
+ * Most topics have the same few config and status values, so values are pooled and topics with the same value
+ * share one string.  The pool stops growing at a fixed size; later values are kept but not shared.
+ */
+final class TopicAttributeModel {
+    static final String CONFIG_PREFIX = "config.";
+    static final String STATUS_PREFIX = "status.";
+    static final String CONDITIONS_PREFIX = "conditions.";
+
+    /*
+     * Slots of the properties every topic has.
+     */
+    static final int CLUSTER_SLOT = 0;
+    static final int FINGERPRINT_SLOT = 1;
+
+    private static final int DEFAULT_MAX_POOLED_VALUES = 4096;
+
+    /**
+     * A model that catalogues no config or status attributes.
+     */
+    static final TopicAttributeModel NONE = new TopicAttributeModel(Collections.emptyList(), Collections.emptyList());
+
+    private final String[] propertyNames;
+    private final Map<String, Integer> slotsByPropertyName = new HashMap<>();
+    private final Map<String, Integer> configSlots = new HashMap<>();
+    private final Map<String, Integer> statusSlots = new HashMap<>();
+    private final Map<String, Integer> conditionSlots = new HashMap<>();
+    private final int maxPooledValues;
+    private final Map<String, String> valuePool = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param configKeys   spec.config keys to catalog
+     * @param statusFields status fields to catalog
+     */
+    TopicAttributeModel(List<String> configKeys, List<String> statusFields) {
+        this(configKeys, statusFields, DEFAULT_MAX_POOLED_VALUES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param configKeys      spec.config keys to catalog
+     * @param statusFields    status fields to catalog
+     * @param maxPooledValues number of distinct values that are shared between topics
+     */
+    TopicAttributeModel(List<String> configKeys, List<String> statusFields, int maxPooledValues) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add(StrimziCluster.CLUSTER_PROPERTY);
+        names.add(TopicFingerprint.FINGERPRINT_PROPERTY);
+        for (String configKey : configKeys) {
+            if (names.add(CONFIG_PREFIX + configKey)) {
+                configSlots.put(configKey, names.size() - 1);
+            }
+        }
+        for (String statusField : statusFields) {
+            if (names.add(STATUS_PREFIX + statusField)) {
+                if (statusField.startsWith(CONDITIONS_PREFIX)) {
+                    conditionSlots.put(statusField.substring(CONDITIONS_PREFIX.length()), names.size() - 1);
+                } else {
+                    statusSlots.put(statusField, names.size() - 1);
+                }
+            }
+        }
+        propertyNames = names.toArray(new String[0]);
+        for (int slot = 0; slot < propertyNames.length; slot++) {
+            // the names are held once for every topic
+            propertyNames[slot] = propertyNames[slot].intern();
+            slotsByPropertyName.put(propertyNames[slot], slot);
+        }
+        this.maxPooledValues = maxPooledValues;
+    }
+
+    /**
+     * Return the number of slots.
+     *
+     * @return number of properties a topic can have
+     */
+    int size() {
+        return propertyNames.length;
+    }
+
+    /**
+     * Return the name of the additional property held in a slot.
+     *
+     * @param slot slot
+     * @return property name
+     */
+    String getPropertyName(int slot) {
+        return propertyNames[slot];
+    }
+
+    /**
+     * Return the slot of an additional property.
+     *
+     * @param propertyName property name
+     * @return slot or -1 if the model has no such property
+     */
+    int getSlot(Object propertyName) {
+        Integer slot = slotsByPropertyName.get(propertyName);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Return whether any spec.config keys are catalogued.
+     *
+     * @return true if the config of each topic must be read
+     */
+    boolean hasConfigKeys() {
+        return !configSlots.isEmpty();
+    }
+
+    /**
+     * Return whether any status conditions are catalogued.
+     *
+     * @return true if the conditions of each topic must be read
+     */
+    boolean hasConditions() {
+        return !conditionSlots.isEmpty();
+    }
+
+    /**
+     * Return the slot of a spec.config key.
+     *
+     * @param configKey key in spec.config
+     * @return slot or -1 if the key is not catalogued
+     */
+    int getConfigSlot(String configKey) {
+        Integer slot = configSlots.get(configKey);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Return the slot of a status field.
+     *
+     * @param statusField field of status
+     * @return slot or -1 if the field is not catalogued
+     */
+    int getStatusSlot(String statusField) {
+        Integer slot = statusSlots.get(statusField);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Return the slot of the status of a condition.
+     *
+     * @param conditionType type of the condition
+     * @return slot or -1 if the condition is not catalogued
+     */
+    int getConditionSlot(String conditionType) {
+        Integer slot = conditionSlots.get(conditionType);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Return the pooled copy of a value, adding it to the pool if there is room.
+     *
+     * @param value value read from a KafkaTopic
+     * @return value to keep
+     */
+    String pool(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooledValue = valuePool.get(value);
+        if (pooledValue != null) {
+            return pooledValue;
+        }
+        if (valuePool.size() >= maxPooledValues) {
+            return value;
+        }
+        pooledValue = valuePool.putIfAbsent(value, value);
+        return pooledValue == null ? value : pooledValue;
+    }
+
+    /**
+     * Return the catalogued config keys and status fields, for example to record in a snapshot.
+     *
+     * @return description of the model
+     */
+    @Override
+    public String toString() {
+        return String.join(",", propertyNames);
+    }
+}
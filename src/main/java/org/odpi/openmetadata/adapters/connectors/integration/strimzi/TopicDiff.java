@@ -0,0 +1,200 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+
+/**
+ * TopicDiff works out the changes that bring the catalog into line with the topics in a cluster.  The topics are
+ * added as the list is parsed into an open-addressed table keyed by the hash of the topic name, with their
+ * properties and fingerprints held in arrays alongside, so the diff reads the fingerprint computed by the parser
+ * rather than copying the additional properties of each topic to find it.  Each catalogued topic is looked up in
+ * the table; a catalogued topic that is not there is removed and a listed topic that no catalogued topic matched
+ * is created.
+ * <p>
+ * The table and arrays are kept from one list to the next and only grow, so once the cluster has reached its
+ * size a diff allocates nothing per topic beyond the changes it reports.  A TopicDiff is not thread safe; the
+ * connector keeps one for each cluster, filled by the read of the cluster and then used from within its
+ * reconcile lock.
+ */
+final class TopicDiff {
+    private static final int EMPTY = -1;
+
+    private final BiPredicate<TopicProperties, CataloguedTopic> updateRequired;
+
+    // entry of each slot of the open-addressed table, or EMPTY; the length is a power of two
+    private int[] slots = new int[0];
+    // the entries, in the order they were added
+    private int[] hashes = new int[0];
+    private String[] topicNames = new String[0];
+    private TopicProperties[] properties = new TopicProperties[0];
+    private String[] fingerprints = new String[0];
+    private boolean[] matched = new boolean[0];
+    private int size = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param updateRequired decides whether a catalogued topic needs updating, used when either the topic in the
+     *                       cluster or the catalogued topic has no fingerprint to compare
+     */
+    TopicDiff(BiPredicate<TopicProperties, CataloguedTopic> updateRequired) {
+        this.updateRequired = updateRequired;
+    }
+
+    /**
+     * Remove the topics, keeping the space they took.
+     */
+    void clear() {
+        // drop the references so the properties of the topics are not kept until the next list
+        Arrays.fill(topicNames, 0, size, null);
+        Arrays.fill(properties, 0, size, null);
+        Arrays.fill(fingerprints, 0, size, null);
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Add a topic in the cluster, replacing any topic of the same name.
+     *
+     * @param topicName       name of the topic
+     * @param topicProperties properties of the topic
+     * @param fingerprint     fingerprint of the properties, or null if there is none
+     */
+    void add(String topicName, TopicProperties topicProperties, String fingerprint) {
+        int entry = find(topicName);
+        if (entry == EMPTY) {
+            if (size == topicNames.length) {
+                grow(size + 1);
+            }
+            entry = size++;
+            int hash = topicName.hashCode();
+            addSlot(hash, entry);
+            hashes[entry] = hash;
+            topicNames[entry] = topicName;
+        }
+        properties[entry] = topicProperties;
+        fingerprints[entry] = fingerprint;
+    }
+
+    /**
+     * Replace the topics with those of a map that was not read through add, reading the fingerprint of each from
+     * its additional properties.
+     *
+     * @param strimziTopicElements topics in the cluster keyed by name, or null if there are none
+     */
+    void load(Map<String, TopicProperties> strimziTopicElements) {
+        clear();
+        if (strimziTopicElements != null) {
+            strimziTopicElements.forEach((topicName, topicProperties) -> add(topicName, topicProperties, TopicFingerprint.get(topicProperties)));
+        }
+    }
+
+    /**
+     * Return the number of topics.
+     *
+     * @return topics added since the last clear
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Compare the catalogued topics with the topics in the cluster and add the changes to make to the mutations.
+     * The updates and deletes are added in the order of the catalogued topic index, followed by the creates in
+     * the order the topics were added.
+     *
+     * @param cataloguedTopicIndex catalogued topics keyed by qualified name
+     * @param include              selects the catalogued topics that belong to the cluster from their qualified
+     *                             name and catalogued cluster name, or null for all
+     * @param mutations            receives the changes
+     */
+    void diff(CatalogIndex cataloguedTopicIndex, BiPredicate<String, String> include, TopicMutations mutations) {
+        Arrays.fill(matched, 0, size, false);
+        cataloguedTopicIndex.forEach((cataloguedEntry, topicName, guid, cataloguedFingerprint, cluster) -> {
+            if (include != null && !include.test(topicName, cluster)) {
+                return;
+            }
+            int entry = find(topicName);
+            if (entry == EMPTY) {
+                mutations.add(ReconcilePlanWriter.DELETE, topicName, guid, null, null);
+            } else {
+                matched[entry] = true;
+                if (isUpdateRequired(entry, cataloguedTopicIndex, cataloguedEntry, cataloguedFingerprint)) {
+                    mutations.add(ReconcilePlanWriter.UPDATE, topicName, guid, properties[entry], fingerprints[entry]);
+                }
+            }
+        });
+        for (int entry = 0; entry < size; entry++) {
+            if (!matched[entry]) {
+                mutations.add(ReconcilePlanWriter.CREATE, topicNames[entry], null, properties[entry], fingerprints[entry]);
+            }
+        }
+    }
+
+    private boolean isUpdateRequired(int entry, CatalogIndex cataloguedTopicIndex, int cataloguedEntry, String cataloguedFingerprint) {
+        if (fingerprints[entry] != null && cataloguedFingerprint != null) {
+            return !fingerprints[entry].equals(cataloguedFingerprint);
+        }
+        return updateRequired.test(properties[entry], cataloguedTopicIndex.getTopic(cataloguedEntry));
+    }
+
+    /**
+     * Look up a topic name.
+     *
+     * @return entry of the topic, or EMPTY if it has not been added
+     */
+    private int find(String topicName) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        int hash = topicName.hashCode();
+        int slot = spread(hash) & (slots.length - 1);
+        int entry;
+        while ((entry = slots[slot]) != EMPTY) {
+            if (hashes[entry] == hash && topicNames[entry].equals(topicName)) {
+                return entry;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return EMPTY;
+    }
+
+    private void addSlot(int hash, int entry) {
+        int slot = spread(hash) & (slots.length - 1);
+        while (slots[slot] != EMPTY) {
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        slots[slot] = entry;
+    }
+
+    private static int spread(int hash) {
+        // names that differ only in their last characters have close hash codes, so spread them over the table
+        int spread = hash * 0x9E3779B9;
+        return spread ^ (spread >>> 16);
+    }
+
+    /**
+     * Grow the entries to hold the topics, keeping the table at most half full.  The entries already added are
+     * kept.
+     */
+    private void grow(int topicCount) {
+        int capacity = Math.max(Math.max(topicCount, 16), topicNames.length * 2);
+        hashes = Arrays.copyOf(hashes, capacity);
+        topicNames = Arrays.copyOf(topicNames, capacity);
+        properties = Arrays.copyOf(properties, capacity);
+        fingerprints = Arrays.copyOf(fingerprints, capacity);
+        matched = Arrays.copyOf(matched, capacity);
+        slots = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        Arrays.fill(slots, EMPTY);
+        for (int entry = 0; entry < size; entry++) {
+            addSlot(hashes[entry], entry);
+        }
+    }
+}
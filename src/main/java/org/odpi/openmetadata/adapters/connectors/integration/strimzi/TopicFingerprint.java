@@ -0,0 +1,110 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * TopicFingerprint computes a 64-bit FNV-1a hash over the attributes of a topic that the connector synchronizes:
+ * the description, name, type name, extended properties and additional properties.  The fingerprint is
+ * stored with the catalogued topic so that deciding whether a topic needs to be updated is a single comparison.
+ * Attributes added to the topic properties later are covered without changing the comparison.
+ */
+final class TopicFingerprint {
+    /**
+     * Name of the additional property that holds the fingerprint of the catalogued topic.
+     */
+    static final String FINGERPRINT_PROPERTY = "strimziFingerprint";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long hash = FNV_OFFSET_BASIS;
+
+    private TopicFingerprint() {
+    }
+
+    /**
+     * Compute the fingerprint of the topic properties.  Any fingerprint already in the additional properties is
+     * ignored.
+     *
+     * @param topicProperties properties of the topic
+     * @return fingerprint as 16 hexadecimal digits
+     */
+    static String compute(TopicProperties topicProperties) {
+        TopicFingerprint fingerprint = new TopicFingerprint();
+        fingerprint.add(topicProperties.getDescription());
+        fingerprint.add(topicProperties.getName());
+        fingerprint.add(topicProperties.getTypeName());
+        fingerprint.add(topicProperties.getExtendedProperties());
+        Map<String, String> additionalProperties = topicProperties.getAdditionalProperties();
+        if (additionalProperties != null && additionalProperties.containsKey(FINGERPRINT_PROPERTY)) {
+            additionalProperties = new HashMap<>(additionalProperties);
+            additionalProperties.remove(FINGERPRINT_PROPERTY);
+        }
+        fingerprint.add(additionalProperties);
+        return String.format("%016x", fingerprint.hash);
+    }
+
+    /**
+     * Return the fingerprint stored in the topic properties.
+     *
+     * @param topicProperties properties of the topic
+     * @return fingerprint or null if none is stored
+     */
+    static String get(TopicProperties topicProperties) {
+        Map<String, String> additionalProperties = topicProperties.getAdditionalProperties();
+        return additionalProperties == null ? null : additionalProperties.get(FINGERPRINT_PROPERTY);
+    }
+
+    /**
+     * Add a map in key order so that the fingerprint does not depend on the order of the entries.  A missing map
+     * is treated as an empty one.
+     */
+    private void add(Map<String, ?> map) {
+        if (map == null) {
+            addLength(0);
+            return;
+        }
+        Map<String, ?> sortedMap = new TreeMap<>(map);
+        addLength(sortedMap.size());
+        for (Map.Entry<String, ?> entry : sortedMap.entrySet()) {
+            add(entry.getKey());
+            add(entry.getValue() == null ? null : entry.getValue().toString());
+        }
+    }
+
+    /**
+     * Add a string.  The length is added first so that adjacent values cannot run into each other.
+     */
+    private void add(String value) {
+        if (value == null) {
+            addLength(-1);
+            return;
+        }
+        addLength(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            addByte(c >>> 8);
+            addByte(c);
+        }
+    }
+
+    private void addLength(int length) {
+        addByte(length >>> 24);
+        addByte(length >>> 16);
+        addByte(length >>> 8);
+        addByte(length);
+    }
+
+    private void addByte(int value) {
+        hash ^= value & 0xff;
+        hash *= FNV_PRIME;
+    }
+}
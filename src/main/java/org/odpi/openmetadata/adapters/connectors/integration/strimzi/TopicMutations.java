@@ -0,0 +1,122 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+
+import java.util.Arrays;
+
+
+/**
+ * TopicMutations is the list of changes a reconcile makes to the catalog: for each one the action, the name of
+ * the topic, for an update or delete the guid of the catalogued topic, and for a create or update the properties
+ * read from Strimzi with their fingerprint.  The changes are held in parallel arrays that grow as needed and are
+ * kept when the list is cleared, so a list that is reused from refresh to refresh stops allocating once it has
+ * reached the size of the largest refresh.  The catalog writes are driven from the indices of the changes.
+ */
+final class TopicMutations {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // ReconcilePlanWriter.CREATE, UPDATE or DELETE
+    private String[] actions;
+    private String[] topicNames;
+    private String[] guids;
+    private TopicProperties[] properties;
+    private String[] fingerprints;
+    private int size = 0;
+
+    /**
+     * Constructor for an empty list.
+     */
+    TopicMutations() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor for an empty list with room for a number of changes.
+     *
+     * @param capacity changes the list holds before it grows
+     */
+    TopicMutations(int capacity) {
+        capacity = Math.max(capacity, 1);
+        actions = new String[capacity];
+        topicNames = new String[capacity];
+        guids = new String[capacity];
+        properties = new TopicProperties[capacity];
+        fingerprints = new String[capacity];
+    }
+
+    /**
+     * Add a change.
+     *
+     * @param action          ReconcilePlanWriter.CREATE, UPDATE or DELETE
+     * @param topicName       name of the topic
+     * @param guid            unique identifier of the catalogued topic, or null for a create
+     * @param topicProperties properties to catalog, or null for a delete
+     * @param fingerprint     fingerprint of the properties, or null if it is not known
+     */
+    void add(String action, String topicName, String guid, TopicProperties topicProperties, String fingerprint) {
+        if (size == actions.length) {
+            int capacity = size * 2;
+            actions = Arrays.copyOf(actions, capacity);
+            topicNames = Arrays.copyOf(topicNames, capacity);
+            guids = Arrays.copyOf(guids, capacity);
+            properties = Arrays.copyOf(properties, capacity);
+            fingerprints = Arrays.copyOf(fingerprints, capacity);
+        }
+        actions[size] = action;
+        topicNames[size] = topicName;
+        guids[size] = guid;
+        properties[size] = topicProperties;
+        fingerprints[size] = fingerprint;
+        size++;
+    }
+
+    /**
+     * Add a change from another list.
+     *
+     * @param mutations list holding the change
+     * @param index     index of the change in that list
+     */
+    void add(TopicMutations mutations, int index) {
+        add(mutations.actions[index], mutations.topicNames[index], mutations.guids[index], mutations.properties[index], mutations.fingerprints[index]);
+    }
+
+    /**
+     * Remove the changes, keeping the space they took.
+     */
+    void clear() {
+        // drop the references so the names and properties of the topics can be collected
+        Arrays.fill(actions, 0, size, null);
+        Arrays.fill(topicNames, 0, size, null);
+        Arrays.fill(guids, 0, size, null);
+        Arrays.fill(properties, 0, size, null);
+        Arrays.fill(fingerprints, 0, size, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String getAction(int index) {
+        return actions[index];
+    }
+
+    String getTopicName(int index) {
+        return topicNames[index];
+    }
+
+    String getGUID(int index) {
+        return guids[index];
+    }
+
+    TopicProperties getProperties(int index) {
+        return properties[index];
+    }
+
+    String getFingerprint(int index) {
+        return fingerprints[index];
+    }
+}
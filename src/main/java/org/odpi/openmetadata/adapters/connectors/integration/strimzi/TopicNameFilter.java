@@ -0,0 +1,334 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+
+/**
+ * TopicNameFilter decides which topic names are catalogued.  It is compiled once from lists of include and
+ * exclude patterns; a name is accepted if it matches an include pattern (or there are none) and matches no
+ * exclude pattern.  Null and empty names are never accepted.
+ * <p>
+ * A pattern is one of:
+ * <ul>
+ *     <li>regex:expression - a Java regular expression that must match the whole name</li>
+ *     <li>text* - a prefix; the name must start with the text</li>
+ *     <li>a glob using * for any characters and ? for any single character</li>
+ *     <li>anything else - the exact name</li>
+ * </ul>
+ * A literal prefix may also be given on its own, in which case none of its characters are wildcards.
+ * <p>
+ * Prefixes and globs are held in a trie keyed by the text before their first wildcard, and exact names in a hash
+ * set.  A name walks the trie once, and only the globs whose leading text it starts with are matched against the
+ * rest of the name, so the cost of a name does not grow with the number of prefixes, globs and exact names.  The
+ * regular expressions are combined into a single regular expression that tries each in turn.
+ */
+final class TopicNameFilter {
+    static final String REGEX_PATTERN_PREFIX = "regex:";
+
+    /**
+     * A filter that accepts every name that is not null or empty.
+     */
+    static final TopicNameFilter ACCEPT_ALL = compile(Collections.emptyList(), Collections.emptyList());
+
+    private final PatternSet includes;
+    private final PatternSet excludes;
+    private final String description;
+
+    private TopicNameFilter(PatternSet includes, PatternSet excludes, String description) {
+        this.includes = includes;
+        this.excludes = excludes;
+        this.description = description;
+    }
+
+    /**
+     * Compile a filter.
+     *
+     * @param includePatterns patterns of the names to catalog; empty to catalog every name
+     * @param excludePatterns patterns of the names not to catalog
+     * @return filter
+     * @throws PatternSyntaxException a regular expression is not valid
+     */
+    static TopicNameFilter compile(List<String> includePatterns, List<String> excludePatterns) {
+        return compile(null, includePatterns, excludePatterns);
+    }
+
+    /**
+     * Compile a filter that also includes the names starting with a literal prefix.  The characters of the prefix
+     * are matched as they are, so a prefix containing * or ?, or starting with regex:, is not a pattern.
+     *
+     * @param literalPrefix   names starting with this text are catalogued, or null
+     * @param includePatterns patterns of the other names to catalog; empty, with no prefix, to catalog every name
+     * @param excludePatterns patterns of the names not to catalog
+     * @return filter
+     * @throws PatternSyntaxException a regular expression is not valid
+     */
+    static TopicNameFilter compile(String literalPrefix, List<String> includePatterns, List<String> excludePatterns) {
+        return new TopicNameFilter(new PatternSet(literalPrefix, includePatterns),
+                                   new PatternSet(null, excludePatterns),
+                                   (literalPrefix == null ? "" : "prefix=" + literalPrefix + " ")
+                                           + "include=" + includePatterns + " exclude=" + excludePatterns);
+    }
+
+    /**
+     * Check that the regular expressions in a list of patterns are valid.
+     *
+     * @param patterns patterns to check
+     * @return true if every pattern can be compiled
+     */
+    static boolean isValid(List<String> patterns) {
+        try {
+            new PatternSet(null, patterns);
+            return true;
+        } catch (PatternSyntaxException error) {
+            return false;
+        }
+    }
+
+    /**
+     * Decide whether a topic is catalogued.
+     *
+     * @param topicName name of the topic
+     * @return whether to include this topicName
+     */
+    boolean accepts(String topicName) {
+        if (topicName == null || topicName.isEmpty()) {
+            return false;
+        }
+        return (includes.isEmpty() || includes.matches(topicName)) && !excludes.matches(topicName);
+    }
+
+    /**
+     * Describe the patterns the filter was compiled from.
+     *
+     * @return include and exclude patterns
+     */
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /**
+     * PatternSet is a compiled list of patterns.
+     */
+    private static final class PatternSet {
+        private final GlobTrie globs;
+        private final Set<String> names = new HashSet<>();
+        private final Pattern expression;
+        private final boolean empty;
+
+        PatternSet(String literalPrefix, List<String> patterns) {
+            // the text before the first wildcard of each prefix and glob, mapped to the rest of the patterns
+            TreeMap<String, List<String>> globTexts = new TreeMap<>();
+            if (literalPrefix != null) {
+                globTexts.computeIfAbsent(literalPrefix, text -> new ArrayList<>()).add("*");
+            }
+            List<String> expressions = new ArrayList<>();
+            for (String pattern : patterns) {
+                if (pattern.startsWith(REGEX_PATTERN_PREFIX)) {
+                    String expression = pattern.substring(REGEX_PATTERN_PREFIX.length());
+                    // check each expression on its own so that a mistake cannot spill into the next one
+                    Pattern.compile(expression);
+                    expressions.add(expression);
+                } else {
+                    int firstWildcard = indexOfWildcard(pattern);
+                    if (firstWildcard < 0) {
+                        names.add(pattern);
+                    } else {
+                        globTexts.computeIfAbsent(pattern.substring(0, firstWildcard), text -> new ArrayList<>())
+                                 .add(pattern.substring(firstWildcard));
+                    }
+                }
+            }
+            globs = globTexts.isEmpty() ? null : new GlobTrie(globTexts);
+            if (expressions.isEmpty()) {
+                expression = null;
+            } else {
+                StringBuilder combined = new StringBuilder();
+                for (String part : expressions) {
+                    if (combined.length() > 0) {
+                        combined.append('|');
+                    }
+                    combined.append("(?:").append(part).append(')');
+                }
+                expression = Pattern.compile(combined.toString());
+            }
+            empty = literalPrefix == null && patterns.isEmpty();
+        }
+
+        boolean isEmpty() {
+            return empty;
+        }
+
+        boolean matches(String topicName) {
+            return (globs != null && globs.matches(topicName))
+                    || names.contains(topicName)
+                    || (expression != null && expression.matcher(topicName).matches());
+        }
+
+        private static int indexOfWildcard(String pattern) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '*' || c == '?') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * GlobTrie finds whether any of a set of prefixes and globs matches a name in a single pass over the name.  The
+     * trie is keyed by the text before the first wildcard of each pattern; the node at the end of that text holds
+     * the rest of the pattern, which starts with a wildcard.  A pattern whose rest is only * marks the node as
+     * terminal, so any name that reaches it matches.  Each node holds its child characters in a sorted array that
+     * is binary searched.
+     */
+    private static final class GlobTrie {
+        private final Node root;
+
+        GlobTrie(TreeMap<String, List<String>> globs) {
+            root = build(new ArrayList<>(globs.entrySet()), 0);
+        }
+
+        /**
+         * Build the node for the sorted leading texts that share their first depth characters.
+         */
+        private static Node build(List<Map.Entry<String, List<String>>> globs, int depth) {
+            boolean terminal = false;
+            List<String> rests = new ArrayList<>();
+            List<Character> labels = new ArrayList<>();
+            List<Node> children = new ArrayList<>();
+            int start = 0;
+            while (start < globs.size()) {
+                String text = globs.get(start).getKey();
+                if (text.length() == depth) {
+                    for (String rest : globs.get(start).getValue()) {
+                        if (isAnyText(rest)) {
+                            terminal = true;
+                        } else {
+                            rests.add(rest);
+                        }
+                    }
+                    start++;
+                    continue;
+                }
+                char label = text.charAt(depth);
+                int end = start + 1;
+                while (end < globs.size() && globs.get(end).getKey().charAt(depth) == label) {
+                    end++;
+                }
+                labels.add(label);
+                children.add(build(globs.subList(start, end), depth + 1));
+                start = end;
+            }
+            char[] labelArray = new char[labels.size()];
+            for (int i = 0; i < labelArray.length; i++) {
+                labelArray[i] = labels.get(i);
+            }
+            return new Node(terminal,
+                            terminal || rests.isEmpty() ? null : rests.toArray(new String[0]),
+                            labelArray,
+                            children.toArray(new Node[0]));
+        }
+
+        private static boolean isAnyText(String rest) {
+            for (int i = 0; i < rest.length(); i++) {
+                if (rest.charAt(i) != '*') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean matches(String topicName) {
+            Node node = root;
+            int depth = 0;
+            while (!node.terminal) {
+                if (node.rests != null) {
+                    for (String rest : node.rests) {
+                        if (matchesGlob(rest, topicName, depth)) {
+                            return true;
+                        }
+                    }
+                }
+                if (depth == topicName.length()) {
+                    return false;
+                }
+                int child = Arrays.binarySearch(node.labels, topicName.charAt(depth));
+                if (child < 0) {
+                    return false;
+                }
+                node = node.children[child];
+                depth++;
+            }
+            return true;
+        }
+
+        /**
+         * Match the end of a name against a glob.  After a mismatch the last * takes one more character, so the
+         * glob is not matched again from every position of the name.
+         *
+         * @param glob  glob to match
+         * @param name  name to match
+         * @param start index of the first character of the name to match
+         * @return whether the glob matches the name from start to its end
+         */
+        private static boolean matchesGlob(String glob, String name, int start) {
+            int globIndex = 0;
+            int nameIndex = start;
+            int lastStar = -1;
+            int starMatchEnd = start;
+            while (nameIndex < name.length()) {
+                if (globIndex < glob.length()) {
+                    char globChar = glob.charAt(globIndex);
+                    if (globChar == '*') {
+                        lastStar = globIndex++;
+                        starMatchEnd = nameIndex;
+                        continue;
+                    }
+                    if (globChar == '?' || globChar == name.charAt(nameIndex)) {
+                        globIndex++;
+                        nameIndex++;
+                        continue;
+                    }
+                }
+                if (lastStar < 0) {
+                    return false;
+                }
+                globIndex = lastStar + 1;
+                nameIndex = ++starMatchEnd;
+            }
+            while (globIndex < glob.length() && glob.charAt(globIndex) == '*') {
+                globIndex++;
+            }
+            return globIndex == glob.length();
+        }
+
+        private static final class Node {
+            private final boolean terminal;
+            // rests of the globs whose leading text ends at this node, or null
+            private final String[] rests;
+            private final char[] labels;
+            private final Node[] children;
+
+            Node(boolean terminal, String[] rests, char[] labels, Node[] children) {
+                this.terminal = terminal;
+                this.rests = rests;
+                this.labels = labels;
+                this.children = children;
+            }
+        }
+    }
+}
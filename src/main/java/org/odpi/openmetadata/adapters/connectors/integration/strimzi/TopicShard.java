@@ -0,0 +1,98 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+
+/**
+ * TopicShard decides which topics one of several cooperating connector instances reconciles.  Each topic belongs
+ * to exactly one of shardCount shards, chosen by a jump consistent hash of its qualified name, so the instances
+ * divide the topics between them without talking to each other.  When the number of shards grows from n to n+1,
+ * only about 1/(n+1) of the topics move, and they all move to the new shard.
+ * <p>
+ * An instance only compares the topics of its own shard, both in the clusters and in the catalog, so it never
+ * removes a topic that another instance is responsible for.  The instances must share a metadata source so
+ * that each one sees the topics the others have catalogued.
+ */
+final class TopicShard {
+    /**
+     * The shard of a connector that reconciles every topic.
+     */
+    static final TopicShard ALL = new TopicShard(0, 1);
+
+    private final int shardIndex;
+    private final int shardCount;
+
+    /**
+     * Constructor.
+     *
+     * @param shardIndex shard of this instance, from 0 to shardCount - 1
+     * @param shardCount number of cooperating instances
+     */
+    TopicShard(int shardIndex, int shardCount) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Shard " + shardIndex + " of " + shardCount + " is not valid");
+        }
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Decide whether a topic belongs to this shard.
+     *
+     * @param topicName qualified name of the topic
+     * @return true if this instance reconciles the topic
+     */
+    boolean owns(String topicName) {
+        return shardCount == 1 || getShard(topicName, shardCount) == shardIndex;
+    }
+
+    /**
+     * Return the shard a topic belongs to.
+     *
+     * @param topicName  qualified name of the topic
+     * @param shardCount number of shards
+     * @return shard from 0 to shardCount - 1
+     */
+    static int getShard(String topicName, int shardCount) {
+        // Lamping and Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm"
+        long key = hash(topicName);
+        long bucket = -1;
+        long next = 0;
+        while (next < shardCount) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    /**
+     * Hash a name to 64 bits.  The hash is defined on the characters of the name, so every instance computes the
+     * same shard for a topic.
+     */
+    private static long hash(String topicName) {
+        // FNV-1a over the characters, then the MurmurHash3 finalizer to spread similar names
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < topicName.length(); i++) {
+            hash ^= topicName.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Describe the shard, for example to record in a snapshot.
+     *
+     * @return shard index and count
+     */
+    @Override
+    public String toString() {
+        return "shard " + shardIndex + " of " + shardCount;
+    }
+}
@@ -0,0 +1,206 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+
+/**
+ * TopicSnapshot is the state of the catalog after a reconcile that completed: the guid, fingerprint and cluster of
+ * each catalogued topic and, for each cluster, the resource version of the KafkaTopic list it was reconciled with.  It is saved to a
+ * local file so that the first refresh after a restart can work from it rather than from the whole catalog.
+ * <p>
+ * The file is a header (magic number, format version, payload length and CRC32 of the payload) followed by the
+ * payload.  It is written to a temporary file that is then moved over the old one, so a reader sees either the
+ * old snapshot or the new one.  A snapshot that fails any check is reported as an IOException.
+ * <p>
+ * The topics are written from and read into the catalogued topic index of the connector, so a snapshot is not
+ * copied on its way to or from the file.
+ */
+class TopicSnapshot {
+    private static final int MAGIC = 0x535a5453;
+    private static final int FORMAT_VERSION = 2;
+
+    private final String scope;
+    private final List<String> resourceVersions;
+    private final CatalogIndex topics;
+
+    /**
+     * Constructor.
+     *
+     * @param scope           describes the configuration the snapshot was taken with
+     * @param resourceVersions resource version of the KafkaTopic list of each cluster, in configuration order
+     * @param topics           catalogued topics keyed by qualified name
+     */
+    TopicSnapshot(String scope, List<String> resourceVersions, CatalogIndex topics) {
+        this.scope = scope;
+        this.resourceVersions = resourceVersions;
+        this.topics = topics;
+    }
+
+    /**
+     * Return the description of the configuration the snapshot was taken with.  A snapshot taken with a
+     * different configuration does not describe the topics this connector catalogs.
+     *
+     * @return scope
+     */
+    String getScope() {
+        return scope;
+    }
+
+    /**
+     * Return the resource version of the KafkaTopic list that was reconciled for each cluster.  A cluster that
+     * had not been reconciled when the snapshot was taken has a null resource version.
+     *
+     * @return resource versions in configuration order
+     */
+    List<String> getResourceVersions() {
+        return resourceVersions;
+    }
+
+    /**
+     * Return the catalogued topics.  Only the guid, the fingerprint and the cluster of each topic are known.
+     *
+     * @return catalogued topics keyed by qualified name
+     */
+    CatalogIndex getTopics() {
+        return topics;
+    }
+
+    /**
+     * Write the snapshot to the file, replacing any snapshot already there.
+     *
+     * @param file snapshot file
+     * @throws IOException the snapshot could not be written
+     */
+    void write(Path file) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64 + topics.size() * 96);
+        try (DataOutputStream payload = new DataOutputStream(payloadBytes)) {
+            writeString(payload, scope);
+            payload.writeInt(resourceVersions.size());
+            for (String resourceVersion : resourceVersions) {
+                writeString(payload, resourceVersion);
+            }
+            // the size is written with the topics so that both come from one look at the index
+            synchronized (topics) {
+                payload.writeInt(topics.size());
+                topics.forEach((entry, topicName, guid, fingerprint, cluster) -> {
+                    try {
+                        writeString(payload, topicName);
+                        writeString(payload, guid);
+                        writeString(payload, fingerprint);
+                        writeString(payload, cluster);
+                    } catch (IOException error) {
+                        throw new UncheckedIOException(error);
+                    }
+                });
+            }
+        } catch (UncheckedIOException error) {
+            throw error.getCause();
+        }
+        byte[] payload = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temporaryFile))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(payload.length);
+                output.writeLong(crc.getValue());
+                output.write(payload);
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException notSupported) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Read a snapshot from the file.  The topics are added to the index once the file has passed its checks; if
+     * the rest of the payload then proves not to be valid the index is left with part of the topics, so the caller
+     * clears it.
+     *
+     * @param file   snapshot file
+     * @param topics cleared and filled with the catalogued topics of the snapshot
+     * @return snapshot
+     * @throws IOException the file could not be read or does not hold a valid snapshot
+     */
+    static TopicSnapshot read(Path file, CatalogIndex topics) throws IOException {
+        byte[] payload;
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(file))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a topic snapshot");
+            }
+            int formatVersion = input.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported topic snapshot format version " + formatVersion);
+            }
+            int length = input.readInt();
+            long expectedCrc = input.readLong();
+            if (length < 0) {
+                throw new IOException("Invalid topic snapshot length " + length);
+            }
+            payload = input.readNBytes(length);
+            if (payload.length != length || input.read() != -1) {
+                throw new IOException("Topic snapshot length does not match its header");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Topic snapshot checksum does not match its content");
+            }
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String scope = readString(input);
+            int clusterCount = input.readInt();
+            List<String> resourceVersions = new ArrayList<>(clusterCount);
+            for (int i = 0; i < clusterCount; i++) {
+                resourceVersions.add(readString(input));
+            }
+            int count = input.readInt();
+            topics.clear();
+            for (int i = 0; i < count; i++) {
+                String topicName = readString(input);
+                String guid = readString(input);
+                String fingerprint = readString(input);
+                String cluster = readString(input);
+                topics.put(topicName, guid, null, null, fingerprint, cluster);
+            }
+            return new TopicSnapshot(scope, resourceVersions, topics);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
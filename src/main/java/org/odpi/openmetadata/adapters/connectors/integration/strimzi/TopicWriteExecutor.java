@@ -0,0 +1,169 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * TopicWriteExecutor applies the catalog changes worked out by a reconcile.  Up to the configured number of
+ * changes are sent to the metadata server at the same time.  Each change is isolated from the others: a failure
+ * is passed to the failure handler and counted, and the remaining changes still run.
+ * <p>
+ * The changes are identified by their index, and each writer thread takes the next index until there are none
+ * left, so applying the changes allocates nothing per change.
+ */
+class TopicWriteExecutor implements Closeable {
+    /**
+     * The changes to make to the catalog.
+     */
+    interface TopicWrites {
+        /**
+         * Return the number of changes.
+         *
+         * @return changes
+         */
+        int size();
+
+        /**
+         * Make a change.
+         *
+         * @param index index of the change, from 0 to size() - 1
+         * @throws Exception the change failed
+         */
+        void apply(int index) throws Exception;
+    }
+
+    /**
+     * Told about each change that fails.
+     */
+    @FunctionalInterface
+    interface FailureHandler {
+        void writeFailed(int index, Exception error);
+    }
+
+    /**
+     * Counts of the changes that succeeded and failed.  Changes that were not reached because the writers were
+     * interrupted are in neither count.
+     */
+    static class Results {
+        private final int succeeded;
+        private final int failed;
+
+        Results(int succeeded, int failed) {
+            this.succeeded = succeeded;
+            this.failed = failed;
+        }
+
+        int getSucceeded() {
+            return succeeded;
+        }
+
+        int getFailed() {
+            return failed;
+        }
+    }
+
+    private final int parallelism;
+    private final ExecutorService executorService;
+
+    /**
+     * Constructor.  A parallelism of 1 or less applies the changes one at a time on the calling thread.
+     *
+     * @param parallelism      maximum number of changes in flight
+     * @param threadNamePrefix prefix for the names of the writer threads
+     */
+    TopicWriteExecutor(int parallelism, String threadNamePrefix) {
+        this.parallelism = parallelism;
+        if (parallelism > 1) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            executorService = null;
+        }
+    }
+
+    /**
+     * Apply the changes and wait for all of them to finish.
+     *
+     * @param writes         changes to make
+     * @param failureHandler told about each change that fails
+     * @return counts of the changes that succeeded and failed
+     * @throws InterruptedException the calling thread was interrupted while waiting
+     */
+    Results execute(TopicWrites writes, FailureHandler failureHandler) throws InterruptedException {
+        int size = writes.size();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        if (executorService == null || size <= 1) {
+            for (int index = 0; index < size; index++) {
+                apply(index, writes, failureHandler, succeeded, failed);
+            }
+        } else {
+            AtomicInteger nextIndex = new AtomicInteger();
+            Runnable writer = () -> {
+                int index;
+                while (!Thread.currentThread().isInterrupted() && (index = nextIndex.getAndIncrement()) < size) {
+                    apply(index, writes, failureHandler, succeeded, failed);
+                }
+            };
+            List<Future<?>> futures = new ArrayList<>(parallelism);
+            for (int i = 0; i < Math.min(parallelism, size); i++) {
+                futures.add(executorService.submit(writer));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException error) {
+                // apply catches exceptions so only errors reach here
+                if (error.getCause() instanceof Error) {
+                    throw (Error) error.getCause();
+                }
+                throw new IllegalStateException(error.getCause());
+            } catch (InterruptedException error) {
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+                throw error;
+            }
+        }
+        // an interrupted writer leaves the changes it had not taken, so the successes are counted as they are made
+        return new Results(succeeded.get(), failed.get());
+    }
+
+    private void apply(int index, TopicWrites writes, FailureHandler failureHandler, AtomicInteger succeeded, AtomicInteger failed) {
+        try {
+            writes.apply(index);
+            succeeded.incrementAndGet();
+        } catch (Exception error) {
+            if (error instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            failed.incrementAndGet();
+            failureHandler.writeFailed(index, error);
+        }
+    }
+
+    /**
+     * Stop the writer threads.
+     */
+    @Override
+    public void close() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+
+/**
+ * WriteRateLimiter is a token bucket that paces the changes the connector sends to the metadata server, so a burst
+ * of new topics does not crowd out the other users of the server.  Tokens are added at the configured rate up to
+ * the burst size, and each change takes one.
+ * <p>
+ * A change that finds the bucket empty reserves the next token and waits for it outside the lock, so the writer
+ * threads queue for tokens in the order they asked and the rate holds however many threads are writing.
+ */
+class WriteRateLimiter {
+    private final double tokensPerNano;
+    private final double burst;
+    private final LongSupplier clockNanos;
+
+    // may be negative while tokens are reserved by waiting changes
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Constructor.  The bucket starts full.
+     *
+     * @param writesPerSecond rate at which tokens are added
+     * @param burst           most tokens the bucket holds
+     * @param clockNanos      monotonic clock in nanoseconds
+     */
+    WriteRateLimiter(int writesPerSecond, int burst, LongSupplier clockNanos) {
+        this.tokensPerNano = writesPerSecond / 1e9;
+        this.burst = Math.max(1, burst);
+        this.clockNanos = clockNanos;
+        this.tokens = this.burst;
+        this.lastRefillNanos = clockNanos.getAsLong();
+    }
+
+    /**
+     * Wait until a change may be sent.
+     *
+     * @return nanoseconds spent waiting
+     * @throws InterruptedException the thread was interrupted while waiting
+     */
+    long acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Take a token, reserving the next one if the bucket is empty.
+     *
+     * @return nanoseconds until the reserved token is added, or 0 if a token was available
+     */
+    synchronized long reserve() {
+        long now = clockNanos.getAsLong();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+        tokens = tokens - 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
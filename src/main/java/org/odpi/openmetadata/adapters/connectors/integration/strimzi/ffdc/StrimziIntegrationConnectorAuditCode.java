@@ -122,6 +122,130 @@ public enum StrimziIntegrationConnectorAuditCode implements AuditLogMessageSet {
             "The {0} integration connector refresh has been called",
             "This is normal behaviour for a polling integration connector",
             "No specific action is required.  This message is to inform that polling is occurring."),
+    LIST_CONTINUE_EXPIRED("STRIMZI-INTEGRATION-CONNECTOR-0022",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector was told by {1} that its list continue token has expired after {2} topics had been read; restarting the list (attempt {3})",
+            "The Kubernetes API server only keeps continue tokens for a limited time.  The topics read so far are discarded and the paged list is restarted from the first page.",
+            "No action is required unless this happens on every refresh.  In that case increase the listPageSize configuration property so the list completes sooner."),
+    WATCH_FAILED("STRIMZI-INTEGRATION-CONNECTOR-0023",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The {0} integration connector's watch on {1} failed with a {2} exception.  The error message was {3}",
+            "The connector waits briefly and then resumes watching.  If the failure happened while the catalog was being updated, " +
+                    "the topics are listed and reconciled again before the watch resumes.",
+            "Use the message in the exception to determine the root cause of the error.  No action is required if the error was a " +
+                    "transient network failure."),
+    WATCH_RESYNC("STRIMZI-INTEGRATION-CONNECTOR-0024",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector is listing the topics from {1} to start or resynchronize its watch",
+            "The connector lists and reconciles all of the topics and then watches for changes from the resource version of the list.  " +
+                    "This happens when the watch starts and when the API server reports that the watched resource version is too old.",
+            "No action is required.  This message is to record why a full reconcile is taking place."),
+    REFRESH_SKIPPED("STRIMZI-INTEGRATION-CONNECTOR-0025",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector skipped the refresh because the topics at {1} are unchanged since resource version {2}; {3} refreshes have been skipped since the connector started",
+            "The connector briefly watches the KafkaTopics from the resource version of the last successful refresh.  " +
+                    "When the watch reports no added, modified or deleted topics the list is not retrieved or compared with the catalog.",
+            "No action is required.  Set the skipUnchangedRefresh configuration property to false to compare the full list on every refresh."),
+    TOPIC_WRITES_APPLIED("STRIMZI-INTEGRATION-CONNECTOR-0026",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector applied {1} catalog changes for the topics at {2}: {3} succeeded and {4} failed",
+            "Each change that failed has been logged separately.  The changes that failed are retried on the next refresh.",
+            "If changes fail, use the messages logged for them to determine the cause and correct it."),
+    SNAPSHOT_LOADED("STRIMZI-INTEGRATION-CONNECTOR-0027",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector loaded a snapshot of {1} catalogued topics at resource version {2} from {3}",
+            "The first refresh compares the topics in Strimzi with the snapshot rather than retrieving the whole catalog, " +
+                    "and is skipped if the topics are unchanged since the snapshot was taken.",
+            "No action is required.  Delete the snapshot file while the connector is stopped to force a full synchronization."),
+    SNAPSHOT_UNUSABLE("STRIMZI-INTEGRATION-CONNECTOR-0028",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The {0} integration connector is unable to use the snapshot in {1}.  The reason was {2}: {3}",
+            "The snapshot is ignored and the first refresh performs a full synchronization with the catalog.",
+            "No action is required.  A new snapshot is written when the next refresh completes."),
+    SNAPSHOT_WRITE_FAILED("STRIMZI-INTEGRATION-CONNECTOR-0029",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The {0} integration connector is unable to update the snapshot in {1}.  The exception was {2} with message {3}",
+            "The connector continues to synchronize metadata.  If it restarts before the snapshot is written successfully, " +
+                    "its first refresh performs a full synchronization.",
+            "Check that the directory of the snapshot file exists and is writable by the integration daemon."),
+    REFRESH_SUMMARY("STRIMZI-INTEGRATION-CONNECTOR-0030",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector measured the following over its last {1} refreshes.  Timings: {2}.  Counts: {3}",
+            "The timings show where each refresh spends its time: the list requests to Strimzi, reading and parsing the responses, " +
+                    "reading the catalog, working out the changes and writing them.  The measurements are reset after each summary.",
+            "No action is required.  Use the timings to find the phase to tune when refreshes are slow.  " +
+                    "Set the metricsSummaryInterval configuration property to 0 to turn the summary off."),
+    CLUSTER_TOPIC_CONFLICT("STRIMZI-INTEGRATION-CONNECTOR-0031",
+            OMRSAuditLogRecordSeverity.ERROR,
+            "The {0} integration connector did not catalog topic {1} from cluster {2} because a topic with the same name is catalogued from cluster {3}",
+            "Topics are catalogued by name, so a name can only be catalogued from one cluster.  The topic from the other cluster keeps the catalog entry.",
+            "Give each cluster a distinct topicNamePrefix, or a label or field selector, so that the clusters do not catalog topics with the same name."),
+    REQUEST_RETRY("STRIMZI-INTEGRATION-CONNECTOR-0032",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector will retry its request to {1} in {2} milliseconds (retry {3} of {4}) after exception {5} with message {6}",
+            "The API server is throttling requests or is unavailable.  The request is repeated after a wait that grows with each retry, " +
+                    "or after the wait the server asked for in a Retry-After header.",
+            "No action is required if the retry succeeds.  If retries are frequent, check the health and load of the Kubernetes API server."),
+    CIRCUIT_BREAKER_OPENED("STRIMZI-INTEGRATION-CONNECTOR-0033",
+            OMRSAuditLogRecordSeverity.ERROR,
+            "The {0} integration connector has stopped reading cluster {1} after {2} consecutive failed reads and will try again in {3} seconds",
+            "The API server has been throttling requests or unavailable for several refreshes.  Refreshes do not read the cluster until " +
+                    "the wait has passed, and its catalogued topics are left as they are.",
+            "Check that the Kubernetes API server is running and reachable.  The connector closes the circuit breaker by itself once a read succeeds."),
+    CIRCUIT_BREAKER_CLOSED("STRIMZI-INTEGRATION-CONNECTOR-0034",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector has resumed reading cluster {1} after {2} milliseconds of failures",
+            "A read of the cluster succeeded after its circuit breaker opened, so refreshes read the cluster again.",
+            "No action is required."),
+    CLUSTER_READ_SUSPENDED("STRIMZI-INTEGRATION-CONNECTOR-0035",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector did not read cluster {1} in this refresh because its circuit breaker is open",
+            "Recent reads of the cluster failed.  The refresh leaves the catalogued topics of the cluster as they are.",
+            "No action is required.  The cluster is read again once the circuit breaker open period has passed."),
+    REFRESH_INTERVAL_CHANGED("STRIMZI-INTEGRATION-CONNECTOR-0036",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector will reconcile the topics at most every {1} seconds because the last reconcile made {2} changes",
+            "Refreshes that arrive before the interval has passed do nothing.  The interval grows while the topics are stable and " +
+                    "shrinks when they change, within the minRefreshIntervalSeconds and maxRefreshIntervalSeconds configuration properties.",
+            "No action is required.  Lower maxRefreshIntervalSeconds if changes to stable topics take too long to reach the catalog."),
+    DRY_RUN_PLANNED("STRIMZI-INTEGRATION-CONNECTOR-0037",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector is in dry run mode and did not change the catalog.  The refresh would create {1} topics, " +
+                    "update {2} and remove {3}, which is estimated to take {4} seconds.  The plan was written to {5}",
+            "The changes are listed in the plan rather than made.  The estimate is based on the time taken to read the catalogued topics.",
+            "Review the plan, then set the dryRun configuration property to false to make the changes."),
+    PLAN_WRITE_FAILED("STRIMZI-INTEGRATION-CONNECTOR-0038",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The {0} integration connector is unable to write the dry run plan to {1}.  The exception was {2} with message {3}",
+            "The connector continues the dry run and counts the changes, but the plan is incomplete.",
+            "Check that the directory of the plan file exists and is writable by the integration daemon."),
+    WRITE_BACKLOG_DEFERRED("STRIMZI-INTEGRATION-CONNECTOR-0039",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector made {1} changes to the catalog in this refresh and deferred the other {2} to the next refresh",
+            "The refresh reached the limit set by the maxWritesPerRefresh configuration property.  The deferred changes are " +
+                    "worked out again and made by the following refreshes.",
+            "No action is required.  Raise maxWritesPerRefresh if the backlog does not shrink between refreshes."),
+
+    TOPIC_QUARANTINED("STRIMZI-INTEGRATION-CONNECTOR-0040",
+            OMRSAuditLogRecordSeverity.ERROR,
+            "The {0} integration connector has quarantined the change to topic {1} from {2} after it failed {3} times",
+            "The change is not tried again until the topic changes in the cluster, so that it does not stop the cluster " +
+                    "from being synchronized.  The earlier failures were logged with the reason.",
+            "Correct the cause of the failures, then change the topic in the cluster or remove the checkpoint file to retry."),
+
+    CHECKPOINT_RESUMED("STRIMZI-INTEGRATION-CONNECTOR-0041",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The {0} integration connector is resuming {1} changes to the catalog from {2} that were worked out from resource version {3}",
+            "The topics in the cluster are unchanged since an earlier refresh that did not complete its changes, so the " +
+                    "changes still to do are made without listing the topics again.",
+            "No action is required."),
+
+    CHECKPOINT_FAILED("STRIMZI-INTEGRATION-CONNECTOR-0042",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The {0} integration connector could not read or write the checkpoint {1}: {2} exception with message {3}",
+            "The changes to the catalog are still made, but a restart works them out again from a full list rather than " +
+                    "resuming them.",
+            "Check that the checkpointDirectory configuration property names a directory the connector can write."),
 
 
     ;
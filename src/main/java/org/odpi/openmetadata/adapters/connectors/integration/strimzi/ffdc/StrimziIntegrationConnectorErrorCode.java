@@ -45,6 +45,10 @@ public enum StrimziIntegrationConnectorErrorCode implements ExceptionMessageSet
                                 "The {0} integration connector has been initialized to monitor event broker at URL {1} but the endpoint address is not a valid URL",
                                 "The connector requires the a valid endpoint address to be specified in the connection properties.",
                                 "Supply a well formed endpoint address as a connection properties ."),
+    INVALID_CONFIGURATION_PROPERTY(400, "STRIMZI-INTEGRATION-CONNECTOR-400-005",
+                                "The Strimzi integration connector has been configured with an invalid value for configuration property {0}",
+                                "The connector is unable to start because the configuration property can not be interpreted.",
+                                "Correct the value of the configuration property in the connection and restart the connector."),
 
     UNEXPECTED_EXCEPTION(500, "STRIMZI-INTEGRATION-CONNECTOR-500-001",
              "The {0} integration connector received an unexpected exception {1} when cataloguing topics; the error message was: {2}",
@@ -0,0 +1,64 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests for the reusable index of catalogued topics.
+ */
+public class CatalogIndexTest
+{
+    private static List<String> topicNames(CatalogIndex catalogIndex) {
+        List<String> topicNames = new ArrayList<>();
+        catalogIndex.forEach((entry, topicName, guid, fingerprint, cluster) -> topicNames.add(topicName));
+        return topicNames;
+    }
+
+    @Test
+    void testRemovedTopicsAreDroppedRatherThanGrowingTheIndex() {
+        CatalogIndex catalogIndex = new CatalogIndex();
+        for (int i = 0; i < 1000; i++) {
+            catalogIndex.put("topic-" + i, "guid-" + i, null, null, "f" + i, i % 2 == 0 ? "east" : null);
+        }
+        assertEquals(1000, catalogIndex.size());
+        assertEquals("guid-7", catalogIndex.get("topic-7").getGUID());
+        assertEquals("east", catalogIndex.get("topic-8").getCluster());
+
+        // a removed topic can be put back, and then replaces the old one
+        catalogIndex.remove("topic-7");
+        assertNull(catalogIndex.get("topic-7"));
+        assertFalse(catalogIndex.contains("topic-7"));
+        catalogIndex.put("topic-7", "guid-new", null, null, null, null);
+        assertEquals("guid-new", catalogIndex.get("topic-7").getGUID());
+        assertNull(catalogIndex.get("topic-7").getFingerprint());
+
+        // topics created and removed between catalog reads, as by watch events, reuse the entries of removed ones
+        for (int i = 0; i < 10000; i++) {
+            catalogIndex.put("temporary-" + i, "guid-t" + i, null, null, null, null);
+            catalogIndex.remove("temporary-" + i);
+        }
+        assertEquals(1000, catalogIndex.size());
+        List<String> topicNames = topicNames(catalogIndex);
+        assertEquals(1000, topicNames.size());
+        assertEquals("topic-0", topicNames.get(0));
+        assertTrue(catalogIndex.contains("topic-999"));
+        assertEquals("f999", catalogIndex.get("topic-999").getFingerprint());
+
+        catalogIndex.clear();
+        assertEquals(0, catalogIndex.size());
+        assertFalse(catalogIndex.contains("topic-0"));
+        catalogIndex.put("a", "guid-a", null, null, "fa", null);
+        assertEquals(List.of("a"), topicNames(catalogIndex));
+    }
+}
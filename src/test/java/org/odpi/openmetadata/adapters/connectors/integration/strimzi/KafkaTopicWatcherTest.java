@@ -0,0 +1,155 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Drives KafkaTopicWatcher against a local HTTP server that streams canned watch events.
+ */
+public class KafkaTopicWatcherTest
+{
+    private HttpServer server;
+    private StrimziRestClient restClient;
+    private final List<String> watchedFrom = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            String resourceVersion = exchange.getRequestURI().getQuery().replaceAll(".*resourceVersion=([^&]*).*", "$1");
+            watchedFrom.add(resourceVersion);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            // chunked, like a real watch
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                if ("100".equals(resourceVersion)) {
+                    write(outputStream, event("ADDED", "a", "101"));
+                    write(outputStream, "{\"type\":\"BOOKMARK\",\"object\":{\"kind\":\"KafkaTopic\",\"metadata\":{\"resourceVersion\":\"105\"}}}\n");
+                    write(outputStream, event("MODIFIED", "a", "106"));
+                    write(outputStream, "{\"object\":{\"metadata\":{\"name\":\"__internal\",\"resourceVersion\":\"107\"}," +
+                            "\"status\":{\"topicName\":\"__consumer_offsets\"}},\"type\":\"ADDED\"}\n");
+                    write(outputStream, event("DELETED", "b", "108"));
+                    // the server then ends the watch, as it does when timeoutSeconds expires
+                } else if ("108".equals(resourceVersion)) {
+                    write(outputStream, "{\"type\":\"ERROR\",\"object\":{\"kind\":\"Status\",\"status\":\"Failure\",\"code\":410,\"reason\":\"Expired\"}}\n");
+                } else {
+                    write(outputStream, event("ADDED", "c", "201"));
+                }
+            }
+        });
+        server.start();
+        restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60);
+    }
+
+    @AfterEach
+    void stopServer() {
+        restClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testWatchEventsResumeAndRelist() throws Exception {
+        watchEventsResumeAndRelist(restClient);
+    }
+
+    @Test
+    void testWatchOverAsynchronousClient() throws Exception {
+        try (StrimziRestClient asyncRestClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60, true, HttpVersionPolicy.FORCE_HTTP_1)) {
+            watchEventsResumeAndRelist(asyncRestClient);
+        }
+    }
+
+    private void watchEventsResumeAndRelist(StrimziRestClient restClient) throws Exception {
+        List<String> changes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        String[] listVersions = { "100", "200" };
+        int[] lists = { 0 };
+
+        KafkaTopicWatcher.Handler handler = new KafkaTopicWatcher.Handler() {
+            @Override
+            public String relist() {
+                changes.add("LIST");
+                return listVersions[lists[0]++];
+            }
+
+            @Override
+            public void topicChanged(KafkaTopicResource resource) {
+                changes.add("CHANGED " + resource.getName() + (resource.getStatusTopicName() == null ? "" : " " + resource.getStatusTopicName()));
+                if ("c".equals(resource.getName())) {
+                    done.countDown();
+                }
+            }
+
+            @Override
+            public void topicDeleted(KafkaTopicResource resource) {
+                changes.add("DELETED " + resource.getName());
+            }
+
+            @Override
+            public void watchFailed(Exception error) {
+                changes.add("FAILED " + error.getMessage());
+            }
+        };
+
+        String baseURL = "http://localhost:" + server.getAddress().getPort() + "/topics";
+        KafkaTopicWatcher watcher = new KafkaTopicWatcher(restClient,
+                                                          resourceVersion -> URI.create(baseURL + "?watch=true&resourceVersion=" + resourceVersion),
+                                                          "token",
+                                                          new KafkaTopicListParser(new JsonFactory(), null),
+                                                          handler,
+                                                          5,
+                                                          10);
+        Thread thread = new Thread(watcher);
+        thread.start();
+        try {
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            watcher.stop();
+            thread.interrupt();
+            thread.join(5000);
+        }
+
+        assertEquals(List.of("LIST",
+                             "CHANGED a",
+                             "CHANGED a",
+                             "CHANGED __internal __consumer_offsets",
+                             "DELETED b",
+                             "LIST",
+                             "CHANGED c"), changes);
+        // the second watch resumes from the last event; the third follows the relist after 410 Gone
+        assertEquals(List.of("100", "108", "200"), watchedFrom.subList(0, 3));
+    }
+
+    private static String event(String type, String name, String resourceVersion) {
+        return "{\"type\":\"" + type + "\",\"object\":{\"kind\":\"KafkaTopic\",\"metadata\":{\"name\":\"" + name +
+                "\",\"resourceVersion\":\"" + resourceVersion + "\",\"managedFields\":[{\"manager\":\"okhttp\"}]}," +
+                "\"spec\":{\"partitions\":1,\"replicas\":1}}}\n";
+    }
+
+    private static void write(OutputStream outputStream, String line) throws IOException {
+        outputStream.write(line.getBytes(StandardCharsets.UTF_8));
+        outputStream.flush();
+    }
+}
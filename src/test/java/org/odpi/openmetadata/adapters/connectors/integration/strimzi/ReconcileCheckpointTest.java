@@ -0,0 +1,107 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests for the work list that lets a reconcile resume its changes to the catalog.
+ */
+public class ReconcileCheckpointTest
+{
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private static TopicProperties topicProperties(String name, int partitions) {
+        TopicProperties topicProperties = new TopicProperties();
+        topicProperties.setQualifiedName(name);
+        topicProperties.setName(name);
+        topicProperties.setTypeName("KafkaTopic");
+        Map<String, Object> extendedProperties = new HashMap<>();
+        extendedProperties.put("partitions", partitions);
+        topicProperties.setExtendedProperties(extendedProperties);
+        topicProperties.setAdditionalProperties(Collections.singletonMap(StrimziCluster.CLUSTER_PROPERTY, "east"));
+        return topicProperties;
+    }
+
+    @Test
+    void testReadResumesFromLastCompletedChange() throws Exception {
+        Path file = Files.createTempDirectory("strimzi-checkpoint").resolve("east.checkpoint");
+        TopicMutations items = new TopicMutations();
+        items.add(ReconcilePlanWriter.CREATE, "a", null, topicProperties("a", 3), null);
+        items.add(ReconcilePlanWriter.UPDATE, "b", "guid-b", topicProperties("b", 6), null);
+        items.add(ReconcilePlanWriter.DELETE, "c", "guid-c", null, null);
+        ReconcileCheckpoint checkpoint = new ReconcileCheckpoint(file, jsonFactory, 0, "scope", null).next("7", items);
+        checkpoint.write();
+        checkpoint.recordDone(0);
+        checkpoint.recordFailed(1);
+        String updateFingerprint = checkpoint.getFingerprint(1);
+        checkpoint.close();
+        // the connector stopped while appending
+        Files.write(file, "{\"done\":\"c".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ReconcileCheckpoint resumed = ReconcileCheckpoint.read(file, jsonFactory, 0);
+        assertEquals("scope", resumed.getScope());
+        assertEquals("7", resumed.getResourceVersion());
+        TopicMutations resumedItems = resumed.getItems();
+        assertEquals(2, resumed.getPendingCount());
+        assertFalse(resumed.isPending(0));
+        assertEquals("b", resumedItems.getTopicName(1));
+        assertEquals("guid-b", resumedItems.getGUID(1));
+        assertEquals(1, resumed.getAttempts(1));
+        assertEquals("b", resumedItems.getProperties(1).getName());
+        assertEquals(6, resumedItems.getProperties(1).getExtendedProperties().get("partitions"));
+        assertEquals("east", resumedItems.getProperties(1).getAdditionalProperties().get(StrimziCluster.CLUSTER_PROPERTY));
+        assertEquals(updateFingerprint, resumed.getFingerprint(1));
+        assertTrue(resumed.isPending(2));
+        assertEquals("c", resumedItems.getTopicName(2));
+
+        // the partly written line was dropped so the journal can be read after more is appended
+        resumed.recordDone(2);
+        resumed.close();
+        assertEquals(1, ReconcileCheckpoint.read(file, jsonFactory, 0).getPendingCount());
+    }
+
+    private static TopicMutations createOf(String name, int partitions) {
+        TopicMutations items = new TopicMutations();
+        items.add(ReconcilePlanWriter.CREATE, name, null, topicProperties(name, partitions), null);
+        return items;
+    }
+
+    @Test
+    void testQuarantineLastsUntilTopicChanges() throws Exception {
+        ReconcileCheckpoint checkpoint = new ReconcileCheckpoint(null, jsonFactory, 2, "scope", null).next("1", createOf("bad", 3));
+        assertFalse(checkpoint.recordFailed(0));
+
+        // worked out again from an unchanged topic, the attempts carry over
+        checkpoint = checkpoint.next("2", createOf("bad", 3));
+        assertTrue(checkpoint.recordFailed(0));
+        assertTrue(checkpoint.isQuarantined("bad"));
+        assertEquals(0, checkpoint.getPendingCount());
+
+        checkpoint = checkpoint.next("3", createOf("bad", 3));
+        assertEquals(1, checkpoint.getQuarantinedCount());
+        assertEquals(0, checkpoint.getPendingCount());
+
+        // a change to the topic is tried again from the start
+        checkpoint = checkpoint.next("4", createOf("bad", 6));
+        assertFalse(checkpoint.isQuarantined("bad"));
+        assertTrue(checkpoint.isPending(0));
+        assertEquals(0, checkpoint.getAttempts(0));
+    }
+}
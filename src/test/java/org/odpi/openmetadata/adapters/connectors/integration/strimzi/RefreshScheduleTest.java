@@ -0,0 +1,69 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests for the adaptive refresh schedule.
+ */
+public class RefreshScheduleTest
+{
+    @Test
+    void testIntervalFollowsChangeRate() {
+        AtomicLong clock = new AtomicLong(0);
+        RefreshSchedule schedule = new RefreshSchedule(0, 8000, clock::get);
+        assertTrue(schedule.isDue());
+        assertFalse(schedule.recordReconcile(0));
+
+        // the daemon refreshes every second; quiet reconciles double the interval up to the maximum
+        clock.addAndGet(1000);
+        assertTrue(schedule.isDue());
+        assertTrue(schedule.recordReconcile(0));
+        assertEquals(2000, schedule.getIntervalMillis());
+        clock.addAndGet(1000);
+        assertFalse(schedule.isDue());
+        clock.addAndGet(1000);
+        assertTrue(schedule.isDue());
+        schedule.recordReconcile(0);
+        assertEquals(4000, schedule.getIntervalMillis());
+        clock.addAndGet(4000);
+        schedule.recordReconcile(0);
+        assertEquals(8000, schedule.getIntervalMillis());
+        clock.addAndGet(8000);
+        assertFalse(schedule.recordReconcile(0));
+        assertEquals(8000, schedule.getIntervalMillis());
+
+        // one change halves the interval and a burst of changes takes it close to the minimum
+        clock.addAndGet(8000);
+        schedule.recordReconcile(1);
+        assertEquals(4000, schedule.getIntervalMillis());
+        clock.addAndGet(4000);
+        schedule.recordReconcile(50);
+        assertEquals(78, schedule.getIntervalMillis());
+        clock.addAndGet(78);
+        assertTrue(schedule.isDue());
+    }
+
+    @Test
+    void testMinimumIntervalIsKept() {
+        AtomicLong clock = new AtomicLong(0);
+        RefreshSchedule schedule = new RefreshSchedule(5000, 0, clock::get);
+        schedule.recordReconcile(100);
+        assertEquals(5000, schedule.getIntervalMillis());
+        clock.addAndGet(4999);
+        assertFalse(schedule.isDue());
+        clock.addAndGet(1);
+        assertTrue(schedule.isDue());
+        schedule.recordReconcile(0);
+        assertEquals(5000, schedule.getIntervalMillis());
+    }
+}
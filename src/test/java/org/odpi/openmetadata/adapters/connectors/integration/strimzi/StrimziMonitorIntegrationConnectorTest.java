@@ -3,20 +3,69 @@
 
 package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.entity.DiscardingEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
 import org.junit.jupiter.api.Test;
 import org.odpi.openmetadata.accessservices.datamanager.metadataelements.TopicElement;
+import org.odpi.openmetadata.accessservices.datamanager.properties.TemplateProperties;
 import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+import org.odpi.openmetadata.adapters.connectors.integration.strimzi.ffdc.StrimziIntegrationConnectorErrorCode;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.ElementHeader;
+import org.odpi.openmetadata.integrationservices.topic.connector.TopicIntegratorContext;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 
 /**
@@ -80,6 +129,1054 @@ public class StrimziMonitorIntegrationConnectorTest
             assertFalse(msg.contains("}"));
        }
    }
+    @Test
+    void testStreamingParserMatchesTreeParser() throws IOException, ConnectorCheckedException {
+        String content = Files.readString(Paths.get("src/test/resources/SampleGetResponse.json"));
+        String edgeCases = "{\"kind\":\"KafkaTopicList\",\"items\":[" +
+                "{\"metadata\":{\"name\":\"no-spec\",\"annotations\":{\"topic-description\":\"\"}}}," +
+                "{\"metadata\":{\"name\":\"text-partitions\",\"annotations\":{\"topic-description\":\"described\"}}," +
+                "\"spec\":{\"partitions\":\"3\",\"replicas\":2.0,\"config\":{\"retention.ms\":1}}}," +
+                "{\"metadata\":{\"name\":\"internal\"},\"status\":{\"topicName\":\"__consumer_offsets\"}}," +
+                "{\"metadata\":{\"annotations\":{\"topic-description\":\"no name\"}}}," +
+                "{\"spec\":{\"partitions\":1}}," +
+                "\"not an object\"," +
+                "{\"status\":{\"conditions\":[{\"type\":\"Ready\"}]},\"spec\":{\"replicas\":3,\"partitions\":12}," +
+                "\"metadata\":{\"managedFields\":[{\"f:spec\":{}}],\"name\":\"fields-out-of-order\"}}" +
+                "],\"metadata\":{\"resourceVersion\":\"42\"}}";
+
+        for (String json : new String[] { content, edgeCases }) {
+            for (String descriptionField : new String[] { null, "topic-description" }) {
+                StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+                conn.setDescriptionAnnotationField(descriptionField);
+
+                assertEquals(convertWithTree(json, descriptionField), conn.convertStringToTopicMap(json));
+            }
+        }
+    }
+
+    @Test
+    void testPagedListRestartsWhenContinueExpires() throws Exception {
+        AtomicInteger continueRequests = new AtomicInteger();
+        List<String> queries = Collections.synchronizedList(new ArrayList<>());
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            queries.add(query);
+            if (!query.contains("continue=")) {
+                respond(exchange, 200, "{\"items\":[" + topicJson("a") + "," + topicJson("b") + "]," +
+                        "\"metadata\":{\"resourceVersion\":\"7\",\"continue\":\"tok/1=\"}}");
+            } else if (continueRequests.incrementAndGet() == 1) {
+                respond(exchange, 410, "{\"kind\":\"Status\",\"code\":410}");
+            } else {
+                respond(exchange, 200, "{\"items\":[" + topicJson("c") + "],\"metadata\":{\"resourceVersion\":\"7\",\"continue\":\"\"}}");
+            }
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setListPageSize(2);
+
+            Map<String, TopicProperties> topicMap = conn.getStrimziTopicElements();
+
+            assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), topicMap.keySet());
+            assertEquals(Arrays.asList("limit=2", "limit=2&continue=tok%2F1%3D", "limit=2", "limit=2&continue=tok%2F1%3D"), queries);
+            // the items of the abandoned pages are not counted
+            assertEquals(3, conn.getRefreshMetrics().getCount(RefreshMetricsRecorder.ITEMS_PARSED));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testSelectorsAreSentWithEveryPage() throws Exception {
+        List<String> queries = Collections.synchronizedList(new ArrayList<>());
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            queries.add(query);
+            String continueToken = query.contains("continue=") ? "" : "next";
+            respond(exchange, 200, "{\"items\":[" + topicJson(continueToken.isEmpty() ? "b" : "a") + "]," +
+                    "\"metadata\":{\"resourceVersion\":\"3\",\"continue\":\"" + continueToken + "\"}}");
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setListPageSize(1);
+            conn.setSelectors("strimzi.io/cluster=kafka", "metadata.namespace!=test");
+
+            assertEquals(new HashSet<>(Arrays.asList("a", "b")), conn.getStrimziTopicElements().keySet());
+            String selectors = "labelSelector=strimzi.io%2Fcluster%3Dkafka&fieldSelector=metadata.namespace%21%3Dtest";
+            assertEquals(Arrays.asList(selectors + "&limit=1", selectors + "&limit=1&continue=next"), queries);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testUnchangedRefreshIsSkipped() throws Exception {
+        AtomicInteger listRequests = new AtomicInteger();
+        // every request moves the revision of the cluster on, as writes to other resources do
+        AtomicInteger clusterRevision = new AtomicInteger();
+        List<String> watchQueries = Collections.synchronizedList(new ArrayList<>());
+        String[] watchResponse = new String[] { "bookmark" };
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            String revision = Integer.toString(clusterRevision.incrementAndGet());
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null && query.startsWith("watch=true")) {
+                watchQueries.add(query);
+                switch (watchResponse[0]) {
+                    case "modified" -> respond(exchange, 200, "{\"type\":\"MODIFIED\",\"object\":" + topicJson("b") + "}\n");
+                    case "gone" -> respond(exchange, 410, "{\"kind\":\"Status\",\"code\":410}");
+                    default -> respond(exchange, 200, "{\"type\":\"BOOKMARK\",\"object\":{\"metadata\":{\"resourceVersion\":\"" + revision + "\"}}}\n");
+                }
+            } else {
+                listRequests.incrementAndGet();
+                respond(exchange, 200, "{\"items\":[" + topicJson("a") + "," + topicJson("b") + "],\"metadata\":{\"resourceVersion\":\"" + revision + "\"}}");
+            }
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenReturn(new ArrayList<>());
+            when(context.createTopic(any())).thenReturn("guid");
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setSkipUnchangedRefresh(true, 0);
+
+            conn.refresh();
+            assertFalse(conn.isLastRefreshSkipped());
+            assertEquals(1, listRequests.get());
+            verify(context, times(2)).createTopic(any());
+
+            // the list resource version has moved on but the watches report no change to the topics
+            conn.refresh();
+            assertTrue(conn.isLastRefreshSkipped());
+            conn.refresh();
+            assertTrue(conn.isLastRefreshSkipped());
+            assertEquals(2, conn.getSkippedRefreshCount());
+            assertEquals(1, listRequests.get());
+            verify(context, times(1)).getMyTopics(anyInt(), anyInt());
+
+            watchResponse[0] = "modified";
+            conn.refresh();
+            assertFalse(conn.isLastRefreshSkipped());
+            assertEquals(2, listRequests.get());
+            verify(context, times(2)).getMyTopics(anyInt(), anyInt());
+
+            // the synchronized resource version is too old to watch from
+            watchResponse[0] = "gone";
+            conn.refresh();
+            assertFalse(conn.isLastRefreshSkipped());
+            assertEquals(3, listRequests.get());
+
+            // each watch starts from the list or bookmark that went before it
+            assertEquals(Arrays.asList("watch=true&resourceVersion=1&allowWatchBookmarks=true&timeoutSeconds=1",
+                                       "watch=true&resourceVersion=2&allowWatchBookmarks=true&timeoutSeconds=1",
+                                       "watch=true&resourceVersion=3&allowWatchBookmarks=true&timeoutSeconds=1",
+                                       "watch=true&resourceVersion=5&allowWatchBookmarks=true&timeoutSeconds=1"),
+                         watchQueries);
+
+            // a resource version older than the age limit is listed without a probe, which would only find it gone
+            conn.setSkipUnchangedRefresh(true, 1);
+            Thread.sleep(1100);
+            conn.refresh();
+            assertFalse(conn.isLastRefreshSkipped());
+            assertEquals(4, listRequests.get());
+            assertEquals(4, watchQueries.size());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testFailedWriteDoesNotAbortRefresh() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> respond(exchange, 200, "{\"items\":[" + topicJson("a") + "," + topicJson("b") + "," +
+                topicJson("c") + "," + topicJson("d") + "],\"metadata\":{\"resourceVersion\":\"9\"}}"));
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenReturn(new ArrayList<>());
+            when(context.createTopic(any())).thenAnswer(invocation -> {
+                TopicProperties topicProperties = invocation.getArgument(0);
+                if ("c".equals(topicProperties.getQualifiedName())) {
+                    throw new PropertyServerException(StrimziIntegrationConnectorErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition("test", "test", "test"),
+                                                      "test", "createTopic");
+                }
+                return "guid-" + topicProperties.getQualifiedName();
+            });
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setWriteParallelism(3);
+            Map<String, Long> recordedCounts = new ConcurrentHashMap<>();
+            conn.setRefreshMetricsRecorder(new RefreshMetricsRecorder() {
+                @Override
+                public void recordTime(String name, long nanos) {
+                }
+
+                @Override
+                public void increment(String name, long amount) {
+                    recordedCounts.merge(name, amount, Long::sum);
+                }
+            });
+
+            conn.refresh();
+            assertEquals(3, conn.getLastWriteResults().getSucceeded());
+            assertEquals(1, conn.getLastWriteResults().getFailed());
+            verify(context, times(4)).createTopic(any());
+
+            InMemoryRefreshMetrics metrics = conn.getRefreshMetrics();
+            assertEquals(4, metrics.getCount(RefreshMetricsRecorder.ITEMS_PARSED));
+            assertEquals(3, metrics.getCount(RefreshMetricsRecorder.TOPICS_CREATED));
+            assertEquals(1, metrics.getCount(RefreshMetricsRecorder.TOPIC_WRITES_FAILED));
+            assertTrue(metrics.getCount(RefreshMetricsRecorder.BYTES_DOWNLOADED) > 0);
+            for (String phase : Arrays.asList(RefreshMetricsRecorder.REFRESH, RefreshMetricsRecorder.STRIMZI_REQUEST,
+                                              RefreshMetricsRecorder.STRIMZI_PARSE, RefreshMetricsRecorder.CATALOG_READ,
+                                              RefreshMetricsRecorder.DIFF, RefreshMetricsRecorder.CATALOG_WRITE)) {
+                assertEquals(1, metrics.getHistogram(phase).getCount(), phase);
+            }
+            assertEquals(Long.valueOf(3), recordedCounts.get(RefreshMetricsRecorder.TOPICS_CREATED));
+
+            // the refresh is not skipped so the failed topic is retried; the list is unchanged so only it is retried
+            conn.refresh();
+            assertFalse(conn.isLastRefreshSkipped());
+            verify(context, times(5)).createTopic(any());
+            conn.disconnect();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testTopicCreatedFromTemplateIsUpdatedNextRefresh() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> respond(exchange, 200, "{\"items\":[" + topicJson("a") + "," + topicJson("b") +
+                "],\"metadata\":{\"resourceVersion\":\"9\"}}"));
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            // topics created from the template have the template's properties
+            Map<String, TopicElement> catalog = new ConcurrentHashMap<>();
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenAnswer(invocation -> new ArrayList<>(catalog.values()));
+            when(context.createTopicFromTemplate(eq("template-guid"), any())).thenAnswer(invocation -> {
+                String topicName = invocation.getArgument(1, TemplateProperties.class).getQualifiedName();
+                catalog.put(topicName, topicElement("guid-" + topicName, topicName, null));
+                return "guid-" + topicName;
+            });
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setSkipUnchangedRefresh(true, 0);
+            conn.setTemplate("template-guid", "template");
+
+            conn.refresh();
+            verify(context, times(2)).createTopicFromTemplate(eq("template-guid"), any());
+            verify(context, times(0)).updateTopic(any(), anyBoolean(), any());
+
+            // the catalogued topics have the template's properties, so they are updated from Strimzi
+            conn.refresh();
+            assertFalse(conn.isLastRefreshSkipped());
+            verify(context, times(1)).updateTopic(eq("guid-a"), eq(false), any());
+            verify(context, times(1)).updateTopic(eq("guid-b"), eq(false), any());
+
+            conn.refresh();
+            assertTrue(conn.isLastRefreshSkipped());
+            verify(context, times(2)).updateTopic(any(), anyBoolean(), any());
+            verify(context, times(2)).createTopicFromTemplate(eq("template-guid"), any());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testSnapshotReplacesCatalogOnFirstRefresh() throws Exception {
+        List<String> topicNames = Collections.synchronizedList(new ArrayList<>(Arrays.asList("a", "b")));
+        String[] resourceVersion = new String[] { "5" };
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            if (respondToWatch(exchange, resourceVersion[0])) {
+                return;
+            }
+            StringJoiner items = new StringJoiner(",");
+            topicNames.forEach(name -> items.add(topicJson(name)));
+            respond(exchange, 200, "{\"items\":[" + items + "],\"metadata\":{\"resourceVersion\":\"" + resourceVersion[0] + "\"}}");
+        });
+        server.start();
+        Path snapshotFile = Files.createTempDirectory("strimzi-snapshot").resolve("topics.snapshot");
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            String targetURL = "http://localhost:" + server.getAddress().getPort() + "/topics";
+
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenReturn(new ArrayList<>());
+            when(context.createTopic(any())).thenAnswer(invocation -> "guid-" + ((TopicProperties) invocation.getArgument(0)).getQualifiedName());
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL(targetURL);
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setSnapshotFile(snapshotFile);
+            conn.refresh();
+            assertTrue(Files.exists(snapshotFile));
+
+            // a restart with a new topic only creates that topic and does not read the catalog
+            topicNames.add("c");
+            resourceVersion[0] = "6";
+            TopicIntegratorContext restartedContext = mock(TopicIntegratorContext.class);
+            when(restartedContext.createTopic(any())).thenReturn("guid-c");
+            conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL(targetURL);
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(restartedContext);
+            conn.setSnapshotFile(snapshotFile);
+            conn.refresh();
+            verify(restartedContext, times(0)).getMyTopics(anyInt(), anyInt());
+            verify(restartedContext, times(1)).createTopic(any());
+            assertEquals(Collections.singleton("c"), conn.getaddTopicNamesSet());
+            assertTrue(conn.getupdateTopicNameToGuidMap().isEmpty());
+
+            // a corrupted snapshot falls back to a full synchronization
+            byte[] bytes = Files.readAllBytes(snapshotFile);
+            bytes[bytes.length - 1] ^= 0x5a;
+            Files.write(snapshotFile, bytes);
+            TopicIntegratorContext fallbackContext = mock(TopicIntegratorContext.class);
+            when(fallbackContext.getMyTopics(anyInt(), anyInt())).thenReturn(new ArrayList<>());
+            conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL(targetURL);
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(fallbackContext);
+            conn.setSnapshotFile(snapshotFile);
+            conn.refresh();
+            assertFalse(conn.isLastRefreshSkipped());
+            verify(fallbackContext, times(1)).getMyTopics(anyInt(), anyInt());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testClustersAreReconciledIndependently() throws Exception {
+        List<String> westTopics = Collections.synchronizedList(new ArrayList<>());
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/east", exchange -> respond(exchange, 200, "{\"items\":[" + topicJson("x") + "," + topicJson("shared") +
+                "],\"metadata\":{\"resourceVersion\":\"1\"}}"));
+        server.createContext("/west", exchange -> {
+            if (westTopics.isEmpty()) {
+                respond(exchange, 500, "{}");
+                return;
+            }
+            StringJoiner items = new StringJoiner(",");
+            westTopics.forEach(name -> items.add(topicJson(name)));
+            respond(exchange, 200, "{\"items\":[" + items + "],\"metadata\":{\"resourceVersion\":\"1\"}}");
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(4, 30, 5000, 5000, 10, 60)) {
+            // the catalog holds a topic from each cluster and records the topics the connector creates and removes
+            Map<String, TopicElement> catalog = new ConcurrentHashMap<>();
+            catalog.put("w1", topicElement("guid-w1", "w1", "west"));
+            catalog.put("e-old", topicElement("guid-e-old", "e-old", "east"));
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenAnswer(invocation -> new ArrayList<>(catalog.values()));
+            when(context.createTopic(any())).thenAnswer(invocation -> {
+                TopicProperties topicProperties = invocation.getArgument(0);
+                String guid = "guid-" + topicProperties.getQualifiedName();
+                TopicElement topicElement = topicElement(guid, topicProperties.getQualifiedName(), null);
+                topicElement.setProperties(topicProperties);
+                catalog.put(topicProperties.getQualifiedName(), topicElement);
+                return guid;
+            });
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            String baseURL = "http://localhost:" + server.getAddress().getPort();
+            conn.setClusters(Arrays.asList(new StrimziCluster("east", baseURL + "/east", "t1", TopicNameFilter.ACCEPT_ALL, null, null),
+                                           new StrimziCluster("west", baseURL + "/west", "t2", TopicNameFilter.ACCEPT_ALL, null, null)));
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setRetryPolicy(new RetryPolicy(0, 0, 0));
+
+            // the failing cluster is reported but does not stop the other, and its topics are left alone
+            assertThrows(ConnectorCheckedException.class, conn::refresh);
+            verify(context, times(2)).createTopic(any());
+            verify(context, times(1)).removeTopic(eq("guid-e-old"), eq("e-old"));
+            verify(context, times(0)).removeTopic(eq("guid-w1"), any());
+            assertEquals("east", catalog.get("x").getProperties().getAdditionalProperties().get(StrimziCluster.CLUSTER_PROPERTY));
+
+            // east is unchanged; west updates its own topic and leaves the topic catalogued from east
+            catalog.remove("e-old");
+            westTopics.addAll(Arrays.asList("w1", "shared"));
+            conn.refresh();
+            verify(context, times(2)).createTopic(any());
+            verify(context, times(1)).updateTopic(eq("guid-w1"), eq(false), any());
+            assertEquals(Collections.singleton("w1"), conn.getupdateTopicNameToGuidMap().keySet());
+            assertTrue(conn.getaddTopicNamesSet().isEmpty());
+            conn.disconnect();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testMetadataListRemovesDeletedTopics() throws Exception {
+        List<String> topics = Collections.synchronizedList(new ArrayList<>(Arrays.asList("a", "b")));
+        List<String> lists = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger resourceVersion = new AtomicInteger(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            if (respondToWatch(exchange, Integer.toString(resourceVersion.get()))) {
+                return;
+            }
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            boolean metadataOnly = accept.contains("as=PartialObjectMetadataList");
+            StringJoiner items = new StringJoiner(",");
+            for (String name : topics) {
+                items.add(metadataOnly ? "{\"kind\":\"PartialObjectMetadata\",\"metadata\":{\"name\":\"" + name + "\"}}" : topicJson(name));
+            }
+            lists.add(metadataOnly ? "metadata" : "full");
+            respond(exchange, 200, "{\"items\":[" + items + "],\"metadata\":{\"resourceVersion\":\"" + resourceVersion.get() + "\"}}");
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            Map<String, TopicElement> catalog = new ConcurrentHashMap<>();
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenAnswer(invocation -> new ArrayList<>(catalog.values()));
+            when(context.createTopic(any())).thenAnswer(invocation -> {
+                TopicProperties topicProperties = invocation.getArgument(0);
+                String guid = "guid-" + topicProperties.getQualifiedName();
+                catalog.put(topicProperties.getQualifiedName(), topicElement(guid, topicProperties.getQualifiedName(), null));
+                return guid;
+            });
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setFullListInterval(3);
+
+            conn.refresh();
+            verify(context, times(2)).createTopic(any());
+
+            // the names are enough to remove a deleted topic; the added topic waits for the next full list
+            topics.remove("b");
+            topics.add("c");
+            resourceVersion.incrementAndGet();
+            conn.refresh();
+            verify(context, times(1)).removeTopic(eq("guid-b"), eq("b"));
+            verify(context, times(2)).createTopic(any());
+            catalog.remove("b");
+            conn.refresh();
+            conn.refresh();
+            verify(context, times(3)).createTopic(any());
+            verify(context, times(1)).removeTopic(any(), any());
+            assertEquals(Arrays.asList("full", "metadata", "metadata", "full"), lists);
+            conn.disconnect();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testWatcherRelistsInFullAfterGone() throws Exception {
+        List<String> lists = Collections.synchronizedList(new ArrayList<>());
+        List<String> watchedFrom = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch watching = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null && query.startsWith("watch=true")) {
+                String resourceVersion = query.replaceAll(".*resourceVersion=([^&]*).*", "$1");
+                watchedFrom.add(resourceVersion);
+                if ("1".equals(resourceVersion)) {
+                    respond(exchange, 410, "{\"kind\":\"Status\",\"code\":410}");
+                    return;
+                }
+                watching.countDown();
+                respond(exchange, 200, "{\"type\":\"BOOKMARK\",\"object\":{\"metadata\":{\"resourceVersion\":\"" + resourceVersion + "\"}}}\n");
+                return;
+            }
+            boolean metadataOnly = exchange.getRequestHeaders().getFirst("Accept").contains("as=PartialObjectMetadataList");
+            lists.add(metadataOnly ? "metadata" : "full");
+            String item = metadataOnly ? "{\"kind\":\"PartialObjectMetadata\",\"metadata\":{\"name\":\"a\"}}" : topicJson("a");
+            respond(exchange, 200, "{\"items\":[" + item + "],\"metadata\":{\"resourceVersion\":\"" + lists.size() + "\"}}");
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenAnswer(invocation -> new ArrayList<>());
+            when(context.createTopic(any())).thenReturn("guid-a");
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setFullListInterval(3);
+            conn.setSyncMode(StrimziMonitorIntegrationProvider.SYNC_MODE_WATCH);
+            conn.refresh();
+            try {
+                // the version of the first list is too old, so the topics are listed in full again for a new one
+                assertTrue(watching.await(10, TimeUnit.SECONDS));
+            } finally {
+                conn.disconnect();
+            }
+            assertEquals(Arrays.asList("full", "full"), lists);
+            assertEquals(Arrays.asList("1", "2"), watchedFrom.subList(0, 2));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testDryRunWritesPlanWithoutChangingCatalog() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> respond(exchange, 200, "{\"items\":[" + topicJson("a") + "," + topicJson("b") +
+                "],\"metadata\":{\"resourceVersion\":\"1\"}}"));
+        server.start();
+        Path planFile = Files.createTempDirectory("strimzi-plan").resolve("plan.jsonl");
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenReturn(Arrays.asList(topicElement("guid-a", "a", null),
+                                                                                   topicElement("guid-old", "old", null)));
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setDryRun(true, planFile);
+
+            // the catalog is unchanged, so a second refresh is not skipped and plans the same changes
+            conn.refresh();
+            conn.refresh();
+            verify(context, times(2)).getMyTopics(anyInt(), anyInt());
+            verify(context, times(0)).createTopic(any());
+            verify(context, times(0)).updateTopic(any(), anyBoolean(), any());
+            verify(context, times(0)).removeTopic(any(), any());
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            List<JsonNode> plan = new ArrayList<>();
+            for (String line : Files.readAllLines(planFile)) {
+                plan.add(objectMapper.readTree(line));
+            }
+            assertEquals(4, plan.size());
+            assertEquals("update", plan.get(0).get("action").asText());
+            assertEquals("a", plan.get(0).get("topic").asText());
+            assertEquals("guid-a", plan.get(0).get("guid").asText());
+            JsonNode change = null;
+            for (JsonNode planChange : plan.get(0).get("changes")) {
+                if (StrimziMonitorIntegrationConnector.PARTITIONS.equals(planChange.get("field").asText())) {
+                    change = planChange;
+                }
+            }
+            assertTrue(change.get("from").isNull());
+            assertEquals("1", change.get("to").asText());
+            assertEquals("delete", plan.get(1).get("action").asText());
+            assertEquals("guid-old", plan.get(1).get("guid").asText());
+            assertEquals("create", plan.get(2).get("action").asText());
+            assertEquals("b", plan.get(2).get("topic").asText());
+            assertEquals("1", plan.get(2).get("extendedProperties").get(StrimziMonitorIntegrationConnector.REPLICAS).asText());
+            JsonNode summary = plan.get(3).get("summary");
+            assertEquals(3, summary.get("calls").asInt());
+            assertTrue(summary.get("estimatedWriteSeconds").asDouble() >= 0);
+            conn.disconnect();
+        } finally {
+            server.stop(0);
+            Files.deleteIfExists(planFile);
+            Files.deleteIfExists(planFile.getParent());
+        }
+    }
+
+    @Test
+    void testShardsDivideTopicsAndOnlyRemoveTheirOwn() throws Exception {
+        List<String> topics = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            topics.add("t" + i);
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            if (respondToWatch(exchange, Integer.toString(topics.size()))) {
+                return;
+            }
+            StringJoiner items = new StringJoiner(",");
+            for (String name : topics) {
+                items.add(topicJson(name));
+            }
+            respond(exchange, 200, "{\"items\":[" + items + "],\"metadata\":{\"resourceVersion\":\"" + topics.size() + "\"}}");
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            // the instances share the catalog
+            Map<String, TopicElement> catalog = new ConcurrentHashMap<>();
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenAnswer(invocation -> new ArrayList<>(catalog.values()));
+            when(context.createTopic(any())).thenAnswer(invocation -> {
+                TopicProperties topicProperties = invocation.getArgument(0);
+                String guid = "guid-" + topicProperties.getQualifiedName();
+                catalog.put(topicProperties.getQualifiedName(), topicElement(guid, topicProperties.getQualifiedName(), null));
+                return guid;
+            });
+            List<StrimziMonitorIntegrationConnector> instances = new ArrayList<>();
+            for (int shardIndex = 0; shardIndex < 2; shardIndex++) {
+                StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+                conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+                conn.setRestClient(restClient);
+                conn.setTopicIntegratorContext(context);
+                conn.setTopicShard(new TopicShard(shardIndex, 2));
+                instances.add(conn);
+            }
+            instances.get(0).refresh();
+            int firstShardTopics = catalog.size();
+            assertTrue(firstShardTopics > 0 && firstShardTopics < topics.size());
+            instances.get(1).refresh();
+            assertEquals(topics.size(), catalog.size());
+            verify(context, times(topics.size())).createTopic(any());
+            verify(context, times(0)).removeTopic(any(), any());
+
+            // a deleted topic is only removed by the instance whose shard it is in
+            String deleted = TopicShard.getShard("t0", 2) == 0 ? "t0" : "t1";
+            int owner = TopicShard.getShard(deleted, 2);
+            topics.remove(deleted);
+            instances.get(1 - owner).refresh();
+            verify(context, times(0)).removeTopic(any(), any());
+            instances.get(owner).refresh();
+            verify(context, times(1)).removeTopic(eq("guid-" + deleted), eq(deleted));
+            for (StrimziMonitorIntegrationConnector conn : instances) {
+                conn.disconnect();
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testWriteBudgetCarriesBacklogToNextRefresh() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            StringJoiner items = new StringJoiner(",");
+            for (int i = 0; i < 5; i++) {
+                items.add(topicJson("t" + i));
+            }
+            respond(exchange, 200, "{\"items\":[" + items + "],\"metadata\":{\"resourceVersion\":\"1\"}}");
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            Map<String, TopicElement> catalog = new ConcurrentHashMap<>();
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenAnswer(invocation -> new ArrayList<>(catalog.values()));
+            when(context.createTopic(any())).thenAnswer(invocation -> {
+                TopicProperties topicProperties = invocation.getArgument(0);
+                String guid = "guid-" + topicProperties.getQualifiedName();
+                // catalog the properties as sent so that the topics are up to date
+                TopicElement topicElement = topicElement(guid, topicProperties.getQualifiedName(), null);
+                topicElement.setProperties(topicProperties);
+                catalog.put(topicProperties.getQualifiedName(), topicElement);
+                return guid;
+            });
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setSkipUnchangedRefresh(true, 0);
+            conn.setWriteLimits(new WriteRateLimiter(20, 1, System::nanoTime), 2);
+
+            int[] expectedBacklogs = {3, 1, 0};
+            for (int refresh = 0; refresh < expectedBacklogs.length; refresh++) {
+                conn.refresh();
+                assertEquals(5 - expectedBacklogs[refresh], catalog.size());
+                assertEquals(expectedBacklogs[refresh], conn.getRefreshMetrics().getValue(RefreshMetricsRecorder.WRITE_BACKLOG));
+            }
+            verify(context, times(5)).createTopic(any());
+            // the limiter holds the writes after the first to its rate
+            assertTrue(conn.getRefreshMetrics().getHistogram(RefreshMetricsRecorder.WRITE_THROTTLE).getCount() > 0);
+
+            // with the backlog cleared the topics are unchanged, so the next refresh is skipped
+            conn.refresh();
+            assertTrue(conn.isLastRefreshSkipped());
+            conn.disconnect();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testRestartResumesCheckpointAndQuarantinesPoisonTopic() throws Exception {
+        AtomicInteger fullLists = new AtomicInteger();
+        AtomicInteger watches = new AtomicInteger();
+        // the list resource version moves on with every list while the topics stay as they were at the first
+        AtomicInteger clusterRevision = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            if (respondToWatch(exchange, "1")) {
+                watches.incrementAndGet();
+                return;
+            }
+            fullLists.incrementAndGet();
+            respond(exchange, 200, "{\"items\":[" + topicJson("a") + "," + topicJson("bad") + "," + topicJson("b") +
+                    "],\"metadata\":{\"resourceVersion\":\"" + clusterRevision.incrementAndGet() + "\"}}");
+        });
+        server.start();
+        Path checkpointDirectory = Files.createTempDirectory("strimzi-checkpoint");
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            Map<String, TopicElement> catalog = new ConcurrentHashMap<>();
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenAnswer(invocation -> new ArrayList<>(catalog.values()));
+            when(context.createTopic(any())).thenAnswer(invocation -> {
+                TopicProperties topicProperties = invocation.getArgument(0);
+                if ("bad".equals(topicProperties.getQualifiedName())) {
+                    throw new PropertyServerException(StrimziIntegrationConnectorErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition("test", "test", "test"),
+                                                      "test", "createTopic");
+                }
+                String guid = "guid-" + topicProperties.getQualifiedName();
+                TopicElement topicElement = topicElement(guid, topicProperties.getQualifiedName(), null);
+                topicElement.setProperties(topicProperties);
+                catalog.put(topicProperties.getQualifiedName(), topicElement);
+                return guid;
+            });
+            String targetURL = "http://localhost:" + server.getAddress().getPort() + "/topics";
+
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL(targetURL);
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setCheckpoints(checkpointDirectory, 2);
+            conn.refresh();
+            assertEquals(2, catalog.size());
+            assertEquals(1, fullLists.get());
+            conn.disconnect();
+
+            // the connector stopped after creating "a" but before recording it
+            try (DirectoryStream<Path> checkpointFiles = Files.newDirectoryStream(checkpointDirectory)) {
+                for (Path checkpointFile : checkpointFiles) {
+                    List<String> lines = new ArrayList<>(Files.readAllLines(checkpointFile));
+                    assertTrue(lines.remove("{\"done\":\"a\"}"));
+                    Files.write(checkpointFile, lines);
+                }
+            }
+            when(context.getTopicsByName(any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+                TopicElement topicElement = catalog.get(invocation.<String>getArgument(0));
+                return topicElement == null ? new ArrayList<>() : new ArrayList<>(Collections.singletonList(topicElement));
+            });
+
+            // after the restart only the changes still to do are tried, without listing the topics again
+            StrimziMonitorIntegrationConnector restarted = new StrimziMonitorIntegrationConnector();
+            restarted.setTargetURL(targetURL);
+            restarted.setRestClient(new StrimziRestClient(2, 30, 5000, 5000, 10, 60));
+            restarted.setTopicIntegratorContext(context);
+            restarted.setSkipUnchangedRefresh(true, 0);
+            restarted.setCheckpoints(checkpointDirectory, 2);
+            restarted.refresh();
+            assertEquals(1, fullLists.get());
+            assertEquals(1, watches.get());
+            // "a" was found in the catalog, so it is updated rather than created again
+            verify(context, times(4)).createTopic(any());
+            verify(context).updateTopic(eq("guid-a"), anyBoolean(), any());
+            assertEquals(2, catalog.size());
+            assertEquals(1, restarted.getRefreshMetrics().getCount(RefreshMetricsRecorder.TOPICS_QUARANTINED));
+
+            // the change was quarantined so the cluster is synchronized and the next refresh is skipped
+            restarted.refresh();
+            assertTrue(restarted.isLastRefreshSkipped());
+            assertEquals(2, watches.get());
+            verify(context, times(4)).createTopic(any());
+            restarted.disconnect();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testWatcherListsOnRestartWithPendingCheckpoint() throws Exception {
+        AtomicInteger fullLists = new AtomicInteger();
+        List<String> watchedFrom = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch watching = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null && query.startsWith("watch=true")) {
+                String resourceVersion = query.replaceAll(".*resourceVersion=([^&]*).*", "$1");
+                watchedFrom.add(resourceVersion);
+                if ("2".equals(resourceVersion)) {
+                    watching.countDown();
+                }
+                respond(exchange, 200, "{\"type\":\"BOOKMARK\",\"object\":{\"metadata\":{\"resourceVersion\":\"" + resourceVersion + "\"}}}\n");
+                return;
+            }
+            respond(exchange, 200, "{\"items\":[" + topicJson("a") + "," + topicJson("bad") +
+                    "],\"metadata\":{\"resourceVersion\":\"" + fullLists.incrementAndGet() + "\"}}");
+        });
+        server.start();
+        Path checkpointDirectory = Files.createTempDirectory("strimzi-checkpoint");
+        try (StrimziRestClient restClient = new StrimziRestClient(2, 30, 5000, 5000, 10, 60)) {
+            Map<String, TopicElement> catalog = new ConcurrentHashMap<>();
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenAnswer(invocation -> new ArrayList<>(catalog.values()));
+            when(context.createTopic(any())).thenAnswer(invocation -> {
+                TopicProperties topicProperties = invocation.getArgument(0);
+                if ("bad".equals(topicProperties.getQualifiedName())) {
+                    throw new PropertyServerException(StrimziIntegrationConnectorErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition("test", "test", "test"),
+                                                      "test", "createTopic");
+                }
+                TopicElement topicElement = topicElement("guid-" + topicProperties.getQualifiedName(), topicProperties.getQualifiedName(), null);
+                topicElement.setProperties(topicProperties);
+                catalog.put(topicProperties.getQualifiedName(), topicElement);
+                return topicElement.getElementHeader().getGUID();
+            });
+            String targetURL = "http://localhost:" + server.getAddress().getPort() + "/topics";
+
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL(targetURL);
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setCheckpoints(checkpointDirectory, 0);
+            conn.refresh();
+            assertEquals(1, catalog.size());
+            conn.disconnect();
+
+            // the work list still has the failing change, but the watcher lists the topics so that it has a version to watch from
+            StrimziMonitorIntegrationConnector restarted = new StrimziMonitorIntegrationConnector();
+            restarted.setTargetURL(targetURL);
+            restarted.setRestClient(new StrimziRestClient(2, 30, 5000, 5000, 10, 60));
+            restarted.setTopicIntegratorContext(context);
+            restarted.setCheckpoints(checkpointDirectory, 0);
+            restarted.setSyncMode(StrimziMonitorIntegrationProvider.SYNC_MODE_WATCH);
+            restarted.refresh();
+            try {
+                assertTrue(watching.await(10, TimeUnit.SECONDS));
+            } finally {
+                restarted.disconnect();
+            }
+            assertEquals(2, fullLists.get());
+            assertEquals("2", watchedFrom.get(0));
+            verify(context, times(3)).createTopic(any());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testUnavailableServerIsRetriedAndThenSuspended() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger failuresToSend = new AtomicInteger(2);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics", exchange -> {
+            requests.incrementAndGet();
+            if (failuresToSend.getAndDecrement() > 0) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                respond(exchange, 503, "{}");
+                return;
+            }
+            respond(exchange, 200, "{\"items\":[" + topicJson("t1") + "],\"metadata\":{\"resourceVersion\":\"1\"}}");
+        });
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(4, 30, 5000, 5000, 10, 60)) {
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            when(context.getMyTopics(anyInt(), anyInt())).thenReturn(null);
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + server.getAddress().getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setSkipUnchangedRefresh(true, 0);
+            conn.setRetryPolicy(new RetryPolicy(2, 1, 10));
+            conn.setCircuitBreaker(2, 500);
+
+            // two throttled responses are retried within the refresh
+            conn.refresh();
+            assertEquals(3, requests.get());
+            assertEquals(2L, conn.getRefreshMetrics().getCount(RefreshMetricsRecorder.REQUEST_RETRIES));
+            verify(context, times(1)).createTopic(any());
+
+            // once the retries of the probe are used up in two refreshes the breaker opens and the next refresh does not call the server
+            failuresToSend.set(Integer.MAX_VALUE);
+            assertThrows(ConnectorCheckedException.class, conn::refresh);
+            assertThrows(ConnectorCheckedException.class, conn::refresh);
+            assertEquals(9, requests.get());
+            conn.refresh();
+            assertEquals(9, requests.get());
+            assertEquals(1L, conn.getRefreshMetrics().getCount(RefreshMetricsRecorder.READS_SUSPENDED));
+            verify(context, times(0)).removeTopic(any(), any());
+
+            // after the open period a successful probe closes the breaker
+            Thread.sleep(600);
+            failuresToSend.set(0);
+            conn.refresh();
+            assertEquals(10, requests.get());
+            assertTrue(conn.isLastRefreshSkipped());
+            failuresToSend.set(Integer.MAX_VALUE);
+            assertThrows(ConnectorCheckedException.class, conn::refresh);
+            assertEquals(13, requests.get());
+            conn.disconnect();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testCompressedListOverHttp2() throws Exception {
+        List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        Set<String> clientAddresses = ConcurrentHashMap.newKeySet();
+        HttpAsyncServer server = H2ServerBootstrap.bootstrap()
+                                                  .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_2)
+                                                  .register("*", new AsyncServerRequestHandler<Message<HttpRequest, Void>>() {
+            @Override
+            public AsyncRequestConsumer<Message<HttpRequest, Void>> prepare(HttpRequest request, EntityDetails entityDetails, HttpContext context) {
+                return new BasicRequestConsumer<>(new DiscardingEntityConsumer<>());
+            }
+
+            @Override
+            public void handle(Message<HttpRequest, Void> message, ResponseTrigger responseTrigger, HttpContext context) throws HttpException, IOException {
+                HttpRequest request = message.getHead();
+                HttpCoreContext coreContext = HttpCoreContext.adapt(context);
+                clientAddresses.add(coreContext.getEndpointDetails().getRemoteAddress().toString());
+                requests.add(coreContext.getProtocolVersion() + " " + request.getFirstHeader("Accept-Encoding").getValue());
+                String body = request.getPath().contains("continue=page2")
+                        ? "{\"items\":[" + topicJson("t2") + "],\"metadata\":{\"resourceVersion\":\"7\"}}"
+                        : "{\"items\":[" + topicJson("t1") + "],\"metadata\":{\"resourceVersion\":\"7\",\"continue\":\"page2\"}}";
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+                    gzipOutputStream.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+                BasicHttpResponse response = new BasicHttpResponse(200);
+                response.addHeader("Content-Encoding", "gzip");
+                responseTrigger.submitResponse(new BasicResponseProducer(response, new BasicAsyncEntityProducer(compressed.toByteArray(),
+                                                                                                                ContentType.APPLICATION_JSON)),
+                                               context);
+            }
+        }).create();
+        server.start();
+        try (StrimziRestClient restClient = new StrimziRestClient(4, 30, 5000, 5000, 10, 60, true, HttpVersionPolicy.FORCE_HTTP_2)) {
+            InetSocketAddress address = (InetSocketAddress) server.listen(new InetSocketAddress("localhost", 0), URIScheme.HTTP).get().getAddress();
+            TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+            StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+            conn.setTargetURL("http://localhost:" + address.getPort() + "/topics");
+            conn.setRestClient(restClient);
+            conn.setTopicIntegratorContext(context);
+            conn.setSkipUnchangedRefresh(true, 0);
+            conn.setListPageSize(1);
+
+            // both pages are inflated and parsed, then the probe of the next refresh finds the list unchanged
+            conn.refresh();
+            verify(context, times(2)).createTopic(any());
+            conn.refresh();
+            assertTrue(conn.isLastRefreshSkipped());
+            assertEquals(Collections.nCopies(3, HttpVersion.HTTP_2 + " gzip"), requests);
+            // the connection is reused; it goes back to the pool on the I/O thread, so a request sent at once may open another
+            assertTrue(clientAddresses.size() < requests.size());
+            conn.disconnect();
+        } finally {
+            server.close(CloseMode.IMMEDIATE);
+        }
+    }
+
+    private static TopicElement topicElement(String guid, String topicName, String cluster) {
+        TopicProperties topicProperties = new TopicProperties();
+        topicProperties.setQualifiedName(topicName);
+        if (cluster != null) {
+            topicProperties.setAdditionalProperties(Collections.singletonMap(StrimziCluster.CLUSTER_PROPERTY, cluster));
+        }
+        ElementHeader elementHeader = new ElementHeader();
+        elementHeader.setGUID(guid);
+        TopicElement topicElement = new TopicElement();
+        topicElement.setElementHeader(elementHeader);
+        topicElement.setProperties(topicProperties);
+        return topicElement;
+    }
+
+    static String topicJson(String name) {
+        return "{\"metadata\":{\"name\":\"" + name + "\"},\"spec\":{\"partitions\":1,\"replicas\":1}}";
+    }
+
+    /**
+     * Answer a watch request the way the API server does when the topics last changed at the given resource
+     * version: a watch from that version only receives a bookmark, and a watch from any other sees a change.
+     *
+     * @return true if the request was a watch
+     */
+    static boolean respondToWatch(HttpExchange exchange, String resourceVersion) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || !query.startsWith("watch=true")) {
+            return false;
+        }
+        if (query.contains("&resourceVersion=" + resourceVersion + "&")) {
+            respond(exchange, 200, "{\"type\":\"BOOKMARK\",\"object\":{\"metadata\":{\"resourceVersion\":\"" + resourceVersion + "\"}}}\n");
+        } else {
+            respond(exchange, 200, "{\"type\":\"MODIFIED\",\"object\":" + topicJson("changed") + "}\n");
+        }
+        return true;
+    }
+
+    static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    /**
+     * Reference implementation of the original tree based conversion, used to check the streaming parser.
+     */
+    private Map<String, TopicProperties> convertWithTree(String jsonString, String descriptionAnnotationField) throws IOException {
+        Map<String, TopicProperties> topicMap = new HashMap<>();
+        JsonNode items = new ObjectMapper().readTree(jsonString).path("items");
+        for (JsonNode node : items) {
+            String statusTopicName = null;
+            String topicName = null;
+            JsonNode statusNode = node.path("status");
+            if (statusNode.isObject()) {
+                statusTopicName = statusNode.path("topicName").asText();
+            }
+            JsonNode metadataNode = node.path("metadata");
+            if (metadataNode.isObject()) {
+                topicName = metadataNode.path("name").asText();
+            }
+            if (topicName == null || topicName.isEmpty() || (statusTopicName != null && statusTopicName.startsWith("__"))) {
+                continue;
+            }
+            Integer partitions = null;
+            Integer replicas = null;
+            JsonNode specNode = node.path("spec");
+            if (specNode.isObject()) {
+                try {
+                    partitions = Integer.parseInt(String.valueOf(specNode.path("partitions")));
+                } catch (NumberFormatException nfe) {
+                    // leave as null
+                }
+                try {
+                    replicas = Integer.parseInt(String.valueOf(specNode.path("replicas")));
+                } catch (NumberFormatException nfe) {
+                    // leave as null
+                }
+            }
+            String description = String.format("No description available for the topic '%s'.", topicName);
+            if (descriptionAnnotationField != null) {
+                String annotation = metadataNode.path("annotations").path(descriptionAnnotationField).asText();
+                if (!annotation.equals("")) {
+                    description = annotation;
+                }
+            }
+            TopicProperties topicProperties = new TopicProperties();
+            topicProperties.setDescription(description);
+            topicProperties.setQualifiedName(topicName);
+            topicProperties.setDisplayName(topicName);
+            topicProperties.setTypeName("KafkaTopic");
+            Map<String, Object> extendedProperties = new HashMap<>();
+            if (partitions != null) {
+                extendedProperties.put("partitions", partitions);
+            }
+            if (replicas != null) {
+                extendedProperties.put("replicas", replicas);
+            }
+            topicProperties.setExtendedProperties(extendedProperties);
+            Map<String, String> additionalProperties = new HashMap<>();
+            additionalProperties.put(TopicFingerprint.FINGERPRINT_PROPERTY, TopicFingerprint.compute(topicProperties));
+            topicProperties.setAdditionalProperties(additionalProperties);
+            topicMap.put(topicName, topicProperties);
+        }
+        return topicMap;
+    }
+
     @Test
     void testdetermineMutations() throws IOException, ConnectorCheckedException {
         String textPath = "src/test/resources/SampleGetResponse.json";
@@ -144,6 +1241,84 @@ public class StrimziMonitorIntegrationConnectorTest
 
     }
 
+    @Test
+    void testFingerprintDecidesUpdate() throws Exception {
+        String content = Files.readString(Paths.get("src/test/resources/SampleGetResponse.json"));
+        StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+        TopicProperties strimziTopic = conn.convertStringToTopicMap(content).get(EXPECTED_NAMES[0]);
+        String fingerprint = TopicFingerprint.get(strimziTopic);
+        assertEquals(16, fingerprint.length());
+
+        // the fingerprint does not depend on the order of the extended properties
+        TopicProperties reordered = new TopicProperties();
+        reordered.setDescription(strimziTopic.getDescription());
+        reordered.setName(strimziTopic.getName());
+        reordered.setTypeName(strimziTopic.getTypeName());
+        Map<String, Object> reversedExtendedProperties = new TreeMap<>(Comparator.reverseOrder());
+        reversedExtendedProperties.putAll(strimziTopic.getExtendedProperties());
+        reordered.setExtendedProperties(reversedExtendedProperties);
+        reordered.setAdditionalProperties(strimziTopic.getAdditionalProperties());
+        assertEquals(fingerprint, TopicFingerprint.compute(reordered));
+
+        assertFalse(conn.updateRequired(strimziTopic, new CataloguedTopic("guid", strimziTopic)));
+        // topics catalogued without a fingerprint are updated to add one
+        assertTrue(conn.updateRequired(strimziTopic, new CataloguedTopic("guid",
+                                                                         strimziTopic.getDescription(),
+                                                                         strimziTopic.getExtendedProperties(),
+                                                                         null)));
+
+        Map<String, Object> extendedProperties = new HashMap<>(strimziTopic.getExtendedProperties());
+        extendedProperties.put(StrimziMonitorIntegrationConnector.PARTITIONS, 99);
+        reordered.setExtendedProperties(extendedProperties);
+        assertNotEquals(fingerprint, TopicFingerprint.compute(reordered));
+    }
+
+    @Test
+    void testSyncedAttributesAreCatalogued() throws Exception {
+        String content = Files.readString(Paths.get("src/test/resources/SampleGetResponse.json"));
+        String topicName = "vertriebskunde-services.agree-kundendaten-compacted";
+        StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+        TopicProperties unsyncedTopic = conn.convertStringToTopicMap(content).get(topicName);
+        conn.setAttributeModel(new TopicAttributeModel(Arrays.asList("cleanup.policy", "retention.ms", "segment.bytes"),
+                                                       Collections.singletonList("conditions.Ready")));
+        TopicProperties strimziTopic = conn.convertStringToTopicMap(content).get(topicName);
+
+        assertEquals("compact", strimziTopic.getAdditionalProperties().get("config.cleanup.policy"));
+        assertEquals("-1", strimziTopic.getAdditionalProperties().get("config.retention.ms"));
+        assertFalse(strimziTopic.getAdditionalProperties().containsKey("config.segment.bytes"));
+        assertEquals("True", strimziTopic.getAdditionalProperties().get("status.conditions.Ready"));
+        // topics catalogued before the attributes were synced are updated to add them
+        assertTrue(conn.updateRequired(strimziTopic, new CataloguedTopic("guid", unsyncedTopic)));
+        assertFalse(conn.updateRequired(strimziTopic, new CataloguedTopic("guid", strimziTopic)));
+    }
+
+    @Test
+    void testCataloguedTopicsArePaged() throws Exception {
+        String content = Files.readString(Paths.get("src/test/resources/SampleGetResponse.json"));
+        StrimziMonitorIntegrationConnector conn = new StrimziMonitorIntegrationConnector();
+        Map<String, TopicProperties> topicPropertiesMap = conn.convertStringToTopicMap(content);
+        List<TopicElement> topicElementList = convertTopicPropertiesMapToTopicElementList(topicPropertiesMap);
+
+        TopicIntegratorContext context = mock(TopicIntegratorContext.class);
+        when(context.getMyTopics(0, 8)).thenReturn(new ArrayList<>(topicElementList.subList(0, 8)));
+        when(context.getMyTopics(8, 8)).thenReturn(new ArrayList<>(topicElementList.subList(8, 16)));
+        when(context.getMyTopics(16, 8)).thenReturn(new ArrayList<>(topicElementList.subList(16, 18)));
+        conn.setTopicIntegratorContext(context);
+        conn.setCataloguePageSize(8);
+
+        CatalogIndex cataloguedTopicIndex = conn.getCataloguedTopicIndex();
+        assertEquals(EXPECTED_NAMES_SET.size(), cataloguedTopicIndex.size());
+        for (String topicName : EXPECTED_NAMES_SET) {
+            assertTrue(cataloguedTopicIndex.contains(topicName));
+        }
+        verify(context, times(3)).getMyTopics(anyInt(), eq(8));
+
+        conn.determineMutations(cataloguedTopicIndex, topicPropertiesMap);
+        assertTrue(conn.getupdateTopicNameToGuidMap().isEmpty());
+        assertTrue(conn.getdeleteTopicNameToGuidMap().isEmpty());
+        assertTrue(conn.getaddTopicNamesSet().isEmpty());
+    }
+
     private List<TopicElement> convertTopicPropertiesMapToTopicElementList(Map<String, TopicProperties> topicPropertiesMap) {
         List<TopicElement> topicElementList = new ArrayList<>();
         int guid= 1;
@@ -0,0 +1,88 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Tests for reading the selected config and status attributes of KafkaTopics.
+ */
+public class TopicAttributeModelTest
+{
+    private static final String TOPIC_LIST = "{\"items\":[" +
+            topicJson("a", "delete", "604800000", "True") + "," +
+            topicJson("b", "delete", "604800000", "False") + "," +
+            "{\"metadata\":{\"name\":\"c\"},\"spec\":{\"partitions\":1}}" +
+            "],\"metadata\":{\"resourceVersion\":\"1\"}}";
+
+    @Test
+    void testSelectedAttributesAreReadAndShared() throws IOException {
+        TopicAttributeModel model = new TopicAttributeModel(Arrays.asList("cleanup.policy", "retention.ms"),
+                                                            Arrays.asList("conditions.Ready", "observedGeneration"));
+        List<KafkaTopicResource> resources = new ArrayList<>();
+        new KafkaTopicListParser(new JsonFactory(), null, model).parse(TOPIC_LIST, resources::add);
+
+        Map<String, String> a = new TopicAttributeMap(model, resources.get(0).getAttributes());
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("config.cleanup.policy", "delete");
+        expected.put("config.retention.ms", "604800000");
+        expected.put("status.conditions.Ready", "True");
+        expected.put("status.observedGeneration", "3");
+        assertEquals(expected, a);
+        // the keys are in slot order, and keys that were not selected are not read
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(a.keySet()));
+        assertNull(a.get("config.segment.bytes"));
+        assertEquals(1, resources.get(0).getPartitions());
+        assertEquals("a-topic", resources.get(0).getStatusTopicName());
+
+        // topics with the same values share them
+        Map<String, String> b = new TopicAttributeMap(model, resources.get(1).getAttributes());
+        assertSame(a.get("config.retention.ms"), b.get("config.retention.ms"));
+        assertEquals("False", b.get("status.conditions.Ready"));
+        assertNull(resources.get(2).getAttributes());
+
+        // only the slots of the model can be set
+        b.put(StrimziCluster.CLUSTER_PROPERTY, "east");
+        assertEquals("east", b.get(StrimziCluster.CLUSTER_PROPERTY));
+        assertEquals(5, b.size());
+        assertThrows(IllegalArgumentException.class, () -> b.put("other", "value"));
+    }
+
+    @Test
+    void testValuePoolIsBounded() {
+        TopicAttributeModel model = new TopicAttributeModel(Collections.singletonList("retention.ms"), Collections.emptyList(), 2);
+        String first = model.pool(new String("1"));
+        assertSame(first, model.pool(new String("1")));
+        model.pool("2");
+        // the pool is full, so a third value is kept but not shared
+        String third = new String("3");
+        assertSame(third, model.pool(third));
+        assertNotSame(third, model.pool(new String("3")));
+        assertSame(first, model.pool(new String("1")));
+    }
+
+    private static String topicJson(String name, String cleanupPolicy, String retention, String ready) {
+        return "{\"metadata\":{\"name\":\"" + name + "\"}," +
+                "\"spec\":{\"config\":{\"cleanup.policy\":\"" + cleanupPolicy + "\",\"retention.ms\":" + retention +
+                ",\"segment.bytes\":1073741824},\"partitions\":1,\"replicas\":1}," +
+                "\"status\":{\"conditions\":[{\"lastTransitionTime\":\"2023-01-01T00:00:00Z\",\"status\":\"" + ready +
+                "\",\"type\":\"Ready\"}],\"observedGeneration\":3,\"topicName\":\"" + name + "-topic\"}}";
+    }
+}
@@ -0,0 +1,80 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.junit.jupiter.api.Test;
+import org.odpi.openmetadata.accessservices.datamanager.properties.TopicProperties;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+
+/**
+ * Tests for working out the catalog changes with the reusable open-addressed index.
+ */
+public class TopicDiffTest
+{
+    private static TopicProperties strimziTopic(String fingerprint) {
+        TopicProperties topicProperties = new TopicProperties();
+        topicProperties.setAdditionalProperties(Collections.singletonMap(TopicFingerprint.FINGERPRINT_PROPERTY, fingerprint));
+        return topicProperties;
+    }
+
+    private static Map<String, String> toMap(TopicMutations mutations) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < mutations.size(); i++) {
+            map.put(mutations.getTopicName(i), mutations.getAction(i) + ":" + mutations.getGUID(i));
+        }
+        assertEquals(mutations.size(), map.size());
+        return map;
+    }
+
+    @Test
+    void testReusedDiffMatchesEachCatalog() {
+        TopicDiff topicDiff = new TopicDiff((strimziTopic, cataloguedTopic) -> true);
+        TopicMutations mutations = new TopicMutations();
+
+        // a large cluster first, so that the smaller one reuses the table
+        CatalogIndex cataloguedTopics = new CatalogIndex();
+        for (int i = 0; i < 5000; i++) {
+            cataloguedTopics.put("topic-" + i, new CataloguedTopic("guid-" + i, null, null, "f" + i));
+            String fingerprint = i == 100 ? "changed" : "f" + (i + 10);
+            topicDiff.add("topic-" + (i + 10), strimziTopic(fingerprint), fingerprint);
+        }
+        assertEquals(5000, topicDiff.size());
+        topicDiff.diff(cataloguedTopics, null, mutations);
+        Map<String, String> changes = toMap(mutations);
+        assertEquals(21, changes.size());
+        assertEquals("delete:guid-3", changes.get("topic-3"));
+        assertEquals("create:null", changes.get("topic-5005"));
+        assertEquals("update:guid-110", changes.get("topic-110"));
+
+        mutations.clear();
+        // the catalog index is refilled for the second diff as it is by each catalog read
+        CatalogIndex smallCatalog = cataloguedTopics;
+        smallCatalog.clear();
+        smallCatalog.put("a", new CataloguedTopic("guid-a", null, null, "fa"));
+        // no fingerprint, so the update check decides
+        smallCatalog.put("b", new CataloguedTopic("guid-b", null, null, null));
+        smallCatalog.put("other", new CataloguedTopic("guid-other", null, null, "fo", "west"));
+        Map<String, TopicProperties> smallCluster = new LinkedHashMap<>();
+        smallCluster.put("a", strimziTopic("fa"));
+        smallCluster.put("b", strimziTopic("fb"));
+        smallCluster.put("topic-1", strimziTopic("f1"));
+        // read from the additional properties when the topics were not added as they were parsed
+        topicDiff.load(smallCluster);
+        assertEquals(3, topicDiff.size());
+        topicDiff.diff(smallCatalog, (topicName, cluster) -> cluster == null, mutations);
+        changes = toMap(mutations);
+        assertEquals(2, changes.size());
+        assertEquals("update:guid-b", changes.get("b"));
+        assertEquals("create:null", changes.get("topic-1"));
+        assertFalse(changes.containsKey("other"));
+    }
+}
@@ -0,0 +1,98 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests for the compiled topic name filter.
+ */
+public class TopicNameFilterTest
+{
+    @Test
+    void testIncludeAndExcludePatterns() {
+        TopicNameFilter filter = TopicNameFilter.compile(Arrays.asList("orders.*", "payments.*", "audit", "team-?.events-*", "regex:metrics-[0-9]+"),
+                                                         Arrays.asList("*-dlq", "orders.internal*"));
+        assertTrue(filter.accepts("orders.created"));
+        assertTrue(filter.accepts("payments."));
+        assertTrue(filter.accepts("audit"));
+        assertTrue(filter.accepts("team-7.events-eu"));
+        assertTrue(filter.accepts("metrics-42"));
+
+        assertFalse(filter.accepts("orders"));
+        assertFalse(filter.accepts("audit-log"));
+        assertFalse(filter.accepts("team-42.events-eu"));
+        assertFalse(filter.accepts("metrics-42a"));
+        assertFalse(filter.accepts("orders.created-dlq"));
+        assertFalse(filter.accepts("orders.internal.retry"));
+        assertFalse(filter.accepts("shipments.created"));
+    }
+
+    @Test
+    void testEmptyNamesAreNeverIncluded() {
+        assertTrue(TopicNameFilter.ACCEPT_ALL.accepts("a"));
+        assertFalse(TopicNameFilter.ACCEPT_ALL.accepts(""));
+        assertFalse(TopicNameFilter.ACCEPT_ALL.accepts(null));
+        assertFalse(TopicNameFilter.compile(Collections.singletonList("orders.*"), Collections.emptyList()).accepts(""));
+    }
+
+    @Test
+    void testPrefixesShareTrieNodes() {
+        TopicNameFilter filter = TopicNameFilter.compile(Arrays.asList("a.b*", "a*", "a.bc.d*", "ab*"), Collections.emptyList());
+        assertTrue(filter.accepts("a"));
+        assertTrue(filter.accepts("a.x"));
+        assertFalse(filter.accepts("b.a"));
+
+        filter = TopicNameFilter.compile(Arrays.asList("a.bc.d*", "a.b*"), Collections.emptyList());
+        assertTrue(filter.accepts("a.b"));
+        assertTrue(filter.accepts("a.bc.d.e"));
+        assertFalse(filter.accepts("a."));
+        assertFalse(filter.accepts("a.c"));
+    }
+
+    @Test
+    void testGlobsMatchAfterTheirLeadingText() {
+        TopicNameFilter filter = TopicNameFilter.compile(Arrays.asList("team-*.events", "team-2?.audit-*", "team-1*", "*.dlq", "a**b"),
+                                                         Collections.emptyList());
+        assertTrue(filter.accepts("team-7.events"));
+        assertTrue(filter.accepts("team-7.x.events"));
+        assertTrue(filter.accepts("team-23.audit-eu"));
+        assertTrue(filter.accepts("team-1"));
+        assertTrue(filter.accepts("orders.dlq"));
+        assertTrue(filter.accepts("ab"));
+        assertTrue(filter.accepts("aXbYb"));
+
+        assertFalse(filter.accepts("team-7.events.eu"));
+        assertFalse(filter.accepts("team-7.audit-eu"));
+        assertFalse(filter.accepts("team-2.audit-eu"));
+        assertFalse(filter.accepts("orders.dlq-x"));
+        assertFalse(filter.accepts("aXbY"));
+    }
+
+    @Test
+    void testLiteralPrefixIsNotAPattern() {
+        TopicNameFilter filter = TopicNameFilter.compile("regex:a?*", Collections.singletonList("orders.*"), Collections.singletonList("*-dlq"));
+        assertTrue(filter.accepts("regex:a?*"));
+        assertTrue(filter.accepts("regex:a?*.events"));
+        assertTrue(filter.accepts("orders.created"));
+        // the exclude pattern is still a pattern
+        assertFalse(filter.accepts("regex:a?*-dlq"));
+
+        assertFalse(filter.accepts("regex:ab"));
+        assertFalse(filter.accepts("a"));
+    }
+
+    @Test
+    void testInvalidExpressionIsRejected() {
+        assertFalse(TopicNameFilter.isValid(Collections.singletonList("regex:orders.(")));
+        assertTrue(TopicNameFilter.isValid(Collections.singletonList("orders.(*")));
+    }
+}
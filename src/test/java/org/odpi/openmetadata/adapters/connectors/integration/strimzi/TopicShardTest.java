@@ -0,0 +1,58 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests for dividing the topics between connector instances.
+ */
+public class TopicShardTest
+{
+    private static final int TOPIC_COUNT = 20000;
+
+    @Test
+    void testEachTopicHasOneShardAndShardsAreEven() {
+        TopicShard[] shards = {new TopicShard(0, 4), new TopicShard(1, 4), new TopicShard(2, 4), new TopicShard(3, 4)};
+        int[] owned = new int[shards.length];
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            String topicName = "orders.region-" + i + ".events";
+            int owners = 0;
+            for (int shard = 0; shard < shards.length; shard++) {
+                if (shards[shard].owns(topicName)) {
+                    owners++;
+                    owned[shard]++;
+                }
+            }
+            assertEquals(1, owners, topicName);
+            assertTrue(TopicShard.ALL.owns(topicName));
+        }
+        for (int count : owned) {
+            // within 5% of an even share
+            assertTrue(Math.abs(count - TOPIC_COUNT / shards.length) < TOPIC_COUNT / shards.length / 20, "uneven shards " + count);
+        }
+    }
+
+    @Test
+    void testAddingShardOnlyMovesTopicsToNewShard() {
+        int moved = 0;
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            String topicName = "topic-" + i;
+            int before = TopicShard.getShard(topicName, 4);
+            int after = TopicShard.getShard(topicName, 5);
+            if (before != after) {
+                assertEquals(4, after, topicName);
+                moved++;
+            }
+        }
+        // about a fifth of the topics move
+        assertTrue(Math.abs(moved - TOPIC_COUNT / 5) < TOPIC_COUNT / 50, "moved " + moved);
+        assertThrows(IllegalArgumentException.class, () -> new TopicShard(2, 2));
+    }
+}
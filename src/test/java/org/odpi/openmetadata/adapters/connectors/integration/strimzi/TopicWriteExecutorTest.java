@@ -0,0 +1,45 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Tests for applying the catalog changes in parallel.
+ */
+public class TopicWriteExecutorTest
+{
+    @Test
+    void testChangesNotReachedAreNotCountedAsSucceeded() throws InterruptedException {
+        AtomicInteger applied = new AtomicInteger();
+        CountDownLatch bothWriting = new CountDownLatch(2);
+        try (TopicWriteExecutor executor = new TopicWriteExecutor(2, "test-writer-")) {
+            TopicWriteExecutor.Results results = executor.execute(new TopicWriteExecutor.TopicWrites() {
+                @Override
+                public int size() {
+                    return 10;
+                }
+
+                @Override
+                public void apply(int index) throws Exception {
+                    // each writer takes one change and is then interrupted, so the rest are never reached
+                    bothWriting.countDown();
+                    bothWriting.await();
+                    applied.incrementAndGet();
+                    Thread.currentThread().interrupt();
+                }
+            }, (index, error) -> {
+            });
+            assertEquals(2, applied.get());
+            assertEquals(2, results.getSucceeded());
+            assertEquals(0, results.getFailed());
+        }
+    }
+}
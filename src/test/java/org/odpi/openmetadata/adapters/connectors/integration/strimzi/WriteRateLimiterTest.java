@@ -0,0 +1,42 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.strimzi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Tests for pacing the changes sent to the metadata server.
+ */
+public class WriteRateLimiterTest
+{
+    private static final long MILLIS = 1000000;
+
+    @Test
+    void testBurstThenRate() {
+        AtomicLong clock = new AtomicLong(0);
+        WriteRateLimiter limiter = new WriteRateLimiter(10, 3, clock::get);
+        // the full bucket lets a burst through
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        // then each change waits for its own token, 100ms apart
+        assertEquals(100 * MILLIS, limiter.reserve());
+        assertEquals(200 * MILLIS, limiter.reserve());
+
+        // the reserved tokens are paid back before new ones collect
+        clock.set(200 * MILLIS);
+        assertEquals(100 * MILLIS, limiter.reserve());
+        clock.set(10000 * MILLIS);
+        // an idle period refills no more than the burst
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(100 * MILLIS, limiter.reserve());
+    }
+}